@@ -3,6 +3,8 @@ package com.ept.sn.cri.backend.candidat.controller;
 import com.ept.sn.cri.backend.candidat.dto.*;
 import com.ept.sn.cri.backend.candidat.service.CandidateJobOfferService;
 import com.ept.sn.cri.backend.entity.User;
+import com.ept.sn.cri.backend.enums.ContratType;
+import com.ept.sn.cri.backend.enums.JobType;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -33,6 +35,17 @@ public class CandidateJobOfferController {
         return ResponseEntity.ok(jobOffers);
     }
 
+    /**
+     * Offres disponibles paginées par curseur (PUBLIC)
+     * GET /api/v1/candidate/job-offers/page?after=...&size=20
+     */
+    @GetMapping("/job-offers/page")
+    public ResponseEntity<PublicJobOfferPageDTO> getAvailableJobOffersPage(
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(candidateJobOfferService.getAvailableJobOffersPage(after, size));
+    }
+
 
     /**
      * Obtenir les détails d'une offre spécifique (PUBLIC)
@@ -54,6 +67,34 @@ public class CandidateJobOfferController {
         return ResponseEntity.ok(jobOffers);
     }
 
+    /**
+     * Recherche à facettes (PUBLIC) : offres filtrées et nombre d'offres par valeur de chaque facette
+     * GET /api/v1/candidate/job-offers/filter?keyword=java&jobType=PER&typeContrat=CDI&experience=1-2&page=0&size=20
+     */
+    @GetMapping("/job-offers/filter")
+    public ResponseEntity<JobOfferFacetSearchDTO> filterJobOffers(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) List<JobType> jobType,
+            @RequestParam(required = false) List<ContratType> typeContrat,
+            @RequestParam(required = false) List<String> niveauEtude,
+            @RequestParam(required = false) List<String> experience,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(candidateJobOfferService.filterJobOffers(
+                keyword, jobType, typeContrat, niveauEtude, experience, page, size));
+    }
+
+    /**
+     * Suggestions de saisie : titres d'offres et compétences (PUBLIC)
+     * GET /api/v1/candidate/job-offers/suggest?prefix=dev&limit=10
+     */
+    @GetMapping("/job-offers/suggest")
+    public ResponseEntity<List<JobOfferSuggestionDTO>> suggestJobOffers(
+            @RequestParam String prefix,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(candidateJobOfferService.suggestJobOffers(prefix, limit));
+    }
+
     /**
      * Soumettre une candidature (PROTÉGÉ)
      * Nécessite une authentification avec rôle CANDIDATE
@@ -0,0 +1,27 @@
+package com.ept.sn.cri.backend.candidat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobOfferFacetSearchDTO {
+
+    private List<PublicJobOfferListDTO> jobOffers; // page demandée
+    private Integer total; // offres correspondant à tous les filtres
+    private Integer page;
+    private Integer size;
+
+    // Nombre d'offres par valeur de facette, compte tenu du mot-clé et des filtres des autres facettes
+    private Map<String, Integer> jobTypes;
+    private Map<String, Integer> typesContrat;
+    private Map<String, Integer> niveauxEtude;
+    private Map<String, Integer> experience;
+}
@@ -0,0 +1,17 @@
+package com.ept.sn.cri.backend.candidat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class JobOfferSuggestionDTO {
+
+    private String text;
+    private String type; // TITLE ou SKILL
+    private Integer offerCount;
+}
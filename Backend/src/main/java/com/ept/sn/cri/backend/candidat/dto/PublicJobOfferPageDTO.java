@@ -0,0 +1,19 @@
+package com.ept.sn.cri.backend.candidat.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PublicJobOfferPageDTO {
+
+    private List<PublicJobOfferListDTO> jobOffers;
+    private String nextCursor; // à passer dans ?after= pour la page suivante, null s'il n'y en a plus
+    private Boolean hasMore;
+}
@@ -1,7 +1,9 @@
 package com.ept.sn.cri.backend.candidat.repository;
 
 import com.ept.sn.cri.backend.entity.JobOffer;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -12,9 +14,46 @@ import java.util.List;
 @Repository
 public interface PublicJobOfferRepository extends JpaRepository<JobOffer, Long> {
 
-    // Trouver toutes les offres publiées dont la date limite n'est pas expirée
-    @Query("SELECT j FROM JobOffer j WHERE j.jobStatus = 'PUBLISHED' AND (j.dateLimite IS NULL OR j.dateLimite >= :currentDate) ORDER BY j.datePublication DESC")
-    List<JobOffer> findAvailableJobOffers(@Param("currentDate") Date currentDate);
+    // Offres publiées dont la date limite n'est pas expirée, plus récentes d'abord : [id, titre, type, contrat,
+    // début de description (201 car.), niveau, expérience, date de publication, date limite, candidatures, compétences]
+    @Query("SELECT j.id, j.jobTitle, j.jobType, j.typeContrat, LEFT(j.description, 201), j.niveauEtudeRequis, " +
+            "j.experienceMin, j.datePublication, j.dateLimite, j.applicationCount, j.requiredSkills " +
+            "FROM JobOffer j WHERE j.jobStatus = 'PUBLISHED' AND (j.dateLimite IS NULL OR j.dateLimite >= :currentDate) " +
+            "ORDER BY j.datePublication DESC, j.id DESC")
+    List<Object[]> findAvailableJobOfferRows(@Param("currentDate") Date currentDate, Pageable pageable);
+
+    // Mêmes offres, antérieures au curseur (datePublication, id) : mêmes colonnes
+    @Query("SELECT j.id, j.jobTitle, j.jobType, j.typeContrat, LEFT(j.description, 201), j.niveauEtudeRequis, " +
+            "j.experienceMin, j.datePublication, j.dateLimite, j.applicationCount, j.requiredSkills " +
+            "FROM JobOffer j WHERE j.jobStatus = 'PUBLISHED' AND (j.dateLimite IS NULL OR j.dateLimite >= :currentDate) " +
+            "AND (j.datePublication < :datePublication OR (j.datePublication = :datePublication AND j.id < :id)) " +
+            "ORDER BY j.datePublication DESC, j.id DESC")
+    List<Object[]> findAvailableJobOfferRowsBefore(@Param("currentDate") Date currentDate,
+                                                   @Param("datePublication") Date datePublication,
+                                                   @Param("id") Long id,
+                                                   Pageable pageable);
+
+    // Nouvelle candidature active sur l'offre
+    @Modifying
+    @Query("UPDATE JobOffer j SET j.applicationCount = j.applicationCount + 1 WHERE j.id = :id")
+    int incrementApplicationCount(@Param("id") Long id);
+
+    // Candidature retirée
+    @Modifying
+    @Query("UPDATE JobOffer j SET j.applicationCount = j.applicationCount - 1 WHERE j.id = :id AND j.applicationCount > 0")
+    int decrementApplicationCount(@Param("id") Long id);
+
+    // Recalcul des compteurs qui ne correspondent plus aux candidatures actives
+    @Modifying
+    @Query("UPDATE JobOffer j SET j.applicationCount = (SELECT COUNT(a) FROM Application a WHERE a.jobOffer = j " +
+            "AND a.applicationStatus <> com.ept.sn.cri.backend.enums.ApplicationStatus.WITHDRAWN) " +
+            "WHERE j.applicationCount <> (SELECT COUNT(a) FROM Application a WHERE a.jobOffer = j " +
+            "AND a.applicationStatus <> com.ept.sn.cri.backend.enums.ApplicationStatus.WITHDRAWN)")
+    int reconcileApplicationCounts();
+
+    // Toutes les offres publiées, expirées comprises (index de recherche)
+    @Query("SELECT j FROM JobOffer j WHERE j.jobStatus = 'PUBLISHED'")
+    List<JobOffer> findPublishedJobOffers();
 
     // Trouver une offre publiée par son ID
     @Query("SELECT j FROM JobOffer j WHERE j.id = :id AND j.jobStatus = 'PUBLISHED'")
@@ -0,0 +1,179 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import com.ept.sn.cri.backend.enums.ContratType;
+import com.ept.sn.cri.backend.enums.JobType;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Un bitset par valeur de facette sur les offres indexées : chaque offre occupe un emplacement
+ * (réutilisé après suppression), et filtres comme comptages se réduisent à des ET/OU de bitsets.
+ * Non synchronisé : utilisé sous le verrou de l'index de recherche.
+ */
+final class FacetBitsets {
+
+    private final Map<Long, Integer> slotByOffer = new HashMap<>();
+    private final List<Long> offerBySlot = new ArrayList<>();
+    private final Deque<Integer> freeSlots = new ArrayDeque<>();
+    private final BitSet occupied = new BitSet();
+    private final Map<JobOfferFacet, Map<String, BitSet>> values = new EnumMap<>(JobOfferFacet.class);
+    // Date limite (ms) -> offres expirant à cette date
+    private final NavigableMap<Long, BitSet> deadlines = new TreeMap<>();
+
+    FacetBitsets() {
+        clear();
+    }
+
+    void add(IndexedOffer offer) {
+        Integer freed = freeSlots.poll();
+        int slot = freed != null ? freed : offerBySlot.size();
+        if (freed != null) {
+            offerBySlot.set(slot, offer.id());
+        } else {
+            offerBySlot.add(offer.id());
+        }
+        slotByOffer.put(offer.id(), slot);
+        occupied.set(slot);
+
+        facetValues(offer).forEach((facet, value) ->
+                values.get(facet).computeIfAbsent(value, key -> new BitSet()).set(slot));
+        if (offer.dateLimite() != null) {
+            deadlines.computeIfAbsent(offer.dateLimite().getTime(), key -> new BitSet()).set(slot);
+        }
+    }
+
+    void remove(IndexedOffer offer) {
+        Integer slot = slotByOffer.remove(offer.id());
+        if (slot == null) {
+            return;
+        }
+        occupied.clear(slot);
+        offerBySlot.set(slot, null);
+        freeSlots.push(slot);
+
+        facetValues(offer).forEach((facet, value) -> {
+            Map<String, BitSet> facetValues = values.get(facet);
+            BitSet bits = facetValues.get(value);
+            if (bits != null) {
+                bits.clear(slot);
+                // Les valeurs fixes (énumérations, tranches d'expérience) restent affichées à 0, les niveaux disparaissent
+                if (bits.isEmpty() && facet == JobOfferFacet.NIVEAU_ETUDE) {
+                    facetValues.remove(value);
+                }
+            }
+        });
+        if (offer.dateLimite() != null) {
+            BitSet bits = deadlines.get(offer.dateLimite().getTime());
+            if (bits != null) {
+                bits.clear(slot);
+                if (bits.isEmpty()) {
+                    deadlines.remove(offer.dateLimite().getTime());
+                }
+            }
+        }
+    }
+
+    void clear() {
+        slotByOffer.clear();
+        offerBySlot.clear();
+        freeSlots.clear();
+        occupied.clear();
+        deadlines.clear();
+        values.clear();
+        for (JobOfferFacet facet : JobOfferFacet.values()) {
+            values.put(facet, new LinkedHashMap<>());
+        }
+        for (JobType jobType : JobType.values()) {
+            values.get(JobOfferFacet.JOB_TYPE).put(jobType.name(), new BitSet());
+        }
+        for (ContratType typeContrat : ContratType.values()) {
+            values.get(JobOfferFacet.TYPE_CONTRAT).put(typeContrat.name(), new BitSet());
+        }
+        for (String bucket : JobOfferFacet.EXPERIENCE_BUCKETS) {
+            values.get(JobOfferFacet.EXPERIENCE).put(bucket, new BitSet());
+        }
+    }
+
+    /**
+     * Offres dont la date limite n'est pas dépassée
+     */
+    BitSet available(long now) {
+        BitSet available = (BitSet) occupied.clone();
+        deadlines.headMap(now, false).values().forEach(available::andNot);
+        return available;
+    }
+
+    /**
+     * Offres de l'ensemble ayant l'un des identifiants donnés
+     */
+    BitSet slotsOf(Set<Long> offerIds) {
+        BitSet bits = new BitSet(offerBySlot.size());
+        for (Long offerId : offerIds) {
+            Integer slot = slotByOffer.get(offerId);
+            if (slot != null) {
+                bits.set(slot);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Offres ayant l'une des valeurs retenues pour la facette
+     */
+    BitSet anyOf(JobOfferFacet facet, Set<String> selected) {
+        BitSet bits = new BitSet(offerBySlot.size());
+        Map<String, BitSet> facetValues = values.get(facet);
+        for (String value : selected) {
+            BitSet valueBits = facetValues.get(value);
+            if (valueBits != null) {
+                bits.or(valueBits);
+            }
+        }
+        return bits;
+    }
+
+    /**
+     * Nombre d'offres de l'ensemble pour chaque valeur de la facette
+     */
+    Map<String, Integer> count(JobOfferFacet facet, BitSet base) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        BitSet scratch = new BitSet(offerBySlot.size());
+        values.get(facet).forEach((value, bits) -> {
+            scratch.clear();
+            scratch.or(bits);
+            scratch.and(base);
+            counts.put(value, scratch.cardinality());
+        });
+        return counts;
+    }
+
+    Long offerAt(int slot) {
+        return offerBySlot.get(slot);
+    }
+
+    private static Map<JobOfferFacet, String> facetValues(IndexedOffer offer) {
+        Map<JobOfferFacet, String> facetValues = new EnumMap<>(JobOfferFacet.class);
+        if (offer.jobType() != null) {
+            facetValues.put(JobOfferFacet.JOB_TYPE, offer.jobType().name());
+        }
+        if (offer.typeContrat() != null) {
+            facetValues.put(JobOfferFacet.TYPE_CONTRAT, offer.typeContrat().name());
+        }
+        if (offer.niveauEtudeRequis() != null && !offer.niveauEtudeRequis().isBlank()) {
+            facetValues.put(JobOfferFacet.NIVEAU_ETUDE, offer.niveauEtudeRequis().strip());
+        }
+        facetValues.put(JobOfferFacet.EXPERIENCE, JobOfferFacet.experienceBucket(offer.experienceMin()));
+        return facetValues;
+    }
+}
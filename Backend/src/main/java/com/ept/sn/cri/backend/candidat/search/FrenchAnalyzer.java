@@ -0,0 +1,90 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Analyse des textes d'offres et des requêtes en français :
+ * élisions retirées (l', d', qu'...), accents repliés, mots vides ignorés et radicalisation légère
+ * (pluriels, féminins), pour que « Ingénieures », « ingenieur » et « l'ingénieur » donnent le même terme.
+ */
+public final class FrenchAnalyzer {
+
+    private static final Pattern TOKEN_SEPARATOR = Pattern.compile("[^\\p{L}\\p{N}'’]+");
+    private static final Pattern COMBINING_MARKS = Pattern.compile("\\p{M}+");
+    private static final Pattern ELISION = Pattern.compile("^(?:l|d|j|m|n|s|t|c|qu|jusqu|lorsqu|puisqu|quoiqu)['’]");
+    private static final Pattern APOSTROPHES = Pattern.compile("['’]");
+
+    private static final int MIN_STEM_LENGTH = 5;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "au", "aux", "avec", "ce", "ces", "dans", "de", "des", "du", "en", "et", "est", "il", "ils",
+            "la", "le", "les", "leur", "leurs", "ou", "par", "pas", "pour", "qui", "que", "sa", "se", "ses",
+            "son", "sur", "un", "une", "vos", "votre", "nous", "vous", "y");
+
+    private FrenchAnalyzer() {
+    }
+
+    /**
+     * Termes indexables du texte, dans l'ordre, doublons compris
+     */
+    public static List<String> analyze(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String token : TOKEN_SEPARATOR.split(fold(text))) {
+            String word = APOSTROPHES.matcher(ELISION.matcher(token).replaceFirst("")).replaceAll("");
+            if (!word.isEmpty() && !STOP_WORDS.contains(word)) {
+                terms.add(stem(word));
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * Minuscules sans accents ni ligatures
+     */
+    public static String fold(String text) {
+        String decomposed = Normalizer.normalize(text.toLowerCase(Locale.ROOT), Normalizer.Form.NFD);
+        return COMBINING_MARKS.matcher(decomposed).replaceAll("")
+                .replace("œ", "oe")
+                .replace("æ", "ae")
+                .replace("ß", "ss");
+    }
+
+    /**
+     * Radicalisation légère : seules les flexions (pluriel, féminin) sont retirées, pas les dérivations
+     */
+    static String stem(String word) {
+        if (word.length() < MIN_STEM_LENGTH || !Character.isLetter(word.charAt(word.length() - 1))) {
+            return word;
+        }
+        String stem = word;
+        // Pluriels : chevaux -> cheval, analystes -> analyste
+        if (stem.endsWith("aux")) {
+            stem = stem.substring(0, stem.length() - 3) + "al";
+        } else if (stem.endsWith("s") || stem.endsWith("x")) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        // Féminins : développeuse -> développeur, directrice -> directeur, technicienne -> technicien
+        if (stem.endsWith("euse")) {
+            stem = stem.substring(0, stem.length() - 4) + "eur";
+        } else if (stem.endsWith("trice")) {
+            stem = stem.substring(0, stem.length() - 5) + "teur";
+        } else if (stem.endsWith("ive")) {
+            stem = stem.substring(0, stem.length() - 3) + "if";
+        } else if (stem.endsWith("enne")) {
+            stem = stem.substring(0, stem.length() - 2);
+        }
+        // e muet final : ingénieure -> ingénieur, analyste -> analyst
+        if (stem.endsWith("e") && stem.length() > MIN_STEM_LENGTH - 1) {
+            stem = stem.substring(0, stem.length() - 1);
+        }
+        return stem;
+    }
+}
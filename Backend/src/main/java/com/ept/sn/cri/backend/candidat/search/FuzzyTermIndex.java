@@ -0,0 +1,123 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Index des trigrammes du vocabulaire, pour retrouver les termes proches d'un terme mal orthographié
+ * sans parcourir tout le vocabulaire : seuls les termes partageant assez de trigrammes sont comparés
+ * (distance d'édition bornée, transpositions comprises).
+ * Non synchronisé : utilisé sous le verrou de l'index de recherche.
+ */
+final class FuzzyTermIndex {
+
+    private static final int GRAM = 3;
+
+    private final Map<String, Set<String>> termsByGram = new HashMap<>();
+
+    void add(String term) {
+        for (String gram : grams(term)) {
+            termsByGram.computeIfAbsent(gram, key -> new HashSet<>()).add(term);
+        }
+    }
+
+    void remove(String term) {
+        for (String gram : grams(term)) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                terms.remove(term);
+                if (terms.isEmpty()) {
+                    termsByGram.remove(gram);
+                }
+            }
+        }
+    }
+
+    void clear() {
+        termsByGram.clear();
+    }
+
+    /**
+     * Termes du vocabulaire à au plus {@code maxEdits} modifications du terme, avec leur distance
+     */
+    List<Match> similar(String term, int maxEdits) {
+        if (maxEdits <= 0) {
+            return List.of();
+        }
+        List<String> grams = grams(term);
+        Map<String, Integer> shared = new HashMap<>();
+        for (String gram : grams) {
+            Set<String> terms = termsByGram.get(gram);
+            if (terms != null) {
+                terms.forEach(candidate -> shared.merge(candidate, 1, Integer::sum));
+            }
+        }
+
+        List<Match> matches = new ArrayList<>();
+        for (Map.Entry<String, Integer> candidate : shared.entrySet()) {
+            String other = candidate.getKey();
+            // Chaque modification détruit au plus GRAM trigrammes (GRAM + 1 pour une transposition)
+            int required = Math.max(grams.size(), other.length()) - (GRAM + 1) * maxEdits;
+            if (Math.abs(other.length() - term.length()) > maxEdits || candidate.getValue() < required || other.equals(term)) {
+                continue;
+            }
+            int distance = distance(term, other, maxEdits);
+            if (distance <= maxEdits) {
+                matches.add(new Match(other, distance));
+            }
+        }
+        return matches;
+    }
+
+    // Trigrammes du terme encadré ("$in", ..., "ur$") : autant que de caractères, débuts et fins de mot compris
+    private static List<String> grams(String term) {
+        String padded = "$" + term + "$";
+        List<String> grams = new ArrayList<>(Math.max(1, padded.length() - GRAM + 1));
+        if (padded.length() <= GRAM) {
+            grams.add(padded);
+            return grams;
+        }
+        for (int i = 0; i + GRAM <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + GRAM));
+        }
+        return grams;
+    }
+
+    // Distance de Damerau-Levenshtein restreinte, abandonnée dès qu'une ligne dépasse la borne
+    private static int distance(String a, String b, int max) {
+        int[] previous2 = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = current;
+            current = recycled;
+        }
+        return previous[b.length()];
+    }
+
+    record Match(String term, int distance) {
+    }
+}
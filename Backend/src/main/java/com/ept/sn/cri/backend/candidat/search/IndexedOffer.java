@@ -0,0 +1,54 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import com.ept.sn.cri.backend.candidat.dto.PublicJobOfferListDTO;
+import com.ept.sn.cri.backend.enums.ContratType;
+import com.ept.sn.cri.backend.enums.JobType;
+
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Offre telle que conservée par l'index : champs de la liste publique et termes indexés
+ */
+record IndexedOffer(
+        Long id,
+        String jobTitle,
+        JobType jobType,
+        ContratType typeContrat,
+        String descriptionPreview,
+        String niveauEtudeRequis,
+        Integer experienceMin,
+        Date datePublication,
+        Date dateLimite,
+        int applicationCount,
+        List<String> requiredSkills,
+        Map<String, Integer> termFrequencies,
+        int length
+) {
+
+    boolean isAvailable(Date now) {
+        return dateLimite == null || !dateLimite.before(now);
+    }
+
+    IndexedOffer withApplicationCount(int count) {
+        return new IndexedOffer(id, jobTitle, jobType, typeContrat, descriptionPreview, niveauEtudeRequis,
+                experienceMin, datePublication, dateLimite, count, requiredSkills, termFrequencies, length);
+    }
+
+    PublicJobOfferListDTO toListDTO() {
+        return PublicJobOfferListDTO.builder()
+                .id(id)
+                .jobTitle(jobTitle)
+                .jobType(jobType)
+                .typeContrat(typeContrat)
+                .description(descriptionPreview)
+                .niveauEtudeRequis(niveauEtudeRequis)
+                .experienceMin(experienceMin)
+                .datePublication(datePublication)
+                .dateLimite(dateLimite)
+                .applicationCount(applicationCount)
+                .requiredSkills(requiredSkills)
+                .build();
+    }
+}
@@ -0,0 +1,28 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import java.util.List;
+
+/**
+ * Facettes de la recherche publique des offres
+ */
+public enum JobOfferFacet {
+    JOB_TYPE,
+    TYPE_CONTRAT,
+    NIVEAU_ETUDE,
+    EXPERIENCE;
+
+    public static final List<String> EXPERIENCE_BUCKETS = List.of("0", "1-2", "3-5", "6+");
+
+    /**
+     * Tranche d'expérience minimale exigée : "0", "1-2", "3-5" ou "6+"
+     */
+    public static String experienceBucket(Integer experienceMin) {
+        if (experienceMin == null || experienceMin <= 0) {
+            return "0";
+        }
+        if (experienceMin <= 2) {
+            return "1-2";
+        }
+        return experienceMin <= 5 ? "3-5" : "6+";
+    }
+}
@@ -0,0 +1,28 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Critères de la recherche à facettes : mot-clé facultatif, et pour chaque facette
+ * les valeurs acceptées (OU au sein d'une facette, ET entre facettes ; vide = pas de filtre)
+ */
+public record JobOfferFacetFilter(String keyword, Map<JobOfferFacet, Set<String>> selected) {
+
+    public JobOfferFacetFilter {
+        Map<JobOfferFacet, Set<String>> copy = new EnumMap<>(JobOfferFacet.class);
+        if (selected != null) {
+            selected.forEach((facet, values) -> {
+                if (values != null && !values.isEmpty()) {
+                    copy.put(facet, Set.copyOf(values));
+                }
+            });
+        }
+        selected = copy;
+    }
+
+    boolean hasKeyword() {
+        return keyword != null && !keyword.isBlank();
+    }
+}
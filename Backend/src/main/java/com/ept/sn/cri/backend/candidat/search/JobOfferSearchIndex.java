@@ -0,0 +1,476 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import com.ept.sn.cri.backend.candidat.dto.JobOfferFacetSearchDTO;
+import com.ept.sn.cri.backend.candidat.dto.JobOfferSuggestionDTO;
+import com.ept.sn.cri.backend.candidat.dto.PublicJobOfferListDTO;
+import com.ept.sn.cri.backend.candidat.repository.PublicJobOfferRepository;
+import com.ept.sn.cri.backend.entity.JobOffer;
+import com.ept.sn.cri.backend.enums.ActivityType;
+import com.ept.sn.cri.backend.event.ApplicationActivityEvent;
+import com.ept.sn.cri.backend.event.JobOfferChangedEvent;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Index inversé en mémoire des offres publiées (titre, compétences, description), classement BM25.
+ * Textes et requêtes passent par {@link FrenchAnalyzer} ; un terme absent du vocabulaire est rapproché
+ * des termes voisins (fautes de frappe) grâce à l'index de trigrammes.
+ * Les facettes (type de poste, contrat, niveau, expérience) sont tenues dans des bitsets par valeur,
+ * et les suggestions de saisie (titres, compétences) dans un trie pondéré.
+ * Construit au démarrage puis tenu à jour par les événements sur les offres et les candidatures :
+ * la recherche publique ne lit plus MySQL. Une reconstruction périodique rattrape les modifications
+ * faites sur un autre nœud ; les offres modifiées pendant qu'elle lit la base sont relues et réindexées
+ * après le remplacement, pour ne pas perdre ces mises à jour.
+ */
+@Component
+@Slf4j
+public class JobOfferSearchIndex {
+
+    // Paramètres BM25 usuels
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+
+    // Poids des champs (BM25F simplifié) : un terme du titre compte plus qu'un terme de la description
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SKILLS_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int DESCRIPTION_PREVIEW_LENGTH = 200;
+
+    private static final Comparator<Hit> BY_PUBLICATION = Comparator
+            .comparing((Hit hit) -> hit.offer().datePublication(), Comparator.nullsLast(Comparator.reverseOrder()))
+            .thenComparing(hit -> hit.offer().id(), Comparator.reverseOrder());
+    private static final Comparator<Hit> BY_RELEVANCE = Comparator.comparingDouble(Hit::score).reversed()
+            .thenComparing(BY_PUBLICATION);
+
+    private final PublicJobOfferRepository publicJobOfferRepository;
+    private final Timer searchTimer;
+    private final Timer facetTimer;
+    private final Timer suggestTimer;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    // terme -> (offre -> fréquence pondérée du terme)
+    private final Map<String, Map<Long, Integer>> postings = new HashMap<>();
+    private final Map<Long, IndexedOffer> offers = new HashMap<>();
+    private final FuzzyTermIndex fuzzyTerms = new FuzzyTermIndex();
+    private final FacetBitsets facets = new FacetBitsets();
+    private final SuggestionTrie suggestions = new SuggestionTrie();
+    private long totalLength;
+    // Offres modifiées depuis le début de la reconstruction en cours (null hors reconstruction)
+    private Set<Long> changedDuringRebuild;
+    private volatile boolean ready;
+
+    public JobOfferSearchIndex(PublicJobOfferRepository publicJobOfferRepository, MeterRegistry meterRegistry) {
+        this.publicJobOfferRepository = publicJobOfferRepository;
+        this.searchTimer = Timer.builder("search.job-offers.query").tag("type", "keyword").register(meterRegistry);
+        this.facetTimer = Timer.builder("search.job-offers.query").tag("type", "facets").register(meterRegistry);
+        this.suggestTimer = Timer.builder("search.job-offers.query").tag("type", "suggest").register(meterRegistry);
+        Gauge.builder("search.job-offers.documents", this, JobOfferSearchIndex::size).register(meterRegistry);
+        Gauge.builder("search.job-offers.terms", this, JobOfferSearchIndex::termCount).register(meterRegistry);
+        Gauge.builder("search.job-offers.suggestions", this, JobOfferSearchIndex::suggestionCount).register(meterRegistry);
+    }
+
+    /**
+     * Faux tant que l'index n'a pas été construit une première fois
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Offres publiées et non expirées correspondant à au moins un terme de la requête, les plus pertinentes d'abord
+     */
+    public List<PublicJobOfferListDTO> search(String query) {
+        return searchTimer.record(() -> {
+            Set<String> terms = new LinkedHashSet<>(FrenchAnalyzer.analyze(query));
+            if (terms.isEmpty()) {
+                return List.of();
+            }
+            Date now = new Date();
+
+            lock.readLock().lock();
+            try {
+                return score(terms).entrySet().stream()
+                        .map(score -> new Hit(offers.get(score.getKey()), score.getValue()))
+                        .filter(hit -> hit.offer().isAvailable(now))
+                        .sorted(BY_RELEVANCE)
+                        .map(hit -> hit.offer().toListDTO())
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Recherche à facettes : page d'offres disponibles correspondant au mot-clé et aux filtres,
+     * et pour chaque facette le nombre d'offres par valeur avec les filtres des autres facettes
+     * (sélectionner une valeur ne fait pas disparaître les autres valeurs de la même facette)
+     */
+    public JobOfferFacetSearchDTO facetedSearch(JobOfferFacetFilter filter, int page, int size) {
+        return facetTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                BitSet base = facets.available(System.currentTimeMillis());
+                Map<Long, Double> scores = null;
+                if (filter.hasKeyword()) {
+                    scores = score(new LinkedHashSet<>(FrenchAnalyzer.analyze(filter.keyword())));
+                    base.and(facets.slotsOf(scores.keySet()));
+                }
+
+                Map<JobOfferFacet, BitSet> masks = new EnumMap<>(JobOfferFacet.class);
+                filter.selected().forEach((facet, values) -> masks.put(facet, facets.anyOf(facet, values)));
+
+                BitSet matching = (BitSet) base.clone();
+                masks.values().forEach(matching::and);
+
+                List<Hit> hits = new ArrayList<>(matching.cardinality());
+                for (int slot = matching.nextSetBit(0); slot >= 0; slot = matching.nextSetBit(slot + 1)) {
+                    IndexedOffer offer = offers.get(facets.offerAt(slot));
+                    hits.add(new Hit(offer, scores != null ? scores.getOrDefault(offer.id(), 0.0) : 0.0));
+                }
+                hits.sort(scores != null ? BY_RELEVANCE : BY_PUBLICATION);
+
+                List<PublicJobOfferListDTO> pageContent = hits.stream()
+                        .skip((long) page * size)
+                        .limit(size)
+                        .map(hit -> hit.offer().toListDTO())
+                        .toList();
+
+                return JobOfferFacetSearchDTO.builder()
+                        .jobOffers(pageContent)
+                        .total(hits.size())
+                        .page(page)
+                        .size(size)
+                        .jobTypes(countExcept(JobOfferFacet.JOB_TYPE, base, masks))
+                        .typesContrat(countExcept(JobOfferFacet.TYPE_CONTRAT, base, masks))
+                        .niveauxEtude(countExcept(JobOfferFacet.NIVEAU_ETUDE, base, masks))
+                        .experience(countExcept(JobOfferFacet.EXPERIENCE, base, masks))
+                        .build();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    /**
+     * Suggestions de saisie (titres, compétences) commençant par le préfixe, les plus demandées d'abord
+     */
+    public List<JobOfferSuggestionDTO> suggest(String prefix, int limit) {
+        return suggestTimer.record(() -> {
+            lock.readLock().lock();
+            try {
+                return suggestions.suggest(prefix, Math.min(limit, SuggestionTrie.MAX_SUGGESTIONS)).stream()
+                        .map(suggestion -> JobOfferSuggestionDTO.builder()
+                                .text(suggestion.label())
+                                .type(suggestion.type().name())
+                                .offerCount(suggestion.offers())
+                                .build())
+                        .toList();
+            } finally {
+                lock.readLock().unlock();
+            }
+        });
+    }
+
+    // Appelé sous verrou de lecture
+    private Map<String, Integer> countExcept(JobOfferFacet facet, BitSet base, Map<JobOfferFacet, BitSet> masks) {
+        BitSet others = (BitSet) base.clone();
+        masks.forEach((other, mask) -> {
+            if (other != facet) {
+                others.and(mask);
+            }
+        });
+        return facets.count(facet, others);
+    }
+
+    // Score BM25 de chaque offre correspondant à au moins un terme ; appelé sous verrou de lecture
+    private Map<Long, Double> score(Set<String> terms) {
+        int documentCount = offers.size();
+        if (documentCount == 0 || terms.isEmpty()) {
+            return Map.of();
+        }
+        double averageLength = (double) totalLength / documentCount;
+
+        Map<Long, Double> scores = new HashMap<>();
+        for (String term : terms) {
+            // Une offre ne compte qu'une fois par terme de la requête, pour sa meilleure variante
+            Map<Long, Double> termScores = new HashMap<>();
+            if (postings.containsKey(term)) {
+                scoreTerm(term, 1.0, documentCount, averageLength, termScores);
+            } else {
+                for (FuzzyTermIndex.Match match : fuzzyTerms.similar(term, maxEdits(term))) {
+                    scoreTerm(match.term(), 1.0 / (1 + match.distance()), documentCount, averageLength, termScores);
+                }
+            }
+            termScores.forEach((offerId, score) -> scores.merge(offerId, score, Double::sum));
+        }
+        return scores;
+    }
+
+    // Appelé sous verrou de lecture
+    private void scoreTerm(String term, double weight, int documentCount, double averageLength, Map<Long, Double> termScores) {
+        Map<Long, Integer> termPostings = postings.get(term);
+        double idf = Math.log(1 + (documentCount - termPostings.size() + 0.5) / (termPostings.size() + 0.5));
+        for (Map.Entry<Long, Integer> posting : termPostings.entrySet()) {
+            double frequency = posting.getValue();
+            double norm = K1 * (1 - B + B * offers.get(posting.getKey()).length() / averageLength);
+            termScores.merge(posting.getKey(), weight * idf * frequency * (K1 + 1) / (frequency + norm), Math::max);
+        }
+    }
+
+    // Fautes tolérées selon la longueur du terme : aucune sous 4 caractères, 2 à partir de 8
+    private int maxEdits(String term) {
+        return term.length() < 4 ? 0 : term.length() < 8 ? 1 : 2;
+    }
+
+    /**
+     * Reconstruire l'index complet depuis la base (démarrage, puis périodiquement)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${search.index.rebuild-interval:10m}", fixedDelayString = "${search.index.rebuild-interval:10m}")
+    public synchronized void rebuild() {
+        long start = System.nanoTime();
+        lock.writeLock().lock();
+        try {
+            changedDuringRebuild = new HashSet<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Hors transaction : les relectures ci-dessous doivent voir les validations postérieures à cette lecture
+        List<IndexedOffer> published = publicJobOfferRepository.findPublishedJobOffers().stream()
+                .map(this::toIndexedOffer)
+                .toList();
+
+        Set<Long> changed;
+        lock.writeLock().lock();
+        try {
+            postings.clear();
+            offers.clear();
+            fuzzyTerms.clear();
+            facets.clear();
+            suggestions.clear();
+            totalLength = 0;
+            published.forEach(this::add);
+            Date now = new Date();
+            suggestions.rebuild(published.stream().filter(offer -> offer.isAvailable(now)).toList());
+            ready = true;
+            changed = takeChangedDuringRebuild();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        // Offres modifiées pendant la lecture : relues et réindexées, jusqu'à ce qu'aucune ne change entre-temps
+        while (!changed.isEmpty()) {
+            Map<Long, Optional<IndexedOffer>> reread = new HashMap<>();
+            changed.forEach(offerId -> reread.put(offerId, findIndexedOffer(offerId)));
+            lock.writeLock().lock();
+            try {
+                reread.forEach(this::reindex);
+                changed = takeChangedDuringRebuild();
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        log.info(" Index de recherche des offres construit : {} offre(s), {} terme(s) en {} ms",
+                published.size(), termCount(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Réindexer une offre après validation de sa modification (retirée si elle n'est plus publiée)
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        Optional<IndexedOffer> offer = findIndexedOffer(event.getJobOfferId());
+
+        lock.writeLock().lock();
+        try {
+            reindex(event.getJobOfferId(), offer);
+            recordChange(event.getJobOfferId());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Tenir à jour le nombre de candidatures affiché sans relire l'offre
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationActivity(ApplicationActivityEvent event) {
+        int delta = event.getActivityType() == ActivityType.NEW_APPLICATION ? 1
+                : event.getActivityType() == ActivityType.WITHDRAWN ? -1 : 0;
+        if (delta == 0) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            recordChange(event.getJobOfferId());
+            IndexedOffer offer = offers.get(event.getJobOfferId());
+            if (offer != null) {
+                int count = Math.max(0, offer.applicationCount() + delta);
+                offers.put(offer.id(), offer.withApplicationCount(count));
+                suggestions.adjustApplications(offer, count - offer.applicationCount());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private int size() {
+        lock.readLock().lock();
+        try {
+            return offers.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int termCount() {
+        lock.readLock().lock();
+        try {
+            return postings.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private int suggestionCount() {
+        lock.readLock().lock();
+        try {
+            return suggestions.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Optional<IndexedOffer> findIndexedOffer(Long offerId) {
+        return Optional.ofNullable(publicJobOfferRepository.findPublishedJobOfferById(offerId))
+                .map(this::toIndexedOffer);
+    }
+
+    // Appelé sous verrou d'écriture
+    private void reindex(Long offerId, Optional<IndexedOffer> offer) {
+        remove(offerId);
+        offer.ifPresent(this::add);
+        // Une offre déjà expirée n'est pas suggérée ; celles qui expirent sortent à la reconstruction suivante
+        offer.filter(indexed -> indexed.isAvailable(new Date())).ifPresent(suggestions::add);
+    }
+
+    // Appelé sous verrou d'écriture
+    private void recordChange(Long offerId) {
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(offerId);
+        }
+    }
+
+    // Appelé sous verrou d'écriture : la reconstruction se termine quand plus aucune offre n'a changé
+    private Set<Long> takeChangedDuringRebuild() {
+        Set<Long> changed = changedDuringRebuild;
+        changedDuringRebuild = changed.isEmpty() ? null : new HashSet<>();
+        return changed;
+    }
+
+    // Appelé sous verrou d'écriture
+    private void add(IndexedOffer offer) {
+        offers.put(offer.id(), offer);
+        facets.add(offer);
+        offer.termFrequencies().forEach((term, frequency) ->
+                postings.computeIfAbsent(term, key -> {
+                    fuzzyTerms.add(term);
+                    return new HashMap<>();
+                }).put(offer.id(), frequency));
+        totalLength += offer.length();
+    }
+
+    // Appelé sous verrou d'écriture
+    private void remove(Long offerId) {
+        IndexedOffer offer = offers.remove(offerId);
+        if (offer == null) {
+            return;
+        }
+        facets.remove(offer);
+        suggestions.remove(offer);
+        for (String term : offer.termFrequencies().keySet()) {
+            Map<Long, Integer> termPostings = postings.get(term);
+            if (termPostings != null) {
+                termPostings.remove(offerId);
+                if (termPostings.isEmpty()) {
+                    postings.remove(term);
+                    fuzzyTerms.remove(term);
+                }
+            }
+        }
+        totalLength -= offer.length();
+    }
+
+    private IndexedOffer toIndexedOffer(JobOffer jobOffer) {
+        Map<String, Integer> frequencies = new HashMap<>();
+        int length = countTerms(jobOffer.getJobTitle(), TITLE_WEIGHT, frequencies)
+                + countTerms(jobOffer.getRequiredSkills(), SKILLS_WEIGHT, frequencies)
+                + countTerms(jobOffer.getDescription(), DESCRIPTION_WEIGHT, frequencies);
+
+        return new IndexedOffer(
+                jobOffer.getId(),
+                jobOffer.getJobTitle(),
+                jobOffer.getJobType(),
+                jobOffer.getTypeContrat(),
+                previewDescription(jobOffer.getDescription()),
+                jobOffer.getNiveauEtudeRequis(),
+                jobOffer.getExperienceMin(),
+                jobOffer.getDatePublication(),
+                jobOffer.getDateLimite(),
+                jobOffer.getApplicationCount(),
+                splitSkills(jobOffer.getRequiredSkills()),
+                Map.copyOf(frequencies),
+                length
+        );
+    }
+
+    private int countTerms(String text, int weight, Map<String, Integer> frequencies) {
+        List<String> tokens = FrenchAnalyzer.analyze(text);
+        tokens.forEach(token -> frequencies.merge(token, weight, Integer::sum));
+        return tokens.size() * weight;
+    }
+
+    private String previewDescription(String description) {
+        if (description == null || description.length() <= DESCRIPTION_PREVIEW_LENGTH) {
+            return description;
+        }
+        return description.substring(0, DESCRIPTION_PREVIEW_LENGTH) + "...";
+    }
+
+    private List<String> splitSkills(String requiredSkills) {
+        if (requiredSkills == null || requiredSkills.isBlank()) {
+            return List.of();
+        }
+        // Séparateurs possibles : ',' ';' '|'
+        return List.of(requiredSkills.split("\\s*[,;|]\\s*"));
+    }
+
+    private record Hit(IndexedOffer offer, double score) {
+    }
+}
@@ -0,0 +1,305 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Trie des suggestions de saisie : titres d'offres (depuis le début de chacun de leurs mots)
+ * et compétences requises, pondérés par le nombre d'offres et de candidatures.
+ * Chaque nœud garde ses meilleures suggestions : une requête ne fait que descendre le préfixe,
+ * et une mise à jour ne recalcule que les nœuds du chemin concerné.
+ * Non synchronisé : utilisé sous le verrou de l'index de recherche.
+ */
+final class SuggestionTrie {
+
+    static final int MAX_SUGGESTIONS = 10;
+
+    // Une offre de plus pèse autant que cinq candidatures
+    private static final int OFFER_WEIGHT = 5;
+    private static final int MAX_SKILL_LENGTH = 60;
+    private static final Pattern SKILL_SEPARATOR = Pattern.compile("\\s*[,;|\\n]\\s*");
+    private static final Pattern SPACES = Pattern.compile("\\s+");
+
+    private static final Comparator<Suggestion> BY_WEIGHT = Comparator.comparingInt(Suggestion::weight).reversed()
+            .thenComparing(Suggestion::label);
+
+    private final Node root = new Node();
+    private final Map<String, Suggestion> suggestions = new HashMap<>();
+    // Offres prises en compte (disponibles lors de leur indexation)
+    private final Set<Long> offerIds = new HashSet<>();
+
+    /**
+     * Reconstruire le trie en une passe : chemins insérés d'abord, meilleures suggestions calculées ensuite
+     */
+    void rebuild(Collection<IndexedOffer> offers) {
+        clear();
+        for (IndexedOffer offer : offers) {
+            if (!offerIds.add(offer.id())) {
+                continue;
+            }
+            for (Suggestion.Key key : keysOf(offer)) {
+                Suggestion suggestion = suggestions.computeIfAbsent(key.id(),
+                        id -> new Suggestion(key.type(), key.label(), key.folded()));
+                suggestion.offers++;
+                suggestion.applications += offer.applicationCount();
+            }
+        }
+        for (Suggestion suggestion : suggestions.values()) {
+            for (String path : pathsOf(suggestion)) {
+                Node node = root;
+                for (int i = 0; i < path.length(); i++) {
+                    node = node.children.computeIfAbsent(path.charAt(i), key -> new Node());
+                }
+                node.terminals.add(suggestion);
+            }
+        }
+        recomputeSubtree(root);
+    }
+
+    void add(IndexedOffer offer) {
+        if (!offerIds.add(offer.id())) {
+            return;
+        }
+        for (Suggestion.Key key : keysOf(offer)) {
+            Suggestion suggestion = suggestions.get(key.id());
+            boolean created = suggestion == null;
+            if (created) {
+                suggestion = new Suggestion(key.type(), key.label(), key.folded());
+                suggestions.put(key.id(), suggestion);
+            }
+            suggestion.offers++;
+            suggestion.applications += offer.applicationCount();
+            if (created) {
+                insert(suggestion);
+            } else {
+                refresh(suggestion);
+            }
+        }
+    }
+
+    void remove(IndexedOffer offer) {
+        if (!offerIds.remove(offer.id())) {
+            return;
+        }
+        for (Suggestion.Key key : keysOf(offer)) {
+            Suggestion suggestion = suggestions.get(key.id());
+            if (suggestion == null) {
+                continue;
+            }
+            suggestion.offers--;
+            suggestion.applications = Math.max(0, suggestion.applications - offer.applicationCount());
+            if (suggestion.offers <= 0) {
+                suggestions.remove(key.id());
+                delete(suggestion);
+            } else {
+                refresh(suggestion);
+            }
+        }
+    }
+
+    void adjustApplications(IndexedOffer offer, int delta) {
+        if (!offerIds.contains(offer.id())) {
+            return;
+        }
+        for (Suggestion.Key key : keysOf(offer)) {
+            Suggestion suggestion = suggestions.get(key.id());
+            if (suggestion != null) {
+                suggestion.applications = Math.max(0, suggestion.applications + delta);
+                refresh(suggestion);
+            }
+        }
+    }
+
+    void clear() {
+        root.children.clear();
+        root.terminals.clear();
+        root.top = List.of();
+        suggestions.clear();
+        offerIds.clear();
+    }
+
+    int size() {
+        return suggestions.size();
+    }
+
+    List<Suggestion> suggest(String prefix, int limit) {
+        String folded = normalize(prefix);
+        if (folded.isEmpty()) {
+            return List.of();
+        }
+        Node node = root;
+        for (int i = 0; i < folded.length() && node != null; i++) {
+            node = node.children.get(folded.charAt(i));
+        }
+        if (node == null) {
+            return List.of();
+        }
+        return node.top.subList(0, Math.min(limit, node.top.size()));
+    }
+
+    private void insert(Suggestion suggestion) {
+        for (String path : pathsOf(suggestion)) {
+            List<Node> nodes = new ArrayList<>(path.length() + 1);
+            Node node = root;
+            nodes.add(node);
+            for (int i = 0; i < path.length(); i++) {
+                node = node.children.computeIfAbsent(path.charAt(i), key -> new Node());
+                nodes.add(node);
+            }
+            node.terminals.add(suggestion);
+            recompute(nodes);
+        }
+    }
+
+    private void delete(Suggestion suggestion) {
+        for (String path : pathsOf(suggestion)) {
+            List<Node> nodes = walk(path);
+            if (nodes == null) {
+                continue;
+            }
+            nodes.get(nodes.size() - 1).terminals.remove(suggestion);
+            // Élaguer les nœuds devenus vides, du bas vers le haut
+            for (int i = nodes.size() - 1; i > 0; i--) {
+                Node node = nodes.get(i);
+                if (node.terminals.isEmpty() && node.children.isEmpty()) {
+                    nodes.get(i - 1).children.remove(path.charAt(i - 1));
+                }
+            }
+            recompute(nodes);
+        }
+    }
+
+    private void refresh(Suggestion suggestion) {
+        for (String path : pathsOf(suggestion)) {
+            List<Node> nodes = walk(path);
+            if (nodes != null) {
+                recompute(nodes);
+            }
+        }
+    }
+
+    private List<Node> walk(String path) {
+        List<Node> nodes = new ArrayList<>(path.length() + 1);
+        Node node = root;
+        nodes.add(node);
+        for (int i = 0; i < path.length(); i++) {
+            node = node.children.get(path.charAt(i));
+            if (node == null) {
+                return null;
+            }
+            nodes.add(node);
+        }
+        return nodes;
+    }
+
+    // Meilleures suggestions de chaque nœud du chemin, de la feuille vers la racine
+    private void recompute(List<Node> nodes) {
+        for (int i = nodes.size() - 1; i >= 0; i--) {
+            Node node = nodes.get(i);
+            Set<Suggestion> candidates = new LinkedHashSet<>(node.terminals);
+            node.children.values().forEach(child -> candidates.addAll(child.top));
+            node.top = candidates.stream()
+                    .sorted(BY_WEIGHT)
+                    .limit(MAX_SUGGESTIONS)
+                    .toList();
+        }
+    }
+
+    private void recomputeSubtree(Node node) {
+        node.children.values().forEach(this::recomputeSubtree);
+        recompute(List.of(node));
+    }
+
+    // Un titre se retrouve depuis le début de chacun de ses mots ("ingénieur java" par "java")
+    private static Set<String> pathsOf(Suggestion suggestion) {
+        Set<String> paths = new LinkedHashSet<>();
+        paths.add(suggestion.folded);
+        if (suggestion.type == SuggestionType.TITLE) {
+            String folded = suggestion.folded;
+            for (int i = 1; i < folded.length(); i++) {
+                if (folded.charAt(i - 1) == ' ' && Character.isLetterOrDigit(folded.charAt(i))) {
+                    paths.add(folded.substring(i));
+                }
+            }
+        }
+        return paths;
+    }
+
+    private static List<Suggestion.Key> keysOf(IndexedOffer offer) {
+        Map<String, Suggestion.Key> keys = new HashMap<>();
+        String title = offer.jobTitle() == null ? "" : SPACES.matcher(offer.jobTitle().strip()).replaceAll(" ");
+        if (!title.isEmpty()) {
+            Suggestion.Key key = new Suggestion.Key(SuggestionType.TITLE, title, normalize(title));
+            keys.putIfAbsent(key.id(), key);
+        }
+        for (String skill : offer.requiredSkills()) {
+            for (String token : SKILL_SEPARATOR.split(skill)) {
+                String label = SPACES.matcher(token.strip()).replaceAll(" ");
+                if (!label.isEmpty() && label.length() <= MAX_SKILL_LENGTH) {
+                    Suggestion.Key key = new Suggestion.Key(SuggestionType.SKILL, label, normalize(label));
+                    keys.putIfAbsent(key.id(), key);
+                }
+            }
+        }
+        return List.copyOf(keys.values());
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : SPACES.matcher(FrenchAnalyzer.fold(text).strip()).replaceAll(" ");
+    }
+
+    enum SuggestionType {
+        TITLE,
+        SKILL
+    }
+
+    static final class Suggestion {
+        private final SuggestionType type;
+        private final String label; // forme affichée, celle de la première offre
+        private final String folded;
+        private int offers;
+        private int applications;
+
+        private Suggestion(SuggestionType type, String label, String folded) {
+            this.type = type;
+            this.label = label;
+            this.folded = folded;
+        }
+
+        SuggestionType type() {
+            return type;
+        }
+
+        String label() {
+            return label;
+        }
+
+        int offers() {
+            return offers;
+        }
+
+        int weight() {
+            return offers * OFFER_WEIGHT + applications;
+        }
+
+        record Key(SuggestionType type, String label, String folded) {
+            String id() {
+                return type + ":" + folded;
+            }
+        }
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>();
+        private final List<Suggestion> terminals = new ArrayList<>(1);
+        private List<Suggestion> top = List.of();
+    }
+}
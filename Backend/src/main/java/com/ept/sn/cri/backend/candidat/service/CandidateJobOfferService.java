@@ -4,28 +4,47 @@ import com.ept.sn.cri.backend.candidat.dto.*;
 import com.ept.sn.cri.backend.candidat.repository.CandidateApplicationRepository;
 import com.ept.sn.cri.backend.candidat.repository.CandidateRepository;
 import com.ept.sn.cri.backend.candidat.repository.PublicJobOfferRepository;
+import com.ept.sn.cri.backend.candidat.search.JobOfferFacet;
+import com.ept.sn.cri.backend.candidat.search.JobOfferFacetFilter;
+import com.ept.sn.cri.backend.candidat.search.JobOfferSearchIndex;
 import com.ept.sn.cri.backend.entity.Application;
 import com.ept.sn.cri.backend.entity.Candidate;
 import com.ept.sn.cri.backend.entity.JobOffer;
+import com.ept.sn.cri.backend.enums.ActivityType;
 import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import com.ept.sn.cri.backend.enums.ContratType;
+import com.ept.sn.cri.backend.enums.JobType;
+import com.ept.sn.cri.backend.event.ApplicationActivityEvent;
 import com.ept.sn.cri.backend.exception.*;
+import com.ept.sn.cri.backend.ia.service.CandidateCvProfileService;
+import com.ept.sn.cri.backend.ia.service.CvTextService;
 import com.ept.sn.cri.backend.ia.service.IAService;
+import com.ept.sn.cri.backend.ia.service.ProvisionalScoreRefiner;
+import com.ept.sn.cri.backend.ia.service.ScoringJobService;
+import com.ept.sn.cri.backend.ia.service.SkillPreScorer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
-import java.io.IOException;
-import java.nio.file.Files;
-import java.nio.file.Path;
-import java.nio.file.Paths;
-import java.nio.file.StandardCopyOption;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.EnumMap;
 import java.util.List;
-import java.util.UUID;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 
 @Service
@@ -33,26 +52,77 @@ import java.util.stream.Collectors;
 @Slf4j
 public class CandidateJobOfferService {
 
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int DESCRIPTION_PREVIEW_LENGTH = 200;
 
     private final PublicJobOfferRepository publicJobOfferRepository;
+    private final JobOfferSearchIndex jobOfferSearchIndex;
     private final CandidateApplicationRepository candidateApplicationRepository;
     private final CandidateRepository candidateRepository;
+    private final CvStorageService cvStorageService;
+    private final ScoringJobService scoringJobService;
     private final IAService iaService;
-
-    // Répertoire pour stocker les CVs
-    private final String UPLOAD_DIR = "uploads/cvs/";
+    private final CandidateCvProfileService cvProfileService;
+    private final CvTextService cvTextService;
+    private final SkillPreScorer skillPreScorer;
+    private final ProvisionalScoreRefiner provisionalScoreRefiner;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Obtenir toutes les offres disponibles (PUBLIC - pas besoin d'authentification)
      */
     @Transactional(readOnly = true)
     public List<PublicJobOfferListDTO> getAvailableJobOffers() {
+        return publicJobOfferRepository.findAvailableJobOfferRows(new Date(), Pageable.unpaged()).stream()
+                .map(this::mapRowToPublicListDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Page d'offres disponibles, antérieures au curseur s'il est fourni (PUBLIC)
+     */
+    @Transactional(readOnly = true)
+    public PublicJobOfferPageDTO getAvailableJobOffersPage(String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Une ligne de plus pour savoir s'il reste une page
+        PageRequest page = PageRequest.of(0, pageSize + 1);
         Date currentDate = new Date();
-        List<JobOffer> jobOffers = publicJobOfferRepository.findAvailableJobOffers(currentDate);
 
-        return jobOffers.stream()
-                .map(this::mapToPublicListDTO)
+        List<Object[]> rows;
+        if (after == null || after.isBlank()) {
+            rows = publicJobOfferRepository.findAvailableJobOfferRows(currentDate, page);
+        } else {
+            Cursor cursor = decodeCursor(after);
+            rows = publicJobOfferRepository.findAvailableJobOfferRowsBefore(
+                    currentDate, cursor.datePublication(), cursor.id(), page);
+        }
+
+        boolean hasMore = rows.size() > pageSize;
+        if (hasMore) {
+            rows = rows.subList(0, pageSize);
+        }
+
+        List<PublicJobOfferListDTO> jobOffers = rows.stream()
+                .map(this::mapRowToPublicListDTO)
                 .collect(Collectors.toList());
+
+        return PublicJobOfferPageDTO.builder()
+                .jobOffers(jobOffers)
+                .nextCursor(hasMore ? encodeCursor(jobOffers.get(jobOffers.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    /**
+     * Recaler les compteurs de candidatures au démarrage (offres antérieures au compteur, écarts éventuels)
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void reconcileApplicationCounts() {
+        int updated = publicJobOfferRepository.reconcileApplicationCounts();
+        if (updated > 0) {
+            log.info(" Compteur de candidatures recalculé pour {} offre(s)", updated);
+        }
     }
 
     /**
@@ -70,10 +140,15 @@ public class CandidateJobOfferService {
     }
 
     /**
-     * Rechercher des offres par mot-clé (PUBLIC)
+     * Rechercher des offres par mot-clé (PUBLIC), les plus pertinentes d'abord
      */
     @Transactional(readOnly = true)
     public List<PublicJobOfferListDTO> searchJobOffers(String keyword) {
+        if (jobOfferSearchIndex.isReady()) {
+            return jobOfferSearchIndex.search(keyword);
+        }
+
+        // Index pas encore construit (démarrage) : recherche en base
         Date currentDate = new Date();
         List<JobOffer> jobOffers = publicJobOfferRepository.searchByKeyword(keyword, currentDate);
 
@@ -82,6 +157,53 @@ public class CandidateJobOfferService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Recherche à facettes parmi les offres disponibles (PUBLIC), servie par l'index en mémoire
+     * (503 tant que l'index n'est pas construit : les compteurs par facette n'ont pas d'équivalent en base)
+     */
+    public JobOfferFacetSearchDTO filterJobOffers(String keyword,
+                                                  Collection<JobType> jobTypes,
+                                                  Collection<ContratType> typesContrat,
+                                                  Collection<String> niveauxEtude,
+                                                  Collection<String> experience,
+                                                  int page,
+                                                  int size) {
+        if (page < 0) {
+            throw new BadRequestException("Le numéro de page ne peut pas être négatif");
+        }
+        if (!jobOfferSearchIndex.isReady()) {
+            throw new SearchIndexUnavailableException("La recherche à facettes est en cours d'initialisation, réessayez dans quelques instants");
+        }
+        Map<JobOfferFacet, Set<String>> selected = new EnumMap<>(JobOfferFacet.class);
+        if (jobTypes != null) {
+            selected.put(JobOfferFacet.JOB_TYPE, jobTypes.stream().map(Enum::name).collect(Collectors.toSet()));
+        }
+        if (typesContrat != null) {
+            selected.put(JobOfferFacet.TYPE_CONTRAT, typesContrat.stream().map(Enum::name).collect(Collectors.toSet()));
+        }
+        if (niveauxEtude != null) {
+            selected.put(JobOfferFacet.NIVEAU_ETUDE, niveauxEtude.stream().map(String::strip).collect(Collectors.toSet()));
+        }
+        if (experience != null) {
+            selected.put(JobOfferFacet.EXPERIENCE, Set.copyOf(experience));
+        }
+        return jobOfferSearchIndex.facetedSearch(new JobOfferFacetFilter(keyword, selected),
+                page, Math.max(1, Math.min(size, MAX_PAGE_SIZE)));
+    }
+
+    /**
+     * Suggestions de saisie pour la recherche (PUBLIC), servies par l'index en mémoire (503 tant qu'il n'est pas construit)
+     */
+    public List<JobOfferSuggestionDTO> suggestJobOffers(String prefix, int limit) {
+        if (prefix == null || prefix.isBlank()) {
+            return List.of();
+        }
+        if (!jobOfferSearchIndex.isReady()) {
+            throw new SearchIndexUnavailableException("Les suggestions sont en cours d'initialisation, réessayez dans quelques instants");
+        }
+        return jobOfferSearchIndex.suggest(prefix, Math.max(1, limit));
+    }
+
     /**
      * Soumettre une candidature (PROTÉGÉ - candidat authentifié avec rôle CANDIDATE)
      */
@@ -121,9 +243,12 @@ public class CandidateJobOfferService {
         }
 
         // Upload du CV
-        String cvUrl = null;
+        CvStorageService.StoredCv storedCv = null;
+        CompletableFuture<Optional<String>> cvText = CompletableFuture.completedFuture(Optional.empty());
         if (cvFile != null && !cvFile.isEmpty()) {
-            cvUrl = uploadCV(cvFile);
+            storedCv = cvStorageService.store(cvFile);
+            // Extraction du texte dès l'upload, sur le pool dédié
+            cvText = cvTextService.extract(storedCv.sha256(), cvStorageService.resolve(storedCv.url()));
         }
 
         // Créer la candidature
@@ -146,23 +271,41 @@ public class CandidateJobOfferService {
         application.setCertifyAccurate(dto.isCertifyAccurate());
         application.setConsentGDPR(dto.isConsentGDPR());
         application.setElectronicSignature(dto.getElectronicSignature());
-        application.setCvUrl(cvUrl);
+        if (storedCv != null) {
+            application.setCvUrl(storedCv.url());
+            application.setCvHash(storedCv.sha256());
+        }
         application.setApplicationStatus(ApplicationStatus.SUBMITTED);
 
+        // Score provisoire : classement immédiat et priorité dans la file de scoring IA
+        // (compétences du profil déjà parsé, sinon texte du CV s'il est déjà connu ; pas d'attente
+        // de l'extraction dans la transaction, le score est affiné après validation)
+        Optional<CandidateCvProfileService.ProfileSummary> profile = storedCv != null
+                ? cvProfileService.findSummary(candidateId, storedCv.sha256())
+                : Optional.empty();
+        String cvSkills = profile.isPresent()
+                ? profile.get().skills()
+                : cvText.getNow(Optional.empty()).orElse(null);
+        application.setProvisionalScore(skillPreScorer.score(application, cvSkills,
+                profile.map(CandidateCvProfileService.ProfileSummary::experienceYears).orElse(null)));
+
         Application savedApplication = candidateApplicationRepository.save(application);
+        publicJobOfferRepository.incrementApplicationCount(jobOffer.getId());
 
         log.info(" Candidature {} créée avec succès", savedApplication.getId());
-
-        //  Lancer le traitement IA en asynchrone
-        if (cvFile != null && !cvFile.isEmpty()) {
-            log.info(" Lancement du traitement IA pour la candidature {}", savedApplication.getId());
-            try {
-                iaService.processCVAsync(savedApplication.getId(), cvFile, jobOffer);
-                log.info(" Traitement IA démarré en arrière-plan pour candidature {}",
-                        savedApplication.getId());
-            } catch (Exception e) {
-                log.error(" Erreur lors du lancement du traitement IA pour candidature {}: {}",
-                        savedApplication.getId(), e.getMessage());
+        eventPublisher.publishEvent(ApplicationActivityEvent.of(ActivityType.NEW_APPLICATION, savedApplication));
+
+        // Reprendre un scoring déjà calculé pour ce CV, sinon le mettre en file
+        // dans la même transaction que la candidature
+        if (storedCv != null) {
+            if (iaService.applyCachedScoring(savedApplication)) {
+                log.info(" Scoring IA repris du cache pour la candidature {}", savedApplication.getId());
+            } else {
+                scoringJobService.enqueue(savedApplication);
+                log.info(" Scoring IA mis en file pour la candidature {}", savedApplication.getId());
+                if (cvSkills == null) {
+                    provisionalScoreRefiner.refineAfterCommit(savedApplication.getId(), cvText);
+                }
             }
         } else {
             log.warn(" Pas de CV fourni, traitement IA non lancé pour candidature {}",
@@ -220,71 +363,78 @@ public class CandidateJobOfferService {
 
         application.setApplicationStatus(ApplicationStatus.WITHDRAWN);
         candidateApplicationRepository.save(application);
-    }
-
-
-    // Méthode privée pour uploader le CV
-    private String uploadCV(MultipartFile file) {
-        if (file == null || file.isEmpty()) {
-            throw new FileStorageException("Le fichier CV est vide ou invalide.");
-        }
-
-        try {
-
-            Path uploadPath = Paths.get(UPLOAD_DIR);
-            if (!Files.exists(uploadPath)) {
-                Files.createDirectories(uploadPath);
-            }
-
-            // Vérifier le nom du fichier
-            String originalFilename = file.getOriginalFilename();
-            if (originalFilename == null || !originalFilename.contains(".")) {
-                throw new FileStorageException("Le fichier doit avoir une extension valide.");
-            }
-
-            // Générer un nom de fichier unique
-            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
-            String uniqueFilename = UUID.randomUUID() + fileExtension;
-
-            // Sauvegarder le fichier
-            Path filePath = uploadPath.resolve(uniqueFilename);
-            Files.copy(file.getInputStream(), filePath, StandardCopyOption.REPLACE_EXISTING);
-
-            return "/uploads/cvs/" + uniqueFilename;
-
-        } catch (IOException e) {
-            throw new FileStorageException("Erreur lors de l'upload du CV : " + e.getMessage());
-        }
+        publicJobOfferRepository.decrementApplicationCount(application.getJobOffer().getId());
+        eventPublisher.publishEvent(ApplicationActivityEvent.of(ActivityType.WITHDRAWN, application));
     }
 
 
     // Méthodes de mapping privées
     private PublicJobOfferListDTO mapToPublicListDTO(JobOffer jobOffer) {
-
-        List<String> skillsList = List.of();
-        if (jobOffer.getRequiredSkills() != null && !jobOffer.getRequiredSkills().isBlank()) {
-            // Séparateurs possibles : ',' ';' '|'
-            skillsList = List.of(jobOffer.getRequiredSkills().split("\\s*[,;|]\\s*"));
-        }
-
-
         return PublicJobOfferListDTO.builder()
                 .id(jobOffer.getId())
                 .jobTitle(jobOffer.getJobTitle())
                 .jobType(jobOffer.getJobType())
                 .typeContrat(jobOffer.getTypeContrat())
-                .description(jobOffer.getDescription().length() > 200
-                        ? jobOffer.getDescription().substring(0, 200) + "..."
-                        : jobOffer.getDescription())
+                .description(previewDescription(jobOffer.getDescription()))
                 .niveauEtudeRequis(jobOffer.getNiveauEtudeRequis())
                 .experienceMin(jobOffer.getExperienceMin())
                 .datePublication(jobOffer.getDatePublication())
                 .dateLimite(jobOffer.getDateLimite())
-                .applicationCount(jobOffer.getApplications() != null ? jobOffer.getApplications().size() : 0)
-                .requiredSkills(skillsList)
+                .applicationCount(jobOffer.getApplicationCount())
+                .requiredSkills(splitSkills(jobOffer.getRequiredSkills()))
+                .build();
+    }
+
+    // Ligne de findAvailableJobOfferRows : la description n'y est lue que sur 201 caractères
+    private PublicJobOfferListDTO mapRowToPublicListDTO(Object[] row) {
+        return PublicJobOfferListDTO.builder()
+                .id((Long) row[0])
+                .jobTitle((String) row[1])
+                .jobType((JobType) row[2])
+                .typeContrat((ContratType) row[3])
+                .description(previewDescription((String) row[4]))
+                .niveauEtudeRequis((String) row[5])
+                .experienceMin((Integer) row[6])
+                .datePublication((Date) row[7])
+                .dateLimite((Date) row[8])
+                .applicationCount((Integer) row[9])
+                .requiredSkills(splitSkills((String) row[10]))
                 .build();
     }
 
+    private String previewDescription(String description) {
+        if (description == null || description.length() <= DESCRIPTION_PREVIEW_LENGTH) {
+            return description;
+        }
+        return description.substring(0, DESCRIPTION_PREVIEW_LENGTH) + "...";
+    }
+
+    private List<String> splitSkills(String requiredSkills) {
+        if (requiredSkills == null || requiredSkills.isBlank()) {
+            return List.of();
+        }
+        // Séparateurs possibles : ',' ';' '|'
+        return List.of(requiredSkills.split("\\s*[,;|]\\s*"));
+    }
+
+    private String encodeCursor(PublicJobOfferListDTO jobOffer) {
+        String raw = jobOffer.getDatePublication().getTime() + "|" + jobOffer.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(new Date(Long.parseLong(raw.substring(0, separator))), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+
+    private record Cursor(Date datePublication, Long id) {
+    }
+
     private PublicJobOfferDetailDTO mapToPublicDetailDTO(JobOffer jobOffer) {
         return PublicJobOfferDetailDTO.builder()
                 .id(jobOffer.getId())
@@ -297,7 +447,7 @@ public class CandidateJobOfferService {
                 .experienceMin(jobOffer.getExperienceMin())
                 .datePublication(jobOffer.getDatePublication())
                 .dateLimite(jobOffer.getDateLimite())
-                .applicationCount(jobOffer.getApplications() != null ? jobOffer.getApplications().size() : 0)
+                .applicationCount(jobOffer.getApplicationCount())
                 .companyName(jobOffer.getCreatedBy().getDepartment())
                 .build();
     }
@@ -0,0 +1,108 @@
+package com.ept.sn.cri.backend.candidat.service;
+
+import com.ept.sn.cri.backend.exception.FileStorageException;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.UUID;
+
+/**
+ * Stockage des CVs sur disque.
+ * Le CV est copié dès la soumission : les traitements ultérieurs (scoring IA,
+ * consultation par la commission) relisent le fichier à partir de son URL.
+ */
+@Service
+public class CvStorageService {
+
+    // Répertoire pour stocker les CVs
+    private static final String UPLOAD_DIR = "uploads/cvs/";
+    private static final String URL_PREFIX = "/uploads/cvs/";
+
+    /**
+     * Enregistrer un CV et retourner son URL et son empreinte SHA-256
+     */
+    public StoredCv store(MultipartFile file) {
+        if (file == null || file.isEmpty()) {
+            throw new FileStorageException("Le fichier CV est vide ou invalide.");
+        }
+
+        try {
+
+            Path uploadPath = Paths.get(UPLOAD_DIR);
+            if (!Files.exists(uploadPath)) {
+                Files.createDirectories(uploadPath);
+            }
+
+            // Vérifier le nom du fichier
+            String originalFilename = file.getOriginalFilename();
+            if (originalFilename == null || !originalFilename.contains(".")) {
+                throw new FileStorageException("Le fichier doit avoir une extension valide.");
+            }
+
+            // Générer un nom de fichier unique
+            String fileExtension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            String uniqueFilename = UUID.randomUUID() + fileExtension;
+
+            // Sauvegarder le fichier en calculant son empreinte au passage
+            Path filePath = uploadPath.resolve(uniqueFilename);
+            MessageDigest digest = sha256();
+            try (InputStream in = new DigestInputStream(file.getInputStream(), digest)) {
+                Files.copy(in, filePath, StandardCopyOption.REPLACE_EXISTING);
+            }
+
+            return new StoredCv(URL_PREFIX + uniqueFilename, HexFormat.of().formatHex(digest.digest()));
+
+        } catch (IOException e) {
+            throw new FileStorageException("Erreur lors de l'upload du CV : " + e.getMessage());
+        }
+    }
+
+    /**
+     * Chemin sur disque d'un CV à partir de son URL
+     */
+    public Path resolve(String cvUrl) {
+        if (cvUrl == null || cvUrl.isBlank()) {
+            throw new FileStorageException("Aucun CV disponible pour ce candidat");
+        }
+        String filename = cvUrl.substring(cvUrl.lastIndexOf("/") + 1);
+        return Paths.get(UPLOAD_DIR).resolve(filename).normalize();
+    }
+
+    /**
+     * Empreinte SHA-256 d'un CV déjà stocké
+     */
+    public String hash(Path cvPath) {
+        MessageDigest digest = sha256();
+        try (InputStream in = new DigestInputStream(Files.newInputStream(cvPath), digest)) {
+            in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            throw new FileStorageException("CV illisible: " + cvPath.getFileName());
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * CV enregistré : URL publique et SHA-256 du contenu
+     */
+    public record StoredCv(String url, String sha256) {
+    }
+}
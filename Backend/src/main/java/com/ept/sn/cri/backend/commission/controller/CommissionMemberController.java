@@ -1,5 +1,6 @@
 package com.ept.sn.cri.backend.commission.controller;
 
+import com.ept.sn.cri.backend.candidat.service.CvStorageService;
 import com.ept.sn.cri.backend.commission.dto.*;
 import com.ept.sn.cri.backend.commission.service.CommissionMemberService;
 import com.ept.sn.cri.backend.entity.User;
@@ -17,7 +18,6 @@ import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
 
 import java.nio.file.Path;
-import java.nio.file.Paths;
 import java.util.List;
 
 @RestController
@@ -27,6 +27,7 @@ import java.util.List;
 public class CommissionMemberController {
 
     private final CommissionMemberService commissionMemberService;
+    private final CvStorageService cvStorageService;
 
     /**
      * Obtenir mes commissions
@@ -95,12 +96,7 @@ public class CommissionMemberController {
             }
 
             // Construire le chemin du fichier
-            Path filePath = Paths.get("uploads/cvs")
-                    .resolve(
-                            application.getCvUrl()
-                                    .substring(application.getCvUrl().lastIndexOf("/") + 1)
-                    )
-                    .normalize();
+            Path filePath = cvStorageService.resolve(application.getCvUrl());
 
             Resource resource = new UrlResource(filePath.toUri());
 
@@ -6,6 +6,8 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -43,4 +45,15 @@ public interface EvaluationRepository extends JpaRepository<Evaluation, Long> {
     @Query("SELECT e FROM Evaluation e JOIN FETCH e.commissionMember cm " +
             "WHERE e.application.id = :applicationId")
     List<Evaluation> findByApplicationIdWithMembers(@Param("applicationId") Long applicationId);
+
+    // Compter les évaluations données par les membres de plusieurs commissions
+    @Query("SELECT e.commissionMember.commission.id, COUNT(e) FROM Evaluation e " +
+            "WHERE e.commissionMember.commission.id IN :commissionIds GROUP BY e.commissionMember.commission.id")
+    List<Object[]> countByCommissionIds(@Param("commissionIds") Collection<Long> commissionIds);
+
+    // Évaluations saisies sur une période, par offre (agrégats journaliers)
+    @Query("SELECT e.application.jobOffer.id, e.application.jobOffer.createdBy.id, COUNT(e) FROM Evaluation e " +
+            "WHERE e.createdAt >= :from AND e.createdAt < :to " +
+            "GROUP BY e.application.jobOffer.id, e.application.jobOffer.createdBy.id")
+    List<Object[]> countCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 }
@@ -6,6 +6,8 @@ import com.ept.sn.cri.backend.commission.repository.EvaluationRepository;
 import com.ept.sn.cri.backend.entity.Application;
 import com.ept.sn.cri.backend.entity.CommissionMember;
 import com.ept.sn.cri.backend.entity.Evaluation;
+import com.ept.sn.cri.backend.enums.ActivityType;
+import com.ept.sn.cri.backend.event.ApplicationActivityEvent;
 import com.ept.sn.cri.backend.exception.EvaluationNotFoundException;
 import com.ept.sn.cri.backend.exception.ResourceNotFoundException;
 import com.ept.sn.cri.backend.exception.UnauthorizedActionException;
@@ -13,6 +15,7 @@ import com.ept.sn.cri.backend.rh.repository.CommissionMemberRepository;
 import com.ept.sn.cri.backend.rh.repository.CommissionRepository;
 import lombok.RequiredArgsConstructor;
 import org.hibernate.ResourceClosedException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -30,6 +33,7 @@ public class CommissionMemberService {
     private final EvaluationRepository evaluationRepository;
     private final CommissionMemberRepository commissionMemberRepository;
     private final CommissionRepository commissionRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
 
     /**
@@ -145,6 +149,7 @@ public class CommissionMemberService {
         evaluation.setComment(dto.getComment());
 
         Evaluation savedEvaluation = evaluationRepository.save(evaluation);
+        eventPublisher.publishEvent(ApplicationActivityEvent.of(ActivityType.EVALUATED, application));
         return mapToEvaluationResponseDTO(savedEvaluation);
     }
 
@@ -1,14 +1,130 @@
 package com.ept.sn.cri.backend.config;
 
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.apache.hc.client5.http.HttpRoute;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.io.ConnectionEndpoint;
+import org.apache.hc.client5.http.io.LeaseRequest;
+import org.apache.hc.core5.http.HttpHost;
+import org.apache.hc.core5.pool.PoolStats;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
 import org.springframework.web.client.RestTemplate;
 
+import java.net.URISyntaxException;
+import java.time.Duration;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.ToDoubleFunction;
+
 @Configuration
 public class RestTemplateConfig {
 
+    /**
+     * Client HTTP du service IA : connexions persistantes (keep-alive) dans un pool borné,
+     * timeouts de connexion, de lecture et d'attente d'une connexion du pool.
+     * Les latences sont publiées par Spring Boot (http.client.requests, tag client.name),
+     * l'état du pool et le temps d'attente d'une connexion par route (ia.client.pool.*).
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient iaHttpClient(
+            @Value("${ia.service.url}") String iaServiceUrl,
+            @Value("${ia.service.timeout:30000}") long readTimeoutMillis,
+            @Value("${ia.client.connect-timeout:2s}") Duration connectTimeout,
+            @Value("${ia.client.pool-acquire-timeout:5s}") Duration poolAcquireTimeout,
+            @Value("${ia.client.max-connections:20}") int maxConnections,
+            @Value("${ia.client.idle-timeout:30s}") Duration idleTimeout,
+            MeterRegistry meterRegistry) throws URISyntaxException {
+
+        HttpRoute iaRoute = new HttpRoute(HttpHost.create(iaServiceUrl));
+        Timer leaseTimer = Timer.builder("ia.client.pool.wait")
+                .tag("route", iaRoute.getTargetHost().toHostString())
+                .register(meterRegistry);
+
+        InstrumentedConnectionManager connectionManager = new InstrumentedConnectionManager(leaseTimer);
+        connectionManager.setMaxTotal(maxConnections);
+        connectionManager.setDefaultMaxPerRoute(maxConnections);
+        connectionManager.setDefaultConnectionConfig(ConnectionConfig.custom()
+                .setConnectTimeout(Timeout.of(connectTimeout))
+                .setSocketTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                .setTimeToLive(TimeValue.ofMinutes(5))
+                .setValidateAfterInactivity(TimeValue.ofSeconds(2))
+                .build());
+
+        registerPoolGauge(meterRegistry, connectionManager, iaRoute, "leased", PoolStats::getLeased);
+        registerPoolGauge(meterRegistry, connectionManager, iaRoute, "available", PoolStats::getAvailable);
+        registerPoolGauge(meterRegistry, connectionManager, iaRoute, "pending", PoolStats::getPending);
+        registerPoolGauge(meterRegistry, connectionManager, iaRoute, "max", PoolStats::getMax);
+
+        return HttpClients.custom()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(poolAcquireTimeout))
+                        .setResponseTimeout(Timeout.ofMilliseconds(readTimeoutMillis))
+                        .build())
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(idleTimeout))
+                .build();
+    }
+
     @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
+    public RestTemplate iaRestTemplate(RestTemplateBuilder builder, CloseableHttpClient iaHttpClient) {
+        return builder
+                .requestFactory(() -> new HttpComponentsClientHttpRequestFactory(iaHttpClient))
+                .build();
+    }
+
+    private void registerPoolGauge(MeterRegistry meterRegistry, PoolingHttpClientConnectionManager connectionManager,
+                                   HttpRoute route, String state, ToDoubleFunction<PoolStats> value) {
+        Gauge.builder("ia.client.pool.connections", connectionManager, cm -> value.applyAsDouble(cm.getStats(route)))
+                .tag("route", route.getTargetHost().toHostString())
+                .tag("state", state)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Pool de connexions qui mesure le temps passé à attendre une connexion libre
+     */
+    private static class InstrumentedConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final Timer leaseTimer;
+
+        InstrumentedConnectionManager(Timer leaseTimer) {
+            this.leaseTimer = leaseTimer;
+        }
+
+        @Override
+        public LeaseRequest lease(String id, HttpRoute route, Timeout requestTimeout, Object state) {
+            LeaseRequest leaseRequest = super.lease(id, route, requestTimeout, state);
+            return new LeaseRequest() {
+                @Override
+                public ConnectionEndpoint get(Timeout timeout)
+                        throws InterruptedException, ExecutionException, TimeoutException {
+                    long start = System.nanoTime();
+                    try {
+                        return leaseRequest.get(timeout);
+                    } finally {
+                        leaseTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return leaseRequest.cancel();
+                }
+            };
+        }
     }
 }
@@ -1,7 +1,11 @@
 package com.ept.sn.cri.backend.dashboard.controller;
 
 
+import com.ept.sn.cri.backend.dashboard.dto.ActivityPageDTO;
+import com.ept.sn.cri.backend.dashboard.dto.DailyTrendDTO;
 import com.ept.sn.cri.backend.dashboard.dto.RHDashboardDTO;
+import com.ept.sn.cri.backend.dashboard.service.ActivityEventService;
+import com.ept.sn.cri.backend.dashboard.service.ApplicationRollupService;
 import com.ept.sn.cri.backend.dashboard.service.RHDashboardService;
 import com.ept.sn.cri.backend.entity.User;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,8 +15,11 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
+
 @RestController
 @RequestMapping("/rh/dashboard")
 @RequiredArgsConstructor
@@ -20,6 +27,8 @@ import org.springframework.web.bind.annotation.RestController;
 public class RHDashboardController {
 
     private final RHDashboardService rhDashboardService;
+    private final ApplicationRollupService applicationRollupService;
+    private final ActivityEventService activityEventService;
 
     /**
      * Obtenir toutes les données du dashboard RH
@@ -31,4 +40,33 @@ public class RHDashboardController {
         RHDashboardDTO dashboard = rhDashboardService.getDashboardData(user.getId());
         return ResponseEntity.ok(dashboard);
     }
+
+    /**
+     * Obtenir l'évolution journalière des candidatures (toutes offres ou une offre)
+     * GET /api/v1/rh/dashboard/trends?days=30&jobOfferId=
+     */
+    @PreAuthorize("hasAuthority('RH')")
+    @GetMapping("/trends")
+    public ResponseEntity<List<DailyTrendDTO>> getTrends(
+            @AuthenticationPrincipal User user,
+            @RequestParam(defaultValue = "30") int days,
+            @RequestParam(required = false) Long jobOfferId) {
+        int boundedDays = Math.max(1, Math.min(days, 365));
+        List<DailyTrendDTO> trends = applicationRollupService.getTrends(user.getId(), boundedDays, jobOfferId);
+        return ResponseEntity.ok(trends);
+    }
+
+    /**
+     * Obtenir le fil d'activités, page par page (curseur nextCursor de la page précédente)
+     * GET /api/v1/rh/dashboard/activities?after=&size=20
+     */
+    @PreAuthorize("hasAuthority('RH')")
+    @GetMapping("/activities")
+    public ResponseEntity<ActivityPageDTO> getActivities(
+            @AuthenticationPrincipal User user,
+            @RequestParam(required = false) String after,
+            @RequestParam(defaultValue = "20") int size) {
+        ActivityPageDTO activities = activityEventService.getActivities(user.getId(), after, size);
+        return ResponseEntity.ok(activities);
+    }
 }
@@ -0,0 +1,19 @@
+package com.ept.sn.cri.backend.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ActivityPageDTO {
+
+    private List<RecentActivityDTO> activities;
+    private String nextCursor; // à passer dans ?after= pour la page suivante, null s'il n'y en a plus
+    private Boolean hasMore;
+}
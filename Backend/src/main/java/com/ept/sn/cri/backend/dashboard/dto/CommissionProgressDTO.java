@@ -0,0 +1,21 @@
+package com.ept.sn.cri.backend.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class CommissionProgressDTO {
+
+    private Long commissionId;
+    private Integer membersCount;
+    private Integer shortlistedCount;
+
+    // Évaluations attendues = membres x candidats présélectionnés
+    private Integer expectedEvaluations;
+    private Integer actualEvaluations;
+}
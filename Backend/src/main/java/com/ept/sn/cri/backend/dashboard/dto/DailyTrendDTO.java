@@ -0,0 +1,22 @@
+package com.ept.sn.cri.backend.dashboard.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class DailyTrendDTO {
+
+    private LocalDate date;
+    private Integer applications;
+    private Integer shortlisted;
+    private Integer scoredApplications;
+    private Double averageIAScore;
+    private Integer evaluations;
+}
@@ -33,4 +33,8 @@ public class RHDashboardDTO {
 
     // Alertes et notifications
     private List<DashboardAlertDTO> alerts;
+
+    // Dashboard partiel : sections non calculées dans le délai imparti
+    private Boolean degraded;
+    private List<String> degradedSections;
 }
@@ -0,0 +1,46 @@
+package com.ept.sn.cri.backend.dashboard.repository;
+
+import com.ept.sn.cri.backend.entity.ActivityEvent;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface ActivityEventRepository extends JpaRepository<ActivityEvent, Long> {
+
+    // Activités les plus récentes d'un RH
+    @Query("SELECT e FROM ActivityEvent e WHERE e.rhId = :rhId ORDER BY e.occurredAt DESC, e.id DESC")
+    List<ActivityEvent> findLatestByRhId(@Param("rhId") Long rhId, Pageable pageable);
+
+    // Activités d'un RH antérieures au curseur (occurredAt, id)
+    @Query("SELECT e FROM ActivityEvent e WHERE e.rhId = :rhId " +
+            "AND (e.occurredAt < :occurredAt OR (e.occurredAt = :occurredAt AND e.id < :id)) " +
+            "ORDER BY e.occurredAt DESC, e.id DESC")
+    List<ActivityEvent> findByRhIdBefore(@Param("rhId") Long rhId,
+                                         @Param("occurredAt") LocalDateTime occurredAt,
+                                         @Param("id") Long id,
+                                         Pageable pageable);
+
+    // Reprise de l'historique : une activité NEW_APPLICATION par candidature existante
+    // (textes tronqués à ActivityEvent.TEXT_MAX_LENGTH)
+    @Modifying
+    @Query("INSERT INTO ActivityEvent (rhId, jobOfferId, applicationId, activityType, description, relatedEntity, occurredAt) " +
+            "SELECT a.jobOffer.createdBy.id, a.jobOffer.id, a.id, com.ept.sn.cri.backend.enums.ActivityType.NEW_APPLICATION, " +
+            "LEFT(CONCAT(a.firstName, ' ', a.lastName, ' a postulé pour ', a.jobOffer.jobTitle), 255), LEFT(a.jobOffer.jobTitle, 255), a.submitDate " +
+            "FROM Application a WHERE a.submitDate IS NOT NULL")
+    int backfillSubmissions();
+
+    // Reprise de l'historique : une activité SHORTLISTED par candidature présélectionnée
+    @Modifying
+    @Query("INSERT INTO ActivityEvent (rhId, jobOfferId, applicationId, activityType, description, relatedEntity, occurredAt) " +
+            "SELECT a.jobOffer.createdBy.id, a.jobOffer.id, a.id, com.ept.sn.cri.backend.enums.ActivityType.SHORTLISTED, " +
+            "LEFT(CONCAT(a.firstName, ' ', a.lastName, ' a été présélectionné(e)'), 255), LEFT(a.jobOffer.jobTitle, 255), a.updateDate " +
+            "FROM Application a WHERE a.applicationStatus = 'SHORTLISTED' AND a.updateDate IS NOT NULL")
+    int backfillShortlists();
+}
@@ -0,0 +1,47 @@
+package com.ept.sn.cri.backend.dashboard.repository;
+
+import com.ept.sn.cri.backend.entity.DailyApplicationRollup;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface DailyApplicationRollupRepository extends JpaRepository<DailyApplicationRollup, Long> {
+
+    // Dernier jour déjà agrégé
+    @Query("SELECT MAX(r.rollupDate) FROM DailyApplicationRollup r")
+    LocalDate findLastRollupDate();
+
+    // Supprimer les lignes d'un jour avant de le recalculer
+    @Modifying
+    @Query("DELETE FROM DailyApplicationRollup r WHERE r.rollupDate = :day")
+    int deleteByRollupDate(@Param("day") LocalDate day);
+
+    // Courbe journalière d'un RH (toutes offres confondues)
+    @Query("SELECT r.rollupDate, SUM(r.applicationsCount), SUM(r.shortlistedCount), SUM(r.scoredCount), " +
+            "SUM(r.iaScoreSum), SUM(r.evaluationsCount) " +
+            "FROM DailyApplicationRollup r WHERE r.rhId = :rhId AND r.rollupDate >= :from AND r.rollupDate < :to " +
+            "GROUP BY r.rollupDate ORDER BY r.rollupDate")
+    List<Object[]> sumByDay(@Param("rhId") Long rhId, @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Courbe journalière d'une offre
+    @Query("SELECT r.rollupDate, r.applicationsCount, r.shortlistedCount, r.scoredCount, r.iaScoreSum, r.evaluationsCount " +
+            "FROM DailyApplicationRollup r WHERE r.rhId = :rhId AND r.jobOfferId = :jobOfferId " +
+            "AND r.rollupDate >= :from AND r.rollupDate < :to ORDER BY r.rollupDate")
+    List<Object[]> findByDayForJobOffer(@Param("rhId") Long rhId, @Param("jobOfferId") Long jobOfferId,
+                                        @Param("from") LocalDate from, @Param("to") LocalDate to);
+
+    // Candidatures de la période courante et de la période précédente (taux de croissance)
+    @Query("SELECT SUM(CASE WHEN r.rollupDate >= :currentStart THEN r.applicationsCount ELSE 0 END), " +
+            "SUM(CASE WHEN r.rollupDate < :currentStart THEN r.applicationsCount ELSE 0 END) " +
+            "FROM DailyApplicationRollup r WHERE r.rhId = :rhId AND r.rollupDate >= :previousStart AND r.rollupDate < :end")
+    List<Object[]> sumCurrentAndPreviousPeriod(@Param("rhId") Long rhId,
+                                               @Param("previousStart") LocalDate previousStart,
+                                               @Param("currentStart") LocalDate currentStart,
+                                               @Param("end") LocalDate end);
+}
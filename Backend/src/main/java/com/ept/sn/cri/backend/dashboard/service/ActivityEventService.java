@@ -0,0 +1,156 @@
+package com.ept.sn.cri.backend.dashboard.service;
+
+import com.ept.sn.cri.backend.dashboard.dto.ActivityPageDTO;
+import com.ept.sn.cri.backend.dashboard.dto.RecentActivityDTO;
+import com.ept.sn.cri.backend.dashboard.repository.ActivityEventRepository;
+import com.ept.sn.cri.backend.entity.ActivityEvent;
+import com.ept.sn.cri.backend.event.ApplicationActivityEvent;
+import com.ept.sn.cri.backend.exception.BadRequestException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Fil d'activités des RH.
+ * Les activités sont enregistrées à la publication de l'événement, donc dans la
+ * transaction qui modifie la candidature, et relues page par page avec un curseur
+ * (occurredAt, id) plutôt qu'un offset.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ActivityEventService {
+
+    private static final int MAX_PAGE_SIZE = 100;
+
+    private final ActivityEventRepository activityEventRepository;
+
+    /**
+     * Enregistrer l'activité dans la transaction de l'appelant
+     */
+    @EventListener
+    public void onApplicationActivity(ApplicationActivityEvent event) {
+        ActivityEvent activity = new ActivityEvent();
+        activity.setRhId(event.getRhId());
+        activity.setJobOfferId(event.getJobOfferId());
+        activity.setApplicationId(event.getApplicationId());
+        activity.setActivityType(event.getActivityType());
+        activity.setDescription(truncate(describe(event)));
+        activity.setRelatedEntity(truncate(event.getJobOfferTitle()));
+        activity.setOccurredAt(event.getOccurredAt());
+        activityEventRepository.save(activity);
+    }
+
+    private String truncate(String value) {
+        if (value == null || value.length() <= ActivityEvent.TEXT_MAX_LENGTH) {
+            return value;
+        }
+        return value.substring(0, ActivityEvent.TEXT_MAX_LENGTH - 1) + "…";
+    }
+
+    private String describe(ApplicationActivityEvent event) {
+        String candidate = event.getCandidateName();
+        return switch (event.getActivityType()) {
+            case NEW_APPLICATION -> candidate + " a postulé pour " + event.getJobOfferTitle();
+            case WITHDRAWN -> candidate + " a retiré sa candidature pour " + event.getJobOfferTitle();
+            case SHORTLISTED -> candidate + " a été présélectionné(e)";
+            case AI_SCORED -> "Le CV de " + candidate + " a été analysé par l'IA";
+            case EVALUATED -> "La candidature de " + candidate + " a été évaluée";
+            case STATUS_CHANGED -> "La candidature de " + candidate + " est passée au statut " + event.getApplicationStatus();
+        };
+    }
+
+    /**
+     * Reprendre l'historique des candidatures au premier démarrage avec le journal vide
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillIfEmpty() {
+        if (activityEventRepository.count() > 0) {
+            return;
+        }
+        int submissions = activityEventRepository.backfillSubmissions();
+        int shortlists = activityEventRepository.backfillShortlists();
+        if (submissions + shortlists > 0) {
+            log.info(" Journal d'activités initialisé: {} candidature(s), {} présélection(s)", submissions, shortlists);
+        }
+    }
+
+    /**
+     * Dernières activités d'un RH (dashboard)
+     */
+    @Transactional(readOnly = true)
+    public List<RecentActivityDTO> getLatestActivities(Long rhId, int limit) {
+        return activityEventRepository.findLatestByRhId(rhId, PageRequest.of(0, limit)).stream()
+                .map(this::mapToDTO)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * Page d'activités d'un RH, antérieures au curseur s'il est fourni
+     */
+    @Transactional(readOnly = true)
+    public ActivityPageDTO getActivities(Long rhId, String after, int size) {
+        int pageSize = Math.max(1, Math.min(size, MAX_PAGE_SIZE));
+        // Une ligne de plus pour savoir s'il reste une page
+        PageRequest page = PageRequest.of(0, pageSize + 1);
+
+        List<ActivityEvent> events;
+        if (after == null || after.isBlank()) {
+            events = activityEventRepository.findLatestByRhId(rhId, page);
+        } else {
+            Cursor cursor = decodeCursor(after);
+            events = activityEventRepository.findByRhIdBefore(rhId, cursor.occurredAt(), cursor.id(), page);
+        }
+
+        boolean hasMore = events.size() > pageSize;
+        if (hasMore) {
+            events = events.subList(0, pageSize);
+        }
+
+        return ActivityPageDTO.builder()
+                .activities(events.stream().map(this::mapToDTO).collect(Collectors.toList()))
+                .nextCursor(hasMore ? encodeCursor(events.get(events.size() - 1)) : null)
+                .hasMore(hasMore)
+                .build();
+    }
+
+    private RecentActivityDTO mapToDTO(ActivityEvent event) {
+        return RecentActivityDTO.builder()
+                .activityType(event.getActivityType().name())
+                .description(event.getDescription())
+                .timestamp(event.getOccurredAt().toString())
+                .relatedEntity(event.getRelatedEntity())
+                .entityId(event.getApplicationId())
+                .build();
+    }
+
+    private String encodeCursor(ActivityEvent event) {
+        String raw = event.getOccurredAt() + "|" + event.getId();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Cursor decodeCursor(String value) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf('|');
+            return new Cursor(LocalDateTime.parse(raw.substring(0, separator)), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new BadRequestException("Curseur de pagination invalide");
+        }
+    }
+
+    private record Cursor(LocalDateTime occurredAt, Long id) {
+    }
+}
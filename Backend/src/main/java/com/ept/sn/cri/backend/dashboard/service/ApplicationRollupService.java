@@ -0,0 +1,192 @@
+package com.ept.sn.cri.backend.dashboard.service;
+
+import com.ept.sn.cri.backend.commission.repository.EvaluationRepository;
+import com.ept.sn.cri.backend.dashboard.dto.DailyTrendDTO;
+import com.ept.sn.cri.backend.dashboard.repository.DailyApplicationRollupRepository;
+import com.ept.sn.cri.backend.entity.DailyApplicationRollup;
+import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Agrégats journaliers des candidatures.
+ * Chaque nuit, les journées terminées et non encore agrégées sont calculées
+ * (rattrapage automatique si une exécution a été manquée), et les dernières journées
+ * sont recalculées : statuts et scores IA des candidatures évoluent après leur soumission.
+ * Une journée sans activité est enregistrée par une ligne à zéro (offre et RH 0),
+ * ignorée par les lectures qui filtrent toutes sur le RH.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ApplicationRollupService {
+
+    private final DailyApplicationRollupRepository rollupRepository;
+    private final ApplicationRepository applicationRepository;
+    private final EvaluationRepository evaluationRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    private static final long NO_ACTIVITY_ID = 0L;
+
+    @Value("${dashboard.rollup.max-catch-up-days:90}")
+    private int maxCatchUpDays;
+
+    @Value("${dashboard.rollup.recompute-days:30}")
+    private int recomputeDays;
+
+    /**
+     * Agréger toutes les journées terminées depuis le dernier agrégat,
+     * et recalculer les dashboard.rollup.recompute-days dernières
+     */
+    @Scheduled(cron = "${dashboard.rollup.cron:0 15 0 * * *}")
+    public void rollUpMissingDays() {
+        LocalDate yesterday = LocalDate.now().minusDays(1);
+        LocalDate firstDay = findFirstDayToRollUp(yesterday);
+        if (firstDay == null) {
+            return;
+        }
+
+        for (LocalDate day = firstDay; !day.isAfter(yesterday); day = day.plusDays(1)) {
+            LocalDate current = day;
+            int rows = transactionTemplate.execute(status -> rollUpDay(current));
+            log.info(" Agrégats du {} calculés ({} offre(s))", current, rows);
+        }
+    }
+
+    private LocalDate findFirstDayToRollUp(LocalDate yesterday) {
+        LocalDate lastRollupDate = rollupRepository.findLastRollupDate();
+        LocalDate firstDay;
+        if (lastRollupDate != null) {
+            firstDay = lastRollupDate.plusDays(1);
+        } else {
+            LocalDateTime firstSubmitDate = applicationRepository.findFirstSubmitDate();
+            if (firstSubmitDate == null) {
+                return null;
+            }
+            firstDay = firstSubmitDate.toLocalDate();
+        }
+
+        LocalDate recomputeFrom = yesterday.minusDays(recomputeDays - 1L);
+        if (recomputeFrom.isBefore(firstDay)) {
+            firstDay = recomputeFrom;
+        }
+        LocalDate oldestAllowed = yesterday.minusDays(maxCatchUpDays - 1L);
+        return firstDay.isBefore(oldestAllowed) ? oldestAllowed : firstDay;
+    }
+
+    /**
+     * Recalcule les lignes d'une journée (idempotent)
+     */
+    private int rollUpDay(LocalDate day) {
+        LocalDateTime from = day.atStartOfDay();
+        LocalDateTime to = day.plusDays(1).atStartOfDay();
+        Map<Long, DailyApplicationRollup> rollupsByOffer = new HashMap<>();
+
+        for (Object[] row : applicationRepository.aggregateSubmittedBetween(from, to)) {
+            DailyApplicationRollup rollup = rollupFor(rollupsByOffer, (Long) row[0], (Long) row[1], day);
+            int count = ((Number) row[3]).intValue();
+            rollup.setApplicationsCount(rollup.getApplicationsCount() + count);
+            rollup.setScoredCount(rollup.getScoredCount() + ((Number) row[4]).intValue());
+            rollup.setIaScoreSum(rollup.getIaScoreSum() + (row[5] != null ? ((Number) row[5]).longValue() : 0L));
+
+            switch ((ApplicationStatus) row[2]) {
+                case SUBMITTED -> rollup.setSubmittedCount(rollup.getSubmittedCount() + count);
+                case UNDER_REVIEW -> rollup.setUnderReviewCount(rollup.getUnderReviewCount() + count);
+                case AI_SCORED -> rollup.setAiScoredCount(rollup.getAiScoredCount() + count);
+                case SHORTLISTED -> rollup.setShortlistedCount(rollup.getShortlistedCount() + count);
+                case INTERVIEW_SCHEDULED, INTERVIEW_COMPLETED -> rollup.setInterviewCount(rollup.getInterviewCount() + count);
+                case ACCEPTED -> rollup.setAcceptedCount(rollup.getAcceptedCount() + count);
+                case REJECTED -> rollup.setRejectedCount(rollup.getRejectedCount() + count);
+                case WITHDRAWN -> rollup.setWithdrawnCount(rollup.getWithdrawnCount() + count);
+                default -> { }
+            }
+        }
+
+        for (Object[] row : evaluationRepository.countCreatedBetween(from, to)) {
+            DailyApplicationRollup rollup = rollupFor(rollupsByOffer, (Long) row[0], (Long) row[1], day);
+            rollup.setEvaluationsCount(((Number) row[2]).intValue());
+        }
+
+        int offers = rollupsByOffer.size();
+        if (offers == 0) {
+            // Journée marquée comme agrégée : le rattrapage ne repart pas du dernier jour actif
+            rollupFor(rollupsByOffer, NO_ACTIVITY_ID, NO_ACTIVITY_ID, day);
+        }
+
+        rollupRepository.deleteByRollupDate(day);
+        rollupRepository.saveAll(rollupsByOffer.values());
+        return offers;
+    }
+
+    private DailyApplicationRollup rollupFor(Map<Long, DailyApplicationRollup> rollupsByOffer,
+                                             Long jobOfferId, Long rhId, LocalDate day) {
+        return rollupsByOffer.computeIfAbsent(jobOfferId, id -> {
+            DailyApplicationRollup rollup = new DailyApplicationRollup();
+            rollup.setJobOfferId(id);
+            rollup.setRhId(rhId);
+            rollup.setRollupDate(day);
+            return rollup;
+        });
+    }
+
+    /**
+     * Courbe journalière des candidatures d'un RH (ou d'une de ses offres) sur les derniers jours
+     */
+    public List<DailyTrendDTO> getTrends(Long rhId, int days, Long jobOfferId) {
+        LocalDate to = LocalDate.now();
+        LocalDate from = to.minusDays(days);
+
+        List<Object[]> rows = jobOfferId != null
+                ? rollupRepository.findByDayForJobOffer(rhId, jobOfferId, from, to)
+                : rollupRepository.sumByDay(rhId, from, to);
+
+        List<DailyTrendDTO> trends = new ArrayList<>();
+        for (Object[] row : rows) {
+            int scored = ((Number) row[3]).intValue();
+            long scoreSum = ((Number) row[4]).longValue();
+            double averageIAScore = scored > 0 ? (double) scoreSum / scored : 0.0;
+
+            trends.add(DailyTrendDTO.builder()
+                    .date((LocalDate) row[0])
+                    .applications(((Number) row[1]).intValue())
+                    .shortlisted(((Number) row[2]).intValue())
+                    .scoredApplications(scored)
+                    .averageIAScore(Math.round(averageIAScore * 100.0) / 100.0)
+                    .evaluations(((Number) row[5]).intValue())
+                    .build());
+        }
+        return trends;
+    }
+
+    /**
+     * Croissance (%) des candidatures des 30 derniers jours par rapport aux 30 jours précédents
+     */
+    public double calculateGrowthRate(Long rhId) {
+        LocalDate end = LocalDate.now();
+        LocalDate currentStart = end.minusDays(30);
+        LocalDate previousStart = currentStart.minusDays(30);
+
+        List<Object[]> rows = rollupRepository.sumCurrentAndPreviousPeriod(rhId, previousStart, currentStart, end);
+        if (rows.isEmpty() || rows.get(0)[1] == null) {
+            return 0.0;
+        }
+
+        long current = ((Number) rows.get(0)[0]).longValue();
+        long previous = ((Number) rows.get(0)[1]).longValue();
+        if (previous == 0) {
+            return 0.0;
+        }
+
+        double growthRate = (double) (current - previous) / previous * 100;
+        return Math.round(growthRate * 100.0) / 100.0;
+    }
+}
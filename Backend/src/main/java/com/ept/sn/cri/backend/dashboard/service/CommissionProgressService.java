@@ -0,0 +1,58 @@
+package com.ept.sn.cri.backend.dashboard.service;
+
+import com.ept.sn.cri.backend.commission.repository.EvaluationRepository;
+import com.ept.sn.cri.backend.dashboard.dto.CommissionProgressDTO;
+import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import com.ept.sn.cri.backend.rh.repository.CommissionMemberRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+@Service
+@RequiredArgsConstructor
+public class CommissionProgressService {
+
+    private final CommissionMemberRepository commissionMemberRepository;
+    private final ApplicationRepository applicationRepository;
+    private final EvaluationRepository evaluationRepository;
+
+    /**
+     * Avancement des évaluations de plusieurs commissions.
+     * Trois requêtes groupées, quel que soit le nombre de commissions et de membres.
+     */
+    @Transactional(readOnly = true)
+    public Map<Long, CommissionProgressDTO> getProgress(Collection<Long> commissionIds) {
+        if (commissionIds == null || commissionIds.isEmpty()) {
+            return Map.of();
+        }
+
+        Map<Long, Integer> members = toCountMap(commissionMemberRepository.countMembersByCommissionIds(commissionIds));
+        Map<Long, Integer> shortlisted = toCountMap(applicationRepository.countShortlistedByCommissionIds(commissionIds));
+        Map<Long, Integer> evaluations = toCountMap(evaluationRepository.countByCommissionIds(commissionIds));
+
+        Map<Long, CommissionProgressDTO> progress = new HashMap<>();
+        for (Long commissionId : commissionIds) {
+            int membersCount = members.getOrDefault(commissionId, 0);
+            int shortlistedCount = shortlisted.getOrDefault(commissionId, 0);
+
+            progress.put(commissionId, CommissionProgressDTO.builder()
+                    .commissionId(commissionId)
+                    .membersCount(membersCount)
+                    .shortlistedCount(shortlistedCount)
+                    .expectedEvaluations(membersCount * shortlistedCount)
+                    .actualEvaluations(evaluations.getOrDefault(commissionId, 0))
+                    .build());
+        }
+        return progress;
+    }
+
+    private Map<Long, Integer> toCountMap(List<Object[]> rows) {
+        Map<Long, Integer> counts = new HashMap<>();
+        for (Object[] row : rows) {
+            counts.put((Long) row[0], ((Number) row[1]).intValue());
+        }
+        return counts;
+    }
+}
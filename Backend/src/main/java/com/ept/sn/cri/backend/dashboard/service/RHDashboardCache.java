@@ -0,0 +1,118 @@
+package com.ept.sn.cri.backend.dashboard.service;
+
+import com.ept.sn.cri.backend.dashboard.dto.RHDashboardDTO;
+import com.ept.sn.cri.backend.event.ApplicationActivityEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Cache du dashboard par RH.
+ * Les rechargements concurrents d'un même RH partagent un seul calcul (single-flight),
+ * et chaque événement sur une candidature invalide l'entrée du RH concerné.
+ */
+@Component
+@Slf4j
+public class RHDashboardCache {
+
+    private final ConcurrentMap<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter invalidations;
+    private final Timer loadTimer;
+
+    public RHDashboardCache(MeterRegistry meterRegistry,
+                            @Value("${dashboard.cache.ttl:60s}") Duration ttl) {
+        this.ttlNanos = ttl.toNanos();
+        this.hits = Counter.builder("dashboard.cache.requests").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("dashboard.cache.requests").tag("result", "miss").register(meterRegistry);
+        this.invalidations = Counter.builder("dashboard.cache.invalidations").register(meterRegistry);
+        this.loadTimer = Timer.builder("dashboard.cache.load").register(meterRegistry);
+        Gauge.builder("dashboard.cache.size", entries, ConcurrentMap::size).register(meterRegistry);
+    }
+
+    public RHDashboardDTO get(Long rhId, Supplier<RHDashboardDTO> loader) {
+        while (true) {
+            Entry current = entries.get(rhId);
+            if (current != null && !current.isExpired(ttlNanos)) {
+                hits.increment();
+                return await(current.value);
+            }
+
+            Entry fresh = new Entry();
+            boolean owner = current == null
+                    ? entries.putIfAbsent(rhId, fresh) == null
+                    : entries.replace(rhId, current, fresh);
+            if (!owner) {
+                continue;
+            }
+
+            misses.increment();
+            try {
+                RHDashboardDTO dashboard = loadTimer.record(loader);
+                if (Boolean.TRUE.equals(dashboard.getDegraded())) {
+                    // Un dashboard partiel est servi aux appels en attente mais n'est pas conservé
+                    entries.remove(rhId, fresh);
+                }
+                fresh.value.complete(dashboard);
+            } catch (Throwable e) {
+                // Erreurs comprises (OutOfMemoryError, StackOverflowError...) : les appels en attente
+                // ne doivent pas rester bloqués sur un futur jamais complété
+                entries.remove(rhId, fresh);
+                fresh.value.completeExceptionally(e);
+                throw e;
+            }
+            return await(fresh.value);
+        }
+    }
+
+    public void invalidate(Long rhId) {
+        if (rhId != null && entries.remove(rhId) != null) {
+            invalidations.increment();
+            log.debug("Dashboard RH {} invalidé", rhId);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onApplicationActivity(ApplicationActivityEvent event) {
+        invalidate(event.getRhId());
+    }
+
+    private RHDashboardDTO await(CompletableFuture<RHDashboardDTO> value) {
+        try {
+            return value.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw e;
+        }
+    }
+
+    private static final class Entry {
+        private final CompletableFuture<RHDashboardDTO> value = new CompletableFuture<>();
+        private final long createdAt = System.nanoTime();
+
+        private boolean isExpired(long ttlNanos) {
+            return System.nanoTime() - createdAt > ttlNanos;
+        }
+    }
+}
@@ -1,82 +1,256 @@
 package com.ept.sn.cri.backend.dashboard.service;
 
-import com.ept.sn.cri.backend.commission.repository.EvaluationRepository;
 import com.ept.sn.cri.backend.dashboard.dto.*;
-import com.ept.sn.cri.backend.entity.Application;
-import com.ept.sn.cri.backend.entity.Commission;
-import com.ept.sn.cri.backend.entity.JobOffer;
 import com.ept.sn.cri.backend.enums.ApplicationStatus;
 import com.ept.sn.cri.backend.enums.CommissionStatus;
+import com.ept.sn.cri.backend.enums.ContratType;
 import com.ept.sn.cri.backend.enums.JobStatus;
+import com.ept.sn.cri.backend.enums.JobType;
 import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
-import com.ept.sn.cri.backend.rh.repository.CommissionMemberRepository;
 import com.ept.sn.cri.backend.rh.repository.CommissionRepository;
 import com.ept.sn.cri.backend.rh.repository.JobOfferRepository;
-import jakarta.validation.constraints.Future;
-import lombok.RequiredArgsConstructor;
+import com.ept.sn.cri.backend.enums.DashboardAssemblyMode;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 
 @Service
-@RequiredArgsConstructor
+@Slf4j
 public class RHDashboardService {
 
+    private static final int RECENT_ACTIVITY_LIMIT = 10;
+
     private final JobOfferRepository jobOfferRepository;
     private final ApplicationRepository applicationRepository;
     private final CommissionRepository commissionRepository;
-    private final CommissionMemberRepository commissionMemberRepository;
-    private final EvaluationRepository evaluationRepository;
+    private final CommissionProgressService commissionProgressService;
+    private final ApplicationRollupService applicationRollupService;
+    private final ActivityEventService activityEventService;
+    private final RHDashboardCache dashboardCache;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ExecutorService dashboardExecutor;
+    private final DashboardAssemblyMode assemblyMode;
+    private final Duration sectionTimeout;
+
+    public RHDashboardService(JobOfferRepository jobOfferRepository,
+                              ApplicationRepository applicationRepository,
+                              CommissionRepository commissionRepository,
+                              CommissionProgressService commissionProgressService,
+                              ApplicationRollupService applicationRollupService,
+                              ActivityEventService activityEventService,
+                              RHDashboardCache dashboardCache,
+                              PlatformTransactionManager transactionManager,
+                              @Qualifier("dashboardExecutor") ExecutorService dashboardExecutor,
+                              @Value("${dashboard.assembly-mode:CONCURRENT}") DashboardAssemblyMode assemblyMode,
+                              @Value("${dashboard.section-timeout:5s}") Duration sectionTimeout) {
+        this.jobOfferRepository = jobOfferRepository;
+        this.applicationRepository = applicationRepository;
+        this.commissionRepository = commissionRepository;
+        this.commissionProgressService = commissionProgressService;
+        this.applicationRollupService = applicationRollupService;
+        this.activityEventService = activityEventService;
+        this.dashboardCache = dashboardCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.dashboardExecutor = dashboardExecutor;
+        this.assemblyMode = assemblyMode;
+        this.sectionTimeout = sectionTimeout;
+    }
 
-    @Transactional(readOnly = true)
+    /**
+     * Dashboard du RH, servi depuis le cache tant qu'aucun événement ne l'a invalidé
+     */
     public RHDashboardDTO getDashboardData(Long rhId) {
-        List<JobOffer> allJobOffers = jobOfferRepository.findByCreatedByIdOrderByDatePublicationDesc(rhId);
-        List<Commission> commissions = commissionRepository.findByCreatedByIdOrderByCreatedAtDesc(rhId);
+        return dashboardCache.get(rhId, () -> assemblyMode == DashboardAssemblyMode.CONCURRENT
+                ? buildDashboardConcurrently(rhId)
+                : readOnly(() -> buildDashboard(rhId)));
+    }
+
+    private RHDashboardDTO buildDashboard(Long rhId) {
+        List<OfferAggregate> offers = loadOfferAggregates(rhId);
+        List<CommissionAggregate> commissions = loadCommissionAggregates(rhId);
+        int pendingEvaluations = calculatePendingEvaluations(commissions);
 
         return RHDashboardDTO.builder()
-                .overview(getOverview(allJobOffers, commissions, rhId))
-                .jobOfferStats(getJobOfferStats(allJobOffers))
-                .applicationStats(getApplicationStats(allJobOffers))
-                .commissionStats(getCommissionStats(commissions, rhId))
-                .topJobOffers(getTopJobOffers(allJobOffers))
-                .recentActivities(getRecentActivities(allJobOffers))
-                .alerts(getAlerts(allJobOffers, commissions, rhId))
+                .overview(getOverview(offers, commissions, pendingEvaluations, rhId))
+                .jobOfferStats(getJobOfferStats(offers))
+                .applicationStats(getApplicationStats(offers, rhId))
+                .commissionStats(getCommissionStats(commissions))
+                .topJobOffers(getTopJobOffers(offers))
+                .recentActivities(getRecentActivities(rhId))
+                .alerts(getAlerts(offers, pendingEvaluations))
+                .degraded(false)
+                .degradedSections(List.of())
                 .build();
     }
 
-    private DashboardOverviewDTO getOverview(List<JobOffer> allJobOffers, List<Commission> commissions, Long rhId) {
-        Set<Long> uniqueCandidates = new HashSet<>();
-        int totalApplications = 0, candidatesShortlisted = 0, candidatesInterviewed = 0, candidatesAccepted = 0;
+    /**
+     * Calcule les sections indépendantes en parallèle, chacune dans sa propre
+     * transaction en lecture seule. Un délai unique borne l'ensemble : une section
+     * non terminée à l'échéance est omise, sa tâche interrompue (requête comprise),
+     * et le dashboard est marqué comme dégradé.
+     */
+    private RHDashboardDTO buildDashboardConcurrently(Long rhId) {
+        long deadline = System.nanoTime() + sectionTimeout.toNanos();
+
+        Future<List<OfferAggregate>> offers = submitReadOnly(() -> loadOfferAggregates(rhId));
+        Future<List<CommissionAggregate>> commissions = submitReadOnly(() -> loadCommissionAggregates(rhId));
+        Future<List<RecentActivityDTO>> recentActivities = submitReadOnly(() -> getRecentActivities(rhId));
+
+        // Sections dérivées : chaque tâche (thread virtuel) attend les agrégats dont elle dépend
+        Future<Integer> pendingEvaluations = dashboardExecutor.submit(() -> calculatePendingEvaluations(commissions.get()));
+        Future<DashboardOverviewDTO> overview = dashboardExecutor.submit(() -> {
+            List<OfferAggregate> offerRows = offers.get();
+            List<CommissionAggregate> commissionRows = commissions.get();
+            int pending = pendingEvaluations.get();
+            return readOnly(() -> getOverview(offerRows, commissionRows, pending, rhId));
+        });
+        Future<JobOfferStatsDTO> jobOfferStats = dashboardExecutor.submit(() -> getJobOfferStats(offers.get()));
+        Future<ApplicationStatsDTO> applicationStats = dashboardExecutor.submit(() -> {
+            List<OfferAggregate> offerRows = offers.get();
+            return readOnly(() -> getApplicationStats(offerRows, rhId));
+        });
+        Future<CommissionStatsDTO> commissionStats = dashboardExecutor.submit(() -> getCommissionStats(commissions.get()));
+        Future<List<TopJobOfferDTO>> topJobOffers = dashboardExecutor.submit(() -> getTopJobOffers(offers.get()));
+        Future<List<DashboardAlertDTO>> alerts = dashboardExecutor.submit(() -> getAlerts(offers.get(), pendingEvaluations.get()));
+
+        List<Future<?>> tasks = List.of(offers, commissions, recentActivities, pendingEvaluations, overview,
+                jobOfferStats, applicationStats, commissionStats, topJobOffers, alerts);
+        List<String> degradedSections = new ArrayList<>();
+        try {
+            RHDashboardDTO dashboard = RHDashboardDTO.builder()
+                    .overview(await("overview", overview, deadline, degradedSections))
+                    .jobOfferStats(await("jobOfferStats", jobOfferStats, deadline, degradedSections))
+                    .applicationStats(await("applicationStats", applicationStats, deadline, degradedSections))
+                    .commissionStats(await("commissionStats", commissionStats, deadline, degradedSections))
+                    .topJobOffers(await("topJobOffers", topJobOffers, deadline, degradedSections))
+                    .recentActivities(await("recentActivities", recentActivities, deadline, degradedSections))
+                    .alerts(await("alerts", alerts, deadline, degradedSections))
+                    .build();
+
+            dashboard.setDegraded(!degradedSections.isEmpty());
+            dashboard.setDegradedSections(degradedSections);
+            return dashboard;
+        } finally {
+            // Échéance passée : requêtes en cours et sections en attente sont interrompues ensemble
+            tasks.forEach(task -> task.cancel(true));
+        }
+    }
 
-        for (JobOffer jobOffer : allJobOffers) {
-            if (jobOffer.getApplications() == null) continue;
-            for (Application app : jobOffer.getApplications()) {
-                uniqueCandidates.add(app.getCandidate().getId());
-                totalApplications++;
-                switch (app.getApplicationStatus()) {
-                    case SHORTLISTED -> candidatesShortlisted++;
-                    case INTERVIEW_COMPLETED, INTERVIEW_SCHEDULED -> candidatesInterviewed++;
-                    case ACCEPTED -> candidatesAccepted++;
-                }
-            }
+    private <T> T readOnly(Supplier<T> work) {
+        return readOnlyTransaction.execute(status -> work.get());
+    }
+
+    private <T> Future<T> submitReadOnly(Supplier<T> work) {
+        return dashboardExecutor.submit(() -> readOnly(work));
+    }
+
+    // Attend la section jusqu'à l'échéance commune (sans l'interrompre : voir buildDashboardConcurrently)
+    private <T> T await(String section, Future<T> future, long deadline, List<String> degradedSections) {
+        try {
+            return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Section {} du dashboard non calculée dans le délai de {}", section, sectionTimeout);
+        } catch (ExecutionException e) {
+            log.error("Erreur lors du calcul de la section {} du dashboard", section, rootCause(e));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        degradedSections.add(section);
+        return null;
+    }
+
+    // Une section dérivée échoue avec l'erreur de l'agrégat qu'elle attendait
+    private Throwable rootCause(ExecutionException e) {
+        Throwable cause = e.getCause();
+        while (cause instanceof ExecutionException && cause.getCause() != null) {
+            cause = cause.getCause();
         }
+        return cause;
+    }
 
-        int pendingEvaluations = calculatePendingEvaluations(commissions, rhId);
+    /**
+     * Charge une ligne agrégée par offre du RH : deux requêtes GROUP BY,
+     * quel que soit le nombre de candidatures.
+     */
+    private List<OfferAggregate> loadOfferAggregates(Long rhId) {
+        Map<Long, OfferAggregate> offersById = new LinkedHashMap<>();
+        for (Object[] row : jobOfferRepository.findDashboardRowsByRhId(rhId)) {
+            OfferAggregate offer = new OfferAggregate(
+                    (Long) row[0], (String) row[1], (JobStatus) row[2], (JobType) row[3],
+                    (ContratType) row[4], (Date) row[5], (Date) row[6]);
+            offersById.put(offer.id, offer);
+        }
 
-        int totalActiveJobOffers = (int) allJobOffers.stream()
-                .filter(jo -> jo.getJobStatus() == JobStatus.PUBLISHED)
-                .count();
+        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
+        for (Object[] row : applicationRepository.aggregateByJobOfferAndStatus(rhId, thirtyDaysAgo)) {
+            OfferAggregate offer = offersById.get((Long) row[0]);
+            if (offer == null) continue;
+            int count = toInt(row[2]);
+            offer.countsByStatus.merge((ApplicationStatus) row[1], count, Integer::sum);
+            offer.applications += count;
+            offer.scoredApplications += toInt(row[3]);
+            offer.iaScoreSum += row[4] != null ? ((Number) row[4]).longValue() : 0L;
+            offer.applicationsLast30Days += toInt(row[5]);
+        }
+
+        return new ArrayList<>(offersById.values());
+    }
+
+    /**
+     * Charge les commissions du RH et leur avancement, calculé une seule fois
+     * par requête dashboard et partagé par toutes les sections.
+     */
+    private List<CommissionAggregate> loadCommissionAggregates(Long rhId) {
+        List<CommissionAggregate> commissions = new ArrayList<>();
+        for (Object[] row : commissionRepository.findDashboardRowsByRhId(rhId)) {
+            commissions.add(new CommissionAggregate(
+                    (Long) row[0], (String) row[1], (CommissionStatus) row[2], (String) row[3]));
+        }
+
+        Map<Long, CommissionProgressDTO> progress = commissionProgressService.getProgress(
+                commissions.stream().map(c -> c.id).toList());
+        for (CommissionAggregate commission : commissions) {
+            commission.progress = progress.get(commission.id);
+        }
+        return commissions;
+    }
+
+    private DashboardOverviewDTO getOverview(List<OfferAggregate> offers, List<CommissionAggregate> commissions,
+                                             int pendingEvaluations, Long rhId) {
+        int totalApplications = 0, candidatesShortlisted = 0, candidatesInterviewed = 0, candidatesAccepted = 0;
+        int totalActiveJobOffers = 0;
+
+        for (OfferAggregate offer : offers) {
+            totalApplications += offer.applications;
+            candidatesShortlisted += offer.count(ApplicationStatus.SHORTLISTED);
+            candidatesInterviewed += offer.count(ApplicationStatus.INTERVIEW_COMPLETED)
+                    + offer.count(ApplicationStatus.INTERVIEW_SCHEDULED);
+            candidatesAccepted += offer.count(ApplicationStatus.ACCEPTED);
+            if (offer.status == JobStatus.PUBLISHED) totalActiveJobOffers++;
+        }
+
+        int totalCandidates = totalApplications > 0
+                ? applicationRepository.countDistinctCandidatesByRhId(rhId).intValue()
+                : 0;
 
         return DashboardOverviewDTO.builder()
                 .totalActiveJobOffers(totalActiveJobOffers)
-                .totalCandidates(uniqueCandidates.size())
+                .totalCandidates(totalCandidates)
                 .totalApplications(totalApplications)
                 .totalCommissions(commissions.size())
                 .candidatesShortlisted(candidatesShortlisted)
@@ -86,26 +260,17 @@ public class RHDashboardService {
                 .build();
     }
 
-    private int calculatePendingEvaluations(List<Commission> commissions, Long rhId) {
+    private int calculatePendingEvaluations(List<CommissionAggregate> commissions) {
         int pendingEvaluations = 0;
-        for (Commission commission : commissions) {
-            if (commission.getMembers() == null) continue;
-            int membersCount = commission.getMembers().size();
-            int shortlistedCount = applicationRepository.findShortlistedByJobOfferId(
-                    commission.getJobOffer().getId(), rhId).size();
-            int expectedEvaluations = membersCount * shortlistedCount;
-
-            int actualEvaluations = commission.getMembers().stream()
-                    .mapToInt(member -> evaluationRepository.countByCommissionMemberId(member.getId()).intValue())
-                    .sum();
-
-            pendingEvaluations += expectedEvaluations - actualEvaluations;
+        for (CommissionAggregate commission : commissions) {
+            pendingEvaluations += commission.progress.getExpectedEvaluations()
+                    - commission.progress.getActualEvaluations();
         }
         return pendingEvaluations;
     }
 
-    private JobOfferStatsDTO getJobOfferStats(List<JobOffer> allJobOffers) {
-        int totalJobOffers = allJobOffers.size();
+    private JobOfferStatsDTO getJobOfferStats(List<OfferAggregate> offers) {
+        int totalJobOffers = offers.size();
         int publishedJobOffers = 0, draftJobOffers = 0, closedJobOffers = 0, archivedJobOffers = 0, jobOffersExpiringSoon = 0;
         int totalCandidates = 0;
         Map<String, Integer> jobOffersByType = new HashMap<>();
@@ -114,30 +279,26 @@ public class RHDashboardService {
         LocalDate today = LocalDate.now();
         LocalDate sevenDaysFromNow = today.plusDays(7);
 
-        for (JobOffer jobOffer : allJobOffers) {
-            switch (jobOffer.getJobStatus()) {
+        for (OfferAggregate offer : offers) {
+            switch (offer.status) {
                 case PUBLISHED -> publishedJobOffers++;
                 case DRAFT -> draftJobOffers++;
                 case SUSPENDED -> closedJobOffers++;
                 case ARCHIVED -> archivedJobOffers++;
             }
 
-            jobOffersByType.put(jobOffer.getJobType().name(),
-                    jobOffersByType.getOrDefault(jobOffer.getJobType().name(), 0) + 1);
-            jobOffersByContract.put(jobOffer.getTypeContrat().name(),
-                    jobOffersByContract.getOrDefault(jobOffer.getTypeContrat().name(), 0) + 1);
+            jobOffersByType.merge(offer.jobType.name(), 1, Integer::sum);
+            jobOffersByContract.merge(offer.typeContrat.name(), 1, Integer::sum);
 
-            @Future(message = "La date limite doit être dans le futur.") Date dateSql = jobOffer.getDateLimite();
-            if (dateSql != null) {
-                LocalDate dateLimite = LocalDate.ofInstant(dateSql.toInstant(),  ZoneId.systemDefault());
+            if (offer.dateLimite != null) {
+                LocalDate dateLimite = LocalDate.ofInstant(offer.dateLimite.toInstant(), ZoneId.systemDefault());
 
                 if (!dateLimite.isBefore(today) && !dateLimite.isAfter(sevenDaysFromNow)) {
                     jobOffersExpiringSoon++;
                 }
             }
 
-            if (jobOffer.getApplications() != null)
-                totalCandidates += jobOffer.getApplications().size();
+            totalCandidates += offer.applications;
         }
 
         double averageCandidatesPerOffer = totalJobOffers > 0 ? (double) totalCandidates / totalJobOffers : 0.0;
@@ -155,52 +316,43 @@ public class RHDashboardService {
                 .build();
     }
 
-    private ApplicationStatsDTO getApplicationStats(List<JobOffer> allJobOffers) {
+    private ApplicationStatsDTO getApplicationStats(List<OfferAggregate> offers, Long rhId) {
         int totalApplications = 0, submittedApplications = 0, underReviewApplications = 0,
                 shortlistedApplications = 0, rejectedApplications = 0, withdrawnApplications = 0,
                 applicationsLast30Days = 0;
 
-        Map<String, Integer> applicationsByEducationLevel = new HashMap<>();
         List<JobOfferApplicationCountDTO> applicationCounts = new ArrayList<>();
-        double totalIAScore = 0;
+        long totalIAScore = 0;
         int scoredApplications = 0;
-        LocalDateTime thirtyDaysAgo = LocalDateTime.now().minusDays(30);
 
-        for (JobOffer jobOffer : allJobOffers) {
-            if (jobOffer.getApplications() == null) continue;
-            int offerApplicationCount = 0;
-            int offerShortlistedCount = 0;
-
-            for (Application app : jobOffer.getApplications()) {
-                totalApplications++;
-                offerApplicationCount++;
-
-                switch (app.getApplicationStatus()) {
-                    case SUBMITTED -> submittedApplications++;
-                    case UNDER_REVIEW -> underReviewApplications++;
-                    case SHORTLISTED -> { shortlistedApplications++; offerShortlistedCount++; }
-                    case REJECTED -> rejectedApplications++;
-                    case WITHDRAWN -> withdrawnApplications++;
-                }
-
-                if (app.getSubmitDate().isAfter(thirtyDaysAgo)) applicationsLast30Days++;
-                if (app.getScoreIA() != null) { totalIAScore += app.getScoreIA(); scoredApplications++; }
-
-                String education = app.getHighestDegree();
-                applicationsByEducationLevel.put(education,
-                        applicationsByEducationLevel.getOrDefault(education, 0) + 1);
-            }
+        for (OfferAggregate offer : offers) {
+            totalApplications += offer.applications;
+            submittedApplications += offer.count(ApplicationStatus.SUBMITTED);
+            underReviewApplications += offer.count(ApplicationStatus.UNDER_REVIEW);
+            shortlistedApplications += offer.count(ApplicationStatus.SHORTLISTED);
+            rejectedApplications += offer.count(ApplicationStatus.REJECTED);
+            withdrawnApplications += offer.count(ApplicationStatus.WITHDRAWN);
+            applicationsLast30Days += offer.applicationsLast30Days;
+            totalIAScore += offer.iaScoreSum;
+            scoredApplications += offer.scoredApplications;
 
             applicationCounts.add(JobOfferApplicationCountDTO.builder()
-                    .jobOfferId(jobOffer.getId())
-                    .jobTitle(jobOffer.getJobTitle())
-                    .applicationCount(offerApplicationCount)
-                    .shortlistedCount(offerShortlistedCount)
-                    .status(jobOffer.getJobStatus().name())
+                    .jobOfferId(offer.id)
+                    .jobTitle(offer.jobTitle)
+                    .applicationCount(offer.applications)
+                    .shortlistedCount(offer.count(ApplicationStatus.SHORTLISTED))
+                    .status(offer.status.name())
                     .build());
         }
 
-        double averageIAScore = scoredApplications > 0 ? totalIAScore / scoredApplications : 0.0;
+        Map<String, Integer> applicationsByEducationLevel = new HashMap<>();
+        if (totalApplications > 0) {
+            for (Object[] row : applicationRepository.countByEducationLevel(rhId)) {
+                applicationsByEducationLevel.put((String) row[0], toInt(row[1]));
+            }
+        }
+
+        double averageIAScore = scoredApplications > 0 ? (double) totalIAScore / scoredApplications : 0.0;
 
         List<JobOfferApplicationCountDTO> topOffersByApplications = applicationCounts.stream()
                 .sorted((a, b) -> b.getApplicationCount().compareTo(a.getApplicationCount()))
@@ -215,35 +367,31 @@ public class RHDashboardService {
                 .rejectedApplications(rejectedApplications)
                 .withdrawnApplications(withdrawnApplications)
                 .applicationsLast30Days(applicationsLast30Days)
-                .growthRate(0.0) // à compléter si données historiques
+                .growthRate(applicationRollupService.calculateGrowthRate(rhId))
                 .averageIAScore(Math.round(averageIAScore * 100.0) / 100.0)
                 .applicationsByEducationLevel(applicationsByEducationLevel)
                 .topOffersByApplications(topOffersByApplications)
                 .build();
     }
 
-    private CommissionStatsDTO getCommissionStats(List<Commission> commissions, Long rhId) {
+    private CommissionStatsDTO getCommissionStats(List<CommissionAggregate> commissions) {
         int totalCommissions = commissions.size();
         int activeCommissions = (int) commissions.stream()
-                .filter(c -> c.getStatus() == CommissionStatus.ACTIVE).count();
+                .filter(c -> c.status == CommissionStatus.ACTIVE).count();
 
         int totalCommissionMembers = 0, totalEvaluations = 0, totalExpectedEvaluations = 0;
         CommissionActivityDTO mostActiveCommission = null;
         int maxEvaluations = 0;
 
-        for (Commission commission : commissions) {
-            if (commission.getMembers() == null) continue;
-            int membersCount = commission.getMembers().size();
+        for (CommissionAggregate commission : commissions) {
+            CommissionProgressDTO progress = commission.progress;
+            int membersCount = progress.getMembersCount();
             totalCommissionMembers += membersCount;
 
-            int commissionEvaluations = commission.getMembers().stream()
-                    .mapToInt(m -> evaluationRepository.countByCommissionMemberId(m.getId()).intValue())
-                    .sum();
+            int commissionEvaluations = progress.getActualEvaluations();
             totalEvaluations += commissionEvaluations;
 
-            int shortlistedCount = applicationRepository.findShortlistedByJobOfferId(
-                    commission.getJobOffer().getId(), rhId).size();
-            int expectedEvaluations = membersCount * shortlistedCount;
+            int expectedEvaluations = progress.getExpectedEvaluations();
             totalExpectedEvaluations += expectedEvaluations;
 
             double completionRate = expectedEvaluations > 0 ? (double) commissionEvaluations / expectedEvaluations * 100 : 0.0;
@@ -251,11 +399,11 @@ public class RHDashboardService {
             if (commissionEvaluations > maxEvaluations) {
                 maxEvaluations = commissionEvaluations;
                 mostActiveCommission = CommissionActivityDTO.builder()
-                        .commissionId(commission.getId())
-                        .commissionName(commission.getName())
-                        .jobOfferTitle(commission.getJobOffer().getJobTitle())
+                        .commissionId(commission.id)
+                        .commissionName(commission.name)
+                        .jobOfferTitle(commission.jobOfferTitle)
                         .membersCount(membersCount)
-                        .candidatesCount(shortlistedCount)
+                        .candidatesCount(progress.getShortlistedCount())
                         .evaluationsCount(commissionEvaluations)
                         .completionRate(Math.round(completionRate * 100.0) / 100.0)
                         .build();
@@ -276,34 +424,28 @@ public class RHDashboardService {
                 .build();
     }
 
-    private List<TopJobOfferDTO> getTopJobOffers(List<JobOffer> allJobOffers) {
-        return allJobOffers.stream()
-                .map(jobOffer -> {
-                    int totalApplications = jobOffer.getApplications() != null ? jobOffer.getApplications().size() : 0;
-                    int shortlistedCount = jobOffer.getApplications() != null ?
-                            (int) jobOffer.getApplications().stream()
-                                    .filter(app -> app.getApplicationStatus() == ApplicationStatus.SHORTLISTED)
-                                    .count() : 0;
-                    double avgIAScore = jobOffer.getApplications() != null ?
-                            jobOffer.getApplications().stream()
-                                    .filter(app -> app.getScoreIA() != null)
-                                    .mapToInt(Application::getScoreIA)
-                                    .average().orElse(0.0) : 0.0;
-
-                    LocalDateTime publishDate = jobOffer.getDatePublication() != null ?
-                            jobOffer.getDatePublication().toInstant()
+    private List<TopJobOfferDTO> getTopJobOffers(List<OfferAggregate> offers) {
+        LocalDateTime now = LocalDateTime.now();
+        return offers.stream()
+                .map(offer -> {
+                    double avgIAScore = offer.scoredApplications > 0
+                            ? (double) offer.iaScoreSum / offer.scoredApplications
+                            : 0.0;
+
+                    LocalDateTime publishDate = offer.datePublication != null ?
+                            offer.datePublication.toInstant()
                                     .atZone(ZoneId.systemDefault())
-                                    .toLocalDateTime() : LocalDateTime.now();
-                    long daysActive = ChronoUnit.DAYS.between(publishDate, LocalDateTime.now());
+                                    .toLocalDateTime() : now;
+                    long daysActive = ChronoUnit.DAYS.between(publishDate, now);
 
                     return TopJobOfferDTO.builder()
-                            .jobOfferId(jobOffer.getId())
-                            .jobTitle(jobOffer.getJobTitle())
-                            .totalApplications(totalApplications)
-                            .shortlistedCount(shortlistedCount)
+                            .jobOfferId(offer.id)
+                            .jobTitle(offer.jobTitle)
+                            .totalApplications(offer.applications)
+                            .shortlistedCount(offer.count(ApplicationStatus.SHORTLISTED))
                             .averageIAScore(Math.round(avgIAScore * 100.0) / 100.0)
                             .daysActive((int) daysActive)
-                            .status(jobOffer.getJobStatus().name())
+                            .status(offer.status.name())
                             .build();
                 })
                 .sorted((a, b) -> b.getTotalApplications().compareTo(a.getTotalApplications()))
@@ -311,53 +453,22 @@ public class RHDashboardService {
                 .collect(Collectors.toList());
     }
 
-    private List<RecentActivityDTO> getRecentActivities(List<JobOffer> allJobOffers) {
-        List<RecentActivityDTO> activities = new ArrayList<>();
-
-        for (JobOffer jobOffer : allJobOffers) {
-            if (jobOffer.getApplications() == null) continue;
-            for (Application app : jobOffer.getApplications()) {
-                if (app.getSubmitDate() != null) {
-                    activities.add(RecentActivityDTO.builder()
-                            .activityType("NEW_APPLICATION")
-                            .description(app.getFirstName() + " " + app.getLastName() +
-                                    " a postulé pour " + jobOffer.getJobTitle())
-                            .timestamp(String.valueOf(app.getSubmitDate()))
-                            .relatedEntity(jobOffer.getJobTitle())
-                            .entityId(app.getId())
-                            .build());
-                }
-                if (app.getApplicationStatus() == ApplicationStatus.SHORTLISTED && app.getUpdateDate() != null) {
-                    activities.add(RecentActivityDTO.builder()
-                            .activityType("SHORTLISTED")
-                            .description(app.getFirstName() + " " + app.getLastName() +
-                                    " a été présélectionné(e)")
-                            .timestamp(String.valueOf(app.getUpdateDate()))
-                            .relatedEntity(jobOffer.getJobTitle())
-                            .entityId(app.getId())
-                            .build());
-                }
-            }
-        }
-
-        return activities.stream()
-                .sorted(Comparator.comparing(RecentActivityDTO::getTimestamp).reversed())
-                .limit(10)
-                .collect(Collectors.toList());
+    private List<RecentActivityDTO> getRecentActivities(Long rhId) {
+        return activityEventService.getLatestActivities(rhId, RECENT_ACTIVITY_LIMIT);
     }
 
-    private List<DashboardAlertDTO> getAlerts(List<JobOffer> allJobOffers, List<Commission> commissions, Long rhId) {
+    private List<DashboardAlertDTO> getAlerts(List<OfferAggregate> offers, int pendingEvaluations) {
         List<DashboardAlertDTO> alerts = new ArrayList<>();
 
         LocalDateTime now = LocalDateTime.now();
         LocalDateTime sevenDaysFromNow = now.plusDays(7);
 
 
-        long expiringSoon = allJobOffers.stream()
-                .filter(jo -> jo.getDateLimite() != null)
-                .filter(jo -> {
+        long expiringSoon = offers.stream()
+                .filter(offer -> offer.dateLimite != null)
+                .filter(offer -> {
                     LocalDateTime dateLimite = LocalDateTime.ofInstant(
-                            jo.getDateLimite().toInstant(),
+                            offer.dateLimite.toInstant(),
                             ZoneId.systemDefault()
                     );
                     return dateLimite.isAfter(now) && dateLimite.isBefore(sevenDaysFromNow);
@@ -374,11 +485,9 @@ public class RHDashboardService {
                     .build());
         }
 
-        long pendingApplications = allJobOffers.stream()
-                .filter(jo -> jo.getApplications() != null)
-                .flatMap(jo -> jo.getApplications().stream())
-                .filter(app -> app.getApplicationStatus() == ApplicationStatus.SUBMITTED)
-                .count();
+        int pendingApplications = offers.stream()
+                .mapToInt(offer -> offer.count(ApplicationStatus.SUBMITTED))
+                .sum();
 
         if (pendingApplications > 0) {
             alerts.add(DashboardAlertDTO.builder()
@@ -386,11 +495,10 @@ public class RHDashboardService {
                     .title("Nouvelles candidatures")
                     .message(pendingApplications + " candidature(s) en attente de traitement")
                     .actionUrl("/api/rh/applications")
-                    .count((int) pendingApplications)
+                    .count(pendingApplications)
                     .build());
         }
 
-        int pendingEvaluations = calculatePendingEvaluations(commissions, rhId);
         if (pendingEvaluations > 0) {
             alerts.add(DashboardAlertDTO.builder()
                     .alertType("INFO")
@@ -403,7 +511,59 @@ public class RHDashboardService {
 
         return alerts;
     }
-}
 
+    private static int toInt(Object value) {
+        return value != null ? ((Number) value).intValue() : 0;
+    }
+
+    /**
+     * Ligne agrégée d'une offre : colonnes de l'offre + compteurs de ses candidatures.
+     */
+    private static final class OfferAggregate {
+        private final Long id;
+        private final String jobTitle;
+        private final JobStatus status;
+        private final JobType jobType;
+        private final ContratType typeContrat;
+        private final Date datePublication;
+        private final Date dateLimite;
+        private final Map<ApplicationStatus, Integer> countsByStatus = new EnumMap<>(ApplicationStatus.class);
+        private int applications;
+        private int scoredApplications;
+        private long iaScoreSum;
+        private int applicationsLast30Days;
+
+        private OfferAggregate(Long id, String jobTitle, JobStatus status, JobType jobType,
+                               ContratType typeContrat, Date datePublication, Date dateLimite) {
+            this.id = id;
+            this.jobTitle = jobTitle;
+            this.status = status;
+            this.jobType = jobType;
+            this.typeContrat = typeContrat;
+            this.datePublication = datePublication;
+            this.dateLimite = dateLimite;
+        }
 
+        private int count(ApplicationStatus applicationStatus) {
+            return countsByStatus.getOrDefault(applicationStatus, 0);
+        }
+    }
 
+    /**
+     * Ligne de synthèse d'une commission et son avancement.
+     */
+    private static final class CommissionAggregate {
+        private final Long id;
+        private final String name;
+        private final CommissionStatus status;
+        private final String jobOfferTitle;
+        private CommissionProgressDTO progress;
+
+        private CommissionAggregate(Long id, String name, CommissionStatus status, String jobOfferTitle) {
+            this.id = id;
+            this.name = name;
+            this.status = status;
+            this.jobOfferTitle = jobOfferTitle;
+        }
+    }
+}
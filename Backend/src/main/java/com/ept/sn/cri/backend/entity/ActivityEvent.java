@@ -0,0 +1,53 @@
+package com.ept.sn.cri.backend.entity;
+
+import com.ept.sn.cri.backend.enums.ActivityType;
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * Journal des activités sur les candidatures (append-only).
+ * Une ligne est écrite dans la même transaction que le changement
+ * qu'elle décrit ; le fil d'activités du RH est lu par l'index (rh_id, occurred_at, id).
+ */
+@Entity
+@Table(name = "activity_events",
+        indexes = @Index(name = "idx_activity_events_rh_time", columnList = "rh_id, occurred_at, id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ActivityEvent {
+
+    // Longueur des colonnes texte : les valeurs sont tronquées à l'écriture,
+    // une description trop longue ne doit jamais faire échouer la transaction métier
+    public static final int TEXT_MAX_LENGTH = 255;
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rh_id", nullable = false)
+    private Long rhId;
+
+    @Column(name = "job_offer_id")
+    private Long jobOfferId;
+
+    @Column(name = "application_id")
+    private Long applicationId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "activity_type", nullable = false, length = 30)
+    private ActivityType activityType;
+
+    @Column(nullable = false, length = TEXT_MAX_LENGTH)
+    private String description;
+
+    // Titre de l'offre concernée
+    @Column(length = TEXT_MAX_LENGTH)
+    private String relatedEntity;
+
+    @Column(name = "occurred_at", nullable = false, updatable = false)
+    private LocalDateTime occurredAt;
+}
@@ -1,9 +1,12 @@
 package com.ept.sn.cri.backend.entity;
 
 import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import com.ept.sn.cri.backend.enums.ProcessingStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.DynamicUpdate;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -13,12 +16,17 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "applications")
+@Table(name = "applications", indexes = {
+        @Index(name = "idx_applications_submit_date", columnList = "submit_date"),
+        @Index(name = "idx_applications_processing", columnList = "processing_status, processing_queued_at")
+})
 @Getter
 @Setter
 @NoArgsConstructor
 @AllArgsConstructor
 @EntityListeners(AuditingEntityListener.class)
+// UPDATE limité aux colonnes modifiées : le scoring et son suivi sont écrits par requêtes directes
+@DynamicUpdate
 public class Application {
 
     @Id
@@ -47,6 +55,10 @@ public class Application {
     @Column(length = 255)
     private String cvUrl;
 
+    // SHA-256 du fichier CV (clé du cache de scoring IA)
+    @Column(length = 64)
+    private String cvHash;
+
     @Column(length = 50)
     private String highestDegree;
 
@@ -72,6 +84,44 @@ public class Application {
     @Column(length = 2000)
     private String justificationIA;
 
+    // Suivi du scoring IA (file de scoring)
+    @JsonIgnore
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'NOT_STARTED'")
+    @Column(name = "processing_status", nullable = false, length = 20)
+    private ProcessingStatus processingStatus = ProcessingStatus.NOT_STARTED;
+
+    @JsonIgnore
+    @Column(name = "processing_queued_at")
+    private LocalDateTime processingQueuedAt;
+
+    @JsonIgnore
+    @Column(name = "processing_started_at")
+    private LocalDateTime processingStartedAt;
+
+    @JsonIgnore
+    @Column(name = "processing_completed_at")
+    private LocalDateTime processingCompletedAt;
+
+    @JsonIgnore
+    @ColumnDefault("0")
+    @Column(name = "processing_attempts", nullable = false)
+    private int processingAttempts;
+
+    @JsonIgnore
+    @Column(name = "processing_error", length = 1000)
+    private String processingError;
+
+    // Score calculé à la soumission (SkillPreScorer), en attendant le score IA
+    @JsonIgnore
+    @Column(name = "provisional_score")
+    private Integer provisionalScore;
+
+    // Version de l'offre (JobOffer.scoringVersion) utilisée pour le dernier scoring IA
+    @JsonIgnore
+    @Column(name = "scored_offer_version")
+    private Integer scoredOfferVersion;
+
     private String phoneNumber;
     private String nationality;
 
@@ -0,0 +1,53 @@
+package com.ept.sn.cri.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Profil structuré extrait d'un CV par le service IA (étape de parsing).
+ * Conservé par candidat et par contenu de CV : une nouvelle candidature avec le même
+ * CV n'envoie plus le PDF, seulement ce profil, pour l'étape de scoring.
+ */
+@Entity
+@Table(name = "candidate_cv_profiles",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cv_profile_candidate_hash", columnNames = {"candidate_id", "cv_hash"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class CandidateCvProfile {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "candidate_id", nullable = false)
+    private Candidate candidate;
+
+    @Column(name = "cv_hash", nullable = false, length = 64)
+    private String cvHash;
+
+    // ResumeData renvoyé par le service IA, tel quel (JSON)
+    @Lob
+    @Column(nullable = false, columnDefinition = "TEXT")
+    private String profileJson;
+
+    // Résumé du profil, lisible sans relire le JSON
+    @Column(length = 2000)
+    private String skills;
+
+    @Column(length = 1000)
+    private String degrees;
+
+    private Integer experienceYears;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,46 @@
+package com.ept.sn.cri.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Texte extrait d'un CV PDF par le backend, compressé (GZIP), une fois par contenu de CV.
+ * Envoyé au service IA à la place du PDF, et réutilisé pour le score provisoire.
+ * Un texte vide (longueur 0) indique un PDF sans texte exploitable (scanné, chiffré...).
+ */
+@Entity
+@Table(name = "cv_texts",
+        uniqueConstraints = @UniqueConstraint(name = "uk_cv_text_hash", columnNames = "cv_hash"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class CvText {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cv_hash", nullable = false, length = 64)
+    private String cvHash;
+
+    // Texte normalisé, compressé
+    @Lob
+    @Column(nullable = false)
+    private byte[] content;
+
+    // Nombre de caractères du texte décompressé
+    @Column(nullable = false)
+    private int textLength;
+
+    private Integer pageCount;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
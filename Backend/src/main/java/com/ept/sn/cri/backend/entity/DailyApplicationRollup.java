@@ -0,0 +1,53 @@
+package com.ept.sn.cri.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDate;
+
+/**
+ * Compteurs journaliers par offre, calculés une fois la journée terminée.
+ * Les courbes et taux de croissance du dashboard lisent ces lignes
+ * au lieu de reparcourir toutes les candidatures.
+ */
+@Entity
+@Table(name = "daily_application_rollups",
+        uniqueConstraints = @UniqueConstraint(name = "uk_rollup_offer_day", columnNames = {"job_offer_id", "rollup_date"}),
+        indexes = @Index(name = "idx_rollup_rh_day", columnList = "rh_id, rollup_date"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class DailyApplicationRollup {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "rh_id", nullable = false)
+    private Long rhId;
+
+    @Column(name = "job_offer_id", nullable = false)
+    private Long jobOfferId;
+
+    @Column(name = "rollup_date", nullable = false)
+    private LocalDate rollupDate;
+
+    // Candidatures soumises ce jour-là, réparties par statut au moment du calcul
+    private int applicationsCount;
+    private int submittedCount;
+    private int underReviewCount;
+    private int aiScoredCount;
+    private int shortlistedCount;
+    private int interviewCount;
+    private int acceptedCount;
+    private int rejectedCount;
+    private int withdrawnCount;
+
+    // Scores IA des candidatures du jour
+    private int scoredCount;
+    private long iaScoreSum;
+
+    // Évaluations de commission saisies ce jour-là
+    private int evaluationsCount;
+}
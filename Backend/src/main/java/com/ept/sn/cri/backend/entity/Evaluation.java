@@ -5,7 +5,7 @@ import lombok.*;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "evaluations")
+@Table(name = "evaluations", indexes = @Index(name = "idx_evaluations_created_at", columnList = "created_at"))
 @Getter
 @Setter
 @NoArgsConstructor
@@ -0,0 +1,46 @@
+package com.ept.sn.cri.backend.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Résultat de scoring IA déjà calculé pour un CV (SHA-256 du fichier)
+ * et une version du contenu d'une offre : un même PDF envoyé sur une offre
+ * identique n'est plus renvoyé au service IA.
+ */
+@Entity
+@Table(name = "ia_scoring_cache",
+        uniqueConstraints = @UniqueConstraint(name = "uk_ia_scoring_cache_key", columnNames = {"cv_hash", "offer_hash"}))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class IAScoringCacheEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "cv_hash", nullable = false, length = 64)
+    private String cvHash;
+
+    @Column(name = "offer_hash", nullable = false, length = 64)
+    private String offerHash;
+
+    private Double scoreGlobal;
+    private Double matchingCompetences;
+    private Double matchingExperience;
+    private Double matchingDiploma;
+
+    @Column(length = 2000)
+    private String justification;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
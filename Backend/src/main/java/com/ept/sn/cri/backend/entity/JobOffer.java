@@ -7,6 +7,7 @@ import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -17,7 +18,10 @@ import java.util.Date;
 import java.util.List;
 
 @Entity
-@Table(name = "job_offers")
+@Table(name = "job_offers", indexes = {
+        // Liste publique paginée par curseur (datePublication, id)
+        @Index(name = "idx_job_offers_status_publication", columnList = "job_status, date_publication, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -72,6 +76,22 @@ public class JobOffer {
     @Future(message = "La date limite doit être dans le futur.")
     private Date dateLimite;
 
+    // Candidatures à scorer en priorité (demande explicite du RH)
+    @ColumnDefault("false")
+    @Column(nullable = false)
+    private boolean rush;
+
+    // Incrémentée à chaque modification d'un champ utilisé par le scoring IA
+    @ColumnDefault("1")
+    @Column(name = "scoring_version", nullable = false)
+    private int scoringVersion = 1;
+
+    // Candidatures actives (hors retirées), maintenu par requête atomique à la soumission et au retrait :
+    // jamais écrit par une sauvegarde de l'entité
+    @ColumnDefault("0")
+    @Column(name = "application_count", nullable = false, updatable = false)
+    private int applicationCount;
+
 
     @OneToMany(mappedBy = "jobOffer", cascade = CascadeType.ALL, orphanRemoval = true)
     @JsonIgnore
@@ -0,0 +1,87 @@
+package com.ept.sn.cri.backend.entity;
+
+import com.ept.sn.cri.backend.enums.ScoringJobStatus;
+import com.ept.sn.cri.backend.enums.ScoringJobType;
+import jakarta.persistence.*;
+import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+
+/**
+ * Demande de scoring IA d'une candidature.
+ * La file est en base : elle survit aux redémarrages et peut être vidée
+ * par plusieurs nœuds en parallèle (réservation par SELECT ... FOR UPDATE SKIP LOCKED).
+ * Un job dont la réservation expire (nœud arrêté pendant le traitement) est remis en file
+ * par {@link com.ept.sn.cri.backend.ia.service.ScoringJobSweeper}.
+ * Les jobs RESCORE (offre modifiée) ne sont réservés que dans la limite de ia.rescore.max-parallel.
+ */
+@Entity
+@Table(name = "scoring_jobs",
+        indexes = {
+                @Index(name = "idx_scoring_jobs_status_next", columnList = "status, next_attempt_at"),
+                @Index(name = "idx_scoring_jobs_claim", columnList = "job_type, status, priority, next_attempt_at"),
+                @Index(name = "idx_scoring_jobs_application", columnList = "application_id"),
+                @Index(name = "idx_scoring_jobs_status_lease", columnList = "status, locked_until"),
+                @Index(name = "idx_scoring_jobs_status_completed", columnList = "status, completed_at")
+        })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@EntityListeners(AuditingEntityListener.class)
+public class ScoringJob {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "application_id", nullable = false)
+    private Application application;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private ScoringJobStatus status;
+
+    @Enumerated(EnumType.STRING)
+    @ColumnDefault("'SUBMISSION'")
+    @Column(name = "job_type", nullable = false, length = 20)
+    private ScoringJobType type = ScoringJobType.SUBMISSION;
+
+    // Ordre de traitement (score provisoire de la candidature) : les plus prometteuses d'abord
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private int priority;
+
+    // Nombre de tentatives déjà commencées
+    @Column(nullable = false)
+    private int attempts;
+
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    // Nœud qui détient la réservation, et fin de la réservation
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+
+    @Column(name = "last_error", length = 1000)
+    private String lastError;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @CreatedDate
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+}
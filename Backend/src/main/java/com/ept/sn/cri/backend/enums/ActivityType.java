@@ -0,0 +1,10 @@
+package com.ept.sn.cri.backend.enums;
+
+public enum ActivityType {
+    NEW_APPLICATION,    // Nouvelle candidature
+    WITHDRAWN,          // Candidature retirée
+    STATUS_CHANGED,     // Statut modifié par le RH
+    SHORTLISTED,        // Présélectionnée
+    AI_SCORED,          // Score IA reçu
+    EVALUATED           // Évaluée par un membre de commission
+}
@@ -0,0 +1,6 @@
+package com.ept.sn.cri.backend.enums;
+
+public enum CircuitBreakerState {
+    CLOSED,     // Appels autorisés
+    OPEN        // Appels suspendus jusqu'à ce que la sonde de santé réponde
+}
@@ -0,0 +1,6 @@
+package com.ept.sn.cri.backend.enums;
+
+public enum DashboardAssemblyMode {
+    SEQUENTIAL,     // Sections calculées l'une après l'autre dans une seule transaction
+    CONCURRENT      // Sections calculées en parallèle sur des threads virtuels
+}
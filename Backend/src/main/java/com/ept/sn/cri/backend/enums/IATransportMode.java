@@ -0,0 +1,7 @@
+package com.ept.sn.cri.backend.enums;
+
+public enum IATransportMode {
+    JSON,       // CV encodé en Base64 dans le corps JSON
+    MULTIPART,  // CV envoyé tel quel depuis le disque, en partie multipart
+    TEXT        // texte extrait du CV par le backend (JSON de quelques Ko), MULTIPART si pas de texte exploitable
+}
@@ -0,0 +1,8 @@
+package com.ept.sn.cri.backend.enums;
+
+public enum ScoringJobStatus {
+    PENDING,        // En attente (ou en attente d'une nouvelle tentative)
+    PROCESSING,     // Réservé par un nœud, en cours de traitement
+    COMPLETED,      // Terminé
+    DEAD_LETTER     // Abandonné après épuisement des tentatives
+}
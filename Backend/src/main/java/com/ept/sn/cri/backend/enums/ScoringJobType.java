@@ -0,0 +1,6 @@
+package com.ept.sn.cri.backend.enums;
+
+public enum ScoringJobType {
+    SUBMISSION,     // Scoring d'une candidature qui vient d'être soumise
+    RESCORE         // Nouveau scoring après modification de l'offre
+}
@@ -0,0 +1,40 @@
+package com.ept.sn.cri.backend.event;
+
+import com.ept.sn.cri.backend.entity.Application;
+import com.ept.sn.cri.backend.enums.ActivityType;
+import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Événement métier publié à chaque changement d'une candidature
+ * (soumission, changement de statut, score IA, évaluation).
+ */
+@Getter
+@AllArgsConstructor
+public class ApplicationActivityEvent {
+
+    private final ActivityType activityType;
+    private final Long rhId;
+    private final Long jobOfferId;
+    private final Long applicationId;
+    private final String candidateName;
+    private final String jobOfferTitle;
+    private final ApplicationStatus applicationStatus;
+    private final LocalDateTime occurredAt;
+
+    public static ApplicationActivityEvent of(ActivityType activityType, Application application) {
+        return new ApplicationActivityEvent(
+                activityType,
+                application.getJobOffer().getCreatedBy().getId(),
+                application.getJobOffer().getId(),
+                application.getId(),
+                application.getFirstName() + " " + application.getLastName(),
+                application.getJobOffer().getJobTitle(),
+                application.getApplicationStatus(),
+                LocalDateTime.now()
+        );
+    }
+}
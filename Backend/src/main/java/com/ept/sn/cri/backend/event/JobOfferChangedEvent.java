@@ -0,0 +1,15 @@
+package com.ept.sn.cri.backend.event;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * Événement publié à chaque création, modification ou suppression d'une offre.
+ * Les abonnés relisent l'offre : elle peut ne plus être publiée, ou ne plus exister.
+ */
+@Getter
+@AllArgsConstructor
+public class JobOfferChangedEvent {
+
+    private final Long jobOfferId;
+}
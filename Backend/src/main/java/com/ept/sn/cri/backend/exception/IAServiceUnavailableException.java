@@ -0,0 +1,7 @@
+package com.ept.sn.cri.backend.exception;
+
+public class IAServiceUnavailableException extends RuntimeException {
+    public IAServiceUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package com.ept.sn.cri.backend.exception;
+
+public class SearchIndexUnavailableException extends RuntimeException {
+    public SearchIndexUnavailableException(String message) {
+        super(message);
+    }
+}
@@ -1,10 +1,7 @@
 package com.ept.sn.cri.backend.ia.controller;
 
-import com.ept.sn.cri.backend.entity.Application;
-import com.ept.sn.cri.backend.enums.ApplicationStatus;
-import com.ept.sn.cri.backend.exception.ResourceNotFoundException;
 import com.ept.sn.cri.backend.ia.dto.ProcessCVResponseDTO;
-import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import com.ept.sn.cri.backend.ia.service.IAResultIngestionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
@@ -14,13 +11,17 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
 @RestController
 @RequestMapping("/webhook")
 @RequiredArgsConstructor
 @Slf4j
 public class WebhookController {
 
-    private final ApplicationRepository applicationRepository;
+    private final IAResultIngestionService resultIngestionService;
 
     /**
      * Endpoint de callback pour recevoir les résultats du service IA
@@ -31,51 +32,90 @@ public class WebhookController {
     public ResponseEntity<String> receiveIAResult(@RequestBody ProcessCVResponseDTO response) {
         log.info(" Callback IA reçu pour candidature {}", response.getApplicationId());
 
+        if (!Boolean.TRUE.equals(response.getSuccess())) {
+            log.error("Callback IA en échec pour candidature {}: {}",
+                    response.getApplicationId(), response.getErrorMessage());
+
+            return ResponseEntity.status(HttpStatus.ACCEPTED)
+                    .body("Callback reçu mais traitement IA en échec");
+        }
+        if (response.getScoringResult() == null) {
+            log.warn(" Pas de résultat de scoring dans le callback pour candidature {}",
+                    response.getApplicationId());
+            return ResponseEntity.ok("Callback traité avec succès");
+        }
+        // Sans version d'offre, un résultat périmé pourrait écraser un scoring plus récent
+        if (response.getOfferVersion() == null) {
+            log.warn(" Callback IA sans version d'offre rejeté pour candidature {}", response.getApplicationId());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Callback rejeté : offer_version manquant");
+        }
+        IAResultIngestionService.IAResult result = toResult(response);
+        if (!result.isComplete()) {
+            log.warn(" Callback IA incomplet rejeté pour candidature {}", response.getApplicationId());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST)
+                    .body("Callback rejeté : application_id ou score manquant");
+        }
+
         try {
-            if (response.getSuccess()) {
-                // Sauvegarder les résultats dans la base de données
-                Application application = applicationRepository.findById(response.getApplicationId())
-                        .orElseThrow(() -> new ResourceNotFoundException(
-                                "Candidature non trouvée: " + response.getApplicationId()
-                        ));
-
-                // Mettre à jour les scores
-                if (response.getScoringResult() != null) {
-                    var scoring = response.getScoringResult();
-
-                    application.setScoreIA(scoring.getScoreGlobal().intValue());
-                    application.setMatchingCompetences(scoring.getMatchingCompetences().intValue());
-                    application.setMatchingExperience(scoring.getMatchingExperience().intValue());
-                    application.setMatchingDiploma(scoring.getMatchingDiploma().intValue());
-                    application.setJustificationIA(scoring.getJustification());
-                    application.setApplicationStatus(ApplicationStatus.AI_SCORED);
-
-                    applicationRepository.save(application);
-
-                    log.info(" Résultats IA sauvegardés pour candidature {} - Score: {}",
-                            response.getApplicationId(), scoring.getScoreGlobal());
-                } else {
-                    log.warn(" Pas de résultat de scoring dans le callback pour candidature {}",
-                            response.getApplicationId());
-                }
-
-                return ResponseEntity.ok("Callback traité avec succès");
+            // Écriture idempotente : un callback rejoué ou déjà appliqué par le worker ne modifie rien
+            resultIngestionService.ingest(result).join();
+            return ResponseEntity.ok("Callback traité avec succès");
 
+        } catch (Exception e) {
+            log.error(" Erreur lors du traitement du callback IA pour candidature {}",
+                    response.getApplicationId(), e);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body("Erreur lors du traitement du callback: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Callback groupé : plusieurs résultats IA en un appel, écrits par lots
+     * POST /api/v1/webhook/ia-results
+     */
+    @PostMapping("/ia-results")
+    public ResponseEntity<String> receiveIAResults(@RequestBody List<ProcessCVResponseDTO> responses) {
+        log.info(" Callback IA groupé reçu ({} résultat(s))", responses.size());
+
+        List<CompletableFuture<Boolean>> writes = new ArrayList<>();
+        int failed = 0;
+        int rejected = 0;
+        for (ProcessCVResponseDTO response : responses) {
+            if (Boolean.TRUE.equals(response.getSuccess()) && response.getScoringResult() != null
+                    && response.getOfferVersion() == null) {
+                rejected++;
+                log.warn(" Callback IA sans version d'offre rejeté pour candidature {}", response.getApplicationId());
+            } else if (Boolean.TRUE.equals(response.getSuccess()) && response.getScoringResult() != null
+                    && !toResult(response).isComplete()) {
+                rejected++;
+                log.warn(" Callback IA incomplet rejeté pour candidature {}", response.getApplicationId());
+            } else if (Boolean.TRUE.equals(response.getSuccess()) && response.getScoringResult() != null) {
+                writes.add(resultIngestionService.ingest(toResult(response)));
             } else {
+                failed++;
                 log.error("Callback IA en échec pour candidature {}: {}",
                         response.getApplicationId(), response.getErrorMessage());
-
-                return ResponseEntity.status(HttpStatus.ACCEPTED)
-                        .body("Callback reçu mais traitement IA en échec");
             }
+        }
+
+        try {
+            CompletableFuture.allOf(writes.toArray(CompletableFuture[]::new)).join();
+            long applied = writes.stream().filter(CompletableFuture::join).count();
+            return ResponseEntity.ok(String.format("%d résultat(s) appliqué(s), %d ignoré(s), %d rejeté(s), %d en échec",
+                    applied, writes.size() - applied, rejected, failed));
 
         } catch (Exception e) {
-            log.error(" Erreur lors du traitement du callback IA pour candidature {}",
-                    response.getApplicationId(), e);
+            log.error(" Erreur lors du traitement du callback IA groupé", e);
 
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Erreur lors du traitement du callback: " + e.getMessage());
         }
     }
 
+    private IAResultIngestionService.IAResult toResult(ProcessCVResponseDTO response) {
+        return new IAResultIngestionService.IAResult(
+                response.getApplicationId(), null, null, response.getOfferVersion(), response.getScoringResult());
+    }
 }
@@ -0,0 +1,29 @@
+package com.ept.sn.cri.backend.ia.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Partie "metadata" d'une requête multipart : tout sauf le fichier du CV
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessCVMetadataDTO {
+
+    @JsonProperty("application_id")
+    private Long applicationId;
+
+    private String filename;
+
+    @JsonProperty("job_offer")
+    private IAJobOfferDTO jobOffer;
+
+    // Version de scoring de l'offre, renvoyée telle quelle par le service IA (garde de version du résultat)
+    @JsonProperty("offer_version")
+    private Integer offerVersion;
+}
@@ -25,4 +25,8 @@ public class ProcessCVRequestDTO {
 
     @JsonProperty("callback_url")
     private String callbackUrl;
+
+    // Version de scoring de l'offre, renvoyée telle quelle par le service IA (garde de version du résultat)
+    @JsonProperty("offer_version")
+    private Integer offerVersion;
 }
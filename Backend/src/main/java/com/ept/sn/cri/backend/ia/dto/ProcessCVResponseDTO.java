@@ -2,6 +2,7 @@ package com.ept.sn.cri.backend.ia.dto;
 
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -18,10 +19,17 @@ public class ProcessCVResponseDTO {
     @JsonProperty("application_id")
     private Long applicationId;
 
+    // Version de scoring de l'offre reçue dans la requête
+    @JsonProperty("offer_version")
+    private Integer offerVersion;
 
     @JsonProperty("scoring_result")
     private IAScoringResultDTO scoringResult;
 
+    // Profil extrait du CV (ResumeData côté service IA), réutilisé pour les candidatures suivantes
+    @JsonProperty("parsed_data")
+    private JsonNode parsedData;
+
     @JsonProperty("error_message")
     private String errorMessage;
 
@@ -0,0 +1,33 @@
+package com.ept.sn.cri.backend.ia.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ProcessCVTextRequestDTO {
+
+    @JsonProperty("application_id")
+    private Long applicationId;
+
+    // Texte du CV extrait par le backend (à la place du PDF)
+    @JsonProperty("cv_text")
+    private String cvText;
+
+    private String filename;
+
+    @JsonProperty("job_offer")
+    private IAJobOfferDTO jobOffer;
+
+    @JsonProperty("callback_url")
+    private String callbackUrl;
+
+    // Version de scoring de l'offre, renvoyée telle quelle par le service IA (garde de version du résultat)
+    @JsonProperty("offer_version")
+    private Integer offerVersion;
+}
@@ -0,0 +1,17 @@
+package com.ept.sn.cri.backend.ia.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreBatchRequestDTO {
+
+    private List<ScoreCVRequestDTO> requests;
+}
@@ -0,0 +1,21 @@
+package com.ept.sn.cri.backend.ia.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreBatchResponseDTO {
+
+    private List<ScoreCVResponseDTO> results;
+
+    @JsonProperty("processing_time")
+    private Double processingTime;
+}
@@ -0,0 +1,24 @@
+package com.ept.sn.cri.backend.ia.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreCVRequestDTO {
+
+    @JsonProperty("application_id")
+    private Long applicationId;
+
+    @JsonProperty("parsed_cv_data")
+    private JsonNode parsedCvData;
+
+    @JsonProperty("job_offer")
+    private IAJobOfferDTO jobOffer;
+}
@@ -0,0 +1,28 @@
+package com.ept.sn.cri.backend.ia.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ScoreCVResponseDTO {
+
+    private Boolean success;
+
+    @JsonProperty("application_id")
+    private Long applicationId;
+
+    @JsonProperty("scoring_result")
+    private IAScoringResultDTO scoringResult;
+
+    @JsonProperty("error_message")
+    private String errorMessage;
+
+    @JsonProperty("processing_time")
+    private Double processingTime;
+}
@@ -0,0 +1,40 @@
+package com.ept.sn.cri.backend.ia.repository;
+
+import com.ept.sn.cri.backend.entity.CandidateCvProfile;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CandidateCvProfileRepository extends JpaRepository<CandidateCvProfile, Long> {
+
+    // Profil déjà extrait de ce CV pour ce candidat
+    @Query("SELECT p.profileJson FROM CandidateCvProfile p WHERE p.candidate.id = :candidateId AND p.cvHash = :cvHash")
+    Optional<String> findProfileJson(@Param("candidateId") Long candidateId, @Param("cvHash") String cvHash);
+
+    // Résumé du profil (compétences, années d'expérience) pour le score provisoire
+    @Query("SELECT p.skills, p.experienceYears FROM CandidateCvProfile p WHERE p.candidate.id = :candidateId AND p.cvHash = :cvHash")
+    List<Object[]> findSummary(@Param("candidateId") Long candidateId, @Param("cvHash") String cvHash);
+
+    // Enregistrer un profil sauf s'il existe déjà (0 : profil déjà présent, conservé)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO candidate_cv_profiles (candidate_id, cv_hash, profile_json, skills, degrees, " +
+            "experience_years, created_at) " +
+            "VALUES (:candidateId, :cvHash, :profileJson, :skills, :degrees, :experienceYears, :now) " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("candidateId") Long candidateId,
+                       @Param("cvHash") String cvHash,
+                       @Param("profileJson") String profileJson,
+                       @Param("skills") String skills,
+                       @Param("degrees") String degrees,
+                       @Param("experienceYears") Integer experienceYears,
+                       @Param("now") LocalDateTime now);
+}
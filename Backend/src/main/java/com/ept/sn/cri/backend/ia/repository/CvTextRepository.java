@@ -0,0 +1,32 @@
+package com.ept.sn.cri.backend.ia.repository;
+
+import com.ept.sn.cri.backend.entity.CvText;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface CvTextRepository extends JpaRepository<CvText, Long> {
+
+    // Texte compressé déjà extrait de ce CV
+    @Query("SELECT t.content FROM CvText t WHERE t.cvHash = :cvHash")
+    Optional<byte[]> findContent(@Param("cvHash") String cvHash);
+
+    // Enregistrer le texte d'un CV sauf s'il existe déjà (0 : extrait en parallèle, même contenu)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO cv_texts (cv_hash, content, text_length, page_count, created_at) " +
+            "VALUES (:cvHash, :content, :textLength, :pageCount, :now) " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("cvHash") String cvHash,
+                       @Param("content") byte[] content,
+                       @Param("textLength") int textLength,
+                       @Param("pageCount") Integer pageCount,
+                       @Param("now") LocalDateTime now);
+}
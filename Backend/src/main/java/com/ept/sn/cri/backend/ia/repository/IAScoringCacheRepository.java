@@ -0,0 +1,36 @@
+package com.ept.sn.cri.backend.ia.repository;
+
+import com.ept.sn.cri.backend.entity.IAScoringCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+@Repository
+public interface IAScoringCacheRepository extends JpaRepository<IAScoringCacheEntry, Long> {
+
+    // Résultat déjà calculé pour ce CV et cette version de l'offre
+    Optional<IAScoringCacheEntry> findByCvHashAndOfferHash(String cvHash, String offerHash);
+
+    // Enregistrer un résultat sauf s'il est déjà en cache (0 : scoré en parallèle, le premier est conservé)
+    @Transactional
+    @Modifying
+    @Query(value = "INSERT INTO ia_scoring_cache (cv_hash, offer_hash, score_global, matching_competences, " +
+            "matching_experience, matching_diploma, justification, created_at) " +
+            "VALUES (:cvHash, :offerHash, :scoreGlobal, :matchingCompetences, :matchingExperience, " +
+            ":matchingDiploma, :justification, :now) " +
+            "ON DUPLICATE KEY UPDATE id = id", nativeQuery = true)
+    int insertIfAbsent(@Param("cvHash") String cvHash,
+                       @Param("offerHash") String offerHash,
+                       @Param("scoreGlobal") Double scoreGlobal,
+                       @Param("matchingCompetences") Double matchingCompetences,
+                       @Param("matchingExperience") Double matchingExperience,
+                       @Param("matchingDiploma") Double matchingDiploma,
+                       @Param("justification") String justification,
+                       @Param("now") LocalDateTime now);
+}
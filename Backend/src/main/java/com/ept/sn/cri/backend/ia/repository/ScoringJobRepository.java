@@ -0,0 +1,173 @@
+package com.ept.sn.cri.backend.ia.repository;
+
+import com.ept.sn.cri.backend.entity.ScoringJob;
+import com.ept.sn.cri.backend.enums.ScoringJobStatus;
+import com.ept.sn.cri.backend.enums.ScoringJobType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface ScoringJobRepository extends JpaRepository<ScoringJob, Long> {
+
+    String CLAIM_FROM = "FROM scoring_jobs j " +
+            "JOIN applications a ON a.id = j.application_id " +
+            "JOIN job_offers o ON o.id = a.job_offer_id " +
+            "WHERE j.job_type = :type AND j.status = 'PENDING' AND j.next_attempt_at <= :now " +
+            "AND NOT EXISTS (SELECT p.id FROM scoring_jobs p WHERE p.application_id = j.application_id " +
+            "AND p.status = 'PROCESSING') ";
+    String CLAIM_SCAN = "ORDER BY j.priority DESC, j.next_attempt_at, j.id LIMIT :scan";
+
+    // Jobs prêts, dans l'ordre de traitement :
+    // offres en urgence RH, puis offres proches de leur date limite, puis les autres ;
+    // dans un même niveau, un job par offre à tour de rôle, puis par priorité décroissante.
+    // Chaque niveau ne lit que ses :scan meilleurs jobs (parcours de idx_scoring_jobs_claim) ;
+    // une candidature dont un job est déjà en cours attend la fin de celui-ci
+    @Query(value = "SELECT r.id FROM (" +
+            "SELECT u.id, u.priority, u.next_attempt_at, u.tier, " +
+            "ROW_NUMBER() OVER (PARTITION BY u.job_offer_id ORDER BY u.priority DESC, u.next_attempt_at, u.id) AS offer_rank " +
+            "FROM (" +
+            "(SELECT j.id, j.priority, j.next_attempt_at, a.job_offer_id, 0 AS tier " + CLAIM_FROM +
+            "AND o.rush = TRUE " + CLAIM_SCAN + ") UNION ALL " +
+            "(SELECT j.id, j.priority, j.next_attempt_at, a.job_offer_id, 1 AS tier " + CLAIM_FROM +
+            "AND o.rush = FALSE AND o.date_limite BETWEEN :urgentFrom AND :urgentTo " + CLAIM_SCAN + ") UNION ALL " +
+            "(SELECT j.id, j.priority, j.next_attempt_at, a.job_offer_id, 2 AS tier " + CLAIM_FROM +
+            "AND o.rush = FALSE AND (o.date_limite IS NULL OR o.date_limite NOT BETWEEN :urgentFrom AND :urgentTo) " +
+            CLAIM_SCAN + ")" +
+            ") u" +
+            ") r ORDER BY r.tier, r.offer_rank, r.priority DESC, r.next_attempt_at, r.id LIMIT :limit", nativeQuery = true)
+    List<Long> findNextJobIds(@Param("now") LocalDateTime now,
+                              @Param("urgentFrom") LocalDateTime urgentFrom,
+                              @Param("urgentTo") LocalDateTime urgentTo,
+                              @Param("type") String type,
+                              @Param("scan") int scan,
+                              @Param("limit") int limit);
+
+    // Verrouiller les jobs choisis, sans attendre les lignes déjà prises par un autre nœud
+    @Query(value = "SELECT id FROM scoring_jobs WHERE id IN :ids " +
+            "AND status = 'PENDING' AND next_attempt_at <= :now " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockJobIds(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    // Jobs d'un type en cours de traitement (tous nœuds confondus)
+    @Query("SELECT COUNT(j) FROM ScoringJob j WHERE j.type = :type " +
+            "AND j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING AND j.lockedUntil >= :now")
+    long countProcessing(@Param("type") ScoringJobType type, @Param("now") LocalDateTime now);
+
+    // Réserver les jobs verrouillés pour ce nœud
+    @Modifying
+    @Query("UPDATE ScoringJob j SET j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING, " +
+            "j.lockedBy = :nodeId, j.lockedUntil = :lockedUntil, j.attempts = j.attempts + 1, j.updatedAt = :now " +
+            "WHERE j.id IN :ids")
+    int markProcessing(@Param("ids") Collection<Long> ids,
+                       @Param("nodeId") String nodeId,
+                       @Param("lockedUntil") LocalDateTime lockedUntil,
+                       @Param("now") LocalDateTime now);
+
+    // Fin d'une tentative (COMPLETED, DEAD_LETTER, ou PENDING avant un nouvel essai), si elle est toujours
+    // celle en cours : une tentative dont la réservation a été reprise par un autre nœud ne modifie rien
+    @Modifying
+    @Query("UPDATE ScoringJob j SET j.status = :status, j.nextAttemptAt = :nextAttemptAt, " +
+            "j.completedAt = CASE WHEN :status = com.ept.sn.cri.backend.enums.ScoringJobStatus.COMPLETED " +
+            "THEN :now ELSE j.completedAt END, " +
+            "j.lockedBy = NULL, j.lockedUntil = NULL, j.lastError = :error, j.updatedAt = :now " +
+            "WHERE j.id = :jobId AND j.attempts = :attempt " +
+            "AND j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING")
+    int finishAttempt(@Param("jobId") Long jobId,
+                      @Param("attempt") int attempt,
+                      @Param("status") ScoringJobStatus status,
+                      @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                      @Param("error") String error,
+                      @Param("now") LocalDateTime now);
+
+    // Tentative non démarrée (service IA indisponible) : remise en file sans la compter, si elle est toujours en cours
+    @Modifying
+    @Query("UPDATE ScoringJob j SET j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "j.attempts = j.attempts - 1, j.nextAttemptAt = :nextAttemptAt, " +
+            "j.lockedBy = NULL, j.lockedUntil = NULL, j.updatedAt = :now " +
+            "WHERE j.id = :jobId AND j.attempts = :attempt AND j.attempts > 0 " +
+            "AND j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING")
+    int releaseAttempt(@Param("jobId") Long jobId,
+                       @Param("attempt") int attempt,
+                       @Param("nextAttemptAt") LocalDateTime nextAttemptAt,
+                       @Param("now") LocalDateTime now);
+
+    // Réservations expirées, tentatives épuisées : abandon
+    @Modifying
+    @Query("UPDATE ScoringJob j SET j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.DEAD_LETTER, " +
+            "j.lockedBy = NULL, j.lockedUntil = NULL, j.lastError = :error, j.updatedAt = :now " +
+            "WHERE j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING AND j.lockedUntil < :now " +
+            "AND j.attempts >= :maxAttempts")
+    int deadLetterExpiredLeases(@Param("now") LocalDateTime now,
+                                @Param("maxAttempts") int maxAttempts,
+                                @Param("error") String error);
+
+    // Réservations expirées : remise en file immédiate
+    @Modifying
+    @Query("UPDATE ScoringJob j SET j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "j.nextAttemptAt = :now, j.lockedBy = NULL, j.lockedUntil = NULL, j.lastError = :error, j.updatedAt = :now " +
+            "WHERE j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING AND j.lockedUntil < :now")
+    int requeueExpiredLeases(@Param("now") LocalDateTime now, @Param("error") String error);
+
+    // File d'attente par type : [type, nombre, plus ancienne création]
+    @Query("SELECT j.type, COUNT(j), MIN(j.createdAt) FROM ScoringJob j " +
+            "WHERE j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING GROUP BY j.type")
+    List<Object[]> findPendingStats();
+
+    // Jobs d'un statut
+    long countByStatus(ScoringJobStatus status);
+
+    // Jobs terminés depuis :since
+    @Query("SELECT COUNT(j) FROM ScoringJob j " +
+            "WHERE j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.COMPLETED AND j.completedAt >= :since")
+    long countCompletedSince(@Param("since") LocalDateTime since);
+
+    // Priorité des jobs encore en attente d'une candidature (score provisoire recalculé)
+    @Modifying
+    @Query("UPDATE ScoringJob j SET j.priority = :priority WHERE j.application.id = :applicationId " +
+            "AND j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING")
+    int updatePendingPriority(@Param("applicationId") Long applicationId, @Param("priority") int priority);
+
+    // Candidatures des jobs réservés
+    @Query("SELECT j.id, j.application.id, j.attempts, j.type FROM ScoringJob j WHERE j.id IN :ids")
+    List<Object[]> findClaimedRows(@Param("ids") Collection<Long> ids);
+
+    // Nouveau scoring des candidatures d'une offre qui ne sont pas à jour et n'ont pas déjà un job en attente ;
+    // un job en cours a pu être réservé avant la modification de l'offre : un job de suivi est créé,
+    // il n'est réservé qu'une fois le job en cours terminé et ignoré si celui-ci a suffi
+    @Modifying
+    @Query("INSERT INTO ScoringJob (application, status, type, priority, attempts, nextAttemptAt, createdAt, updatedAt) " +
+            "SELECT a, com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "com.ept.sn.cri.backend.enums.ScoringJobType.RESCORE, COALESCE(a.scoreIA, a.provisionalScore, 0), 0, :now, :now, :now " +
+            "FROM Application a WHERE a.jobOffer.id = :jobOfferId " +
+            "AND a.cvUrl IS NOT NULL " +
+            "AND a.applicationStatus NOT IN (com.ept.sn.cri.backend.enums.ApplicationStatus.DRAFT, " +
+            "com.ept.sn.cri.backend.enums.ApplicationStatus.WITHDRAWN) " +
+            "AND (a.scoredOfferVersion IS NULL OR a.scoredOfferVersion <> a.jobOffer.scoringVersion) " +
+            "AND NOT EXISTS (SELECT j.id FROM ScoringJob j WHERE j.application = a " +
+            "AND j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING)")
+    int enqueueRescore(@Param("jobOfferId") Long jobOfferId, @Param("now") LocalDateTime now);
+
+    // Nouveau job pour des candidatures dont le job a été perdu, sauf si un job actif existe déjà
+    @Modifying
+    @Query("INSERT INTO ScoringJob (application, status, type, priority, attempts, nextAttemptAt, createdAt, updatedAt) " +
+            "SELECT a, com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "com.ept.sn.cri.backend.enums.ScoringJobType.SUBMISSION, COALESCE(a.provisionalScore, 0), 0, :now, :now, :now " +
+            "FROM Application a WHERE a.id IN :applicationIds " +
+            "AND NOT EXISTS (SELECT j.id FROM ScoringJob j WHERE j.application = a " +
+            "AND j.status IN (com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING))")
+    int enqueueRecovered(@Param("applicationIds") Collection<Long> applicationIds, @Param("now") LocalDateTime now);
+
+    // Jobs en attente / en cours pour les candidatures d'une offre : [status, nombre]
+    @Query("SELECT j.status, COUNT(j) FROM ScoringJob j WHERE j.application.jobOffer.id = :jobOfferId " +
+            "AND j.status IN (com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING) GROUP BY j.status")
+    List<Object[]> countActiveByJobOffer(@Param("jobOfferId") Long jobOfferId);
+}
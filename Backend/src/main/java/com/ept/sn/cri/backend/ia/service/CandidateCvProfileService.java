@@ -0,0 +1,114 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.ia.repository.CandidateCvProfileRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.Year;
+import java.util.LinkedHashSet;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Profils de CV déjà parsés par le service IA (parse une fois, score plusieurs fois)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CandidateCvProfileService {
+
+    private static final Pattern YEAR = Pattern.compile("(19|20)\\d{2}");
+
+    private final CandidateCvProfileRepository profileRepository;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Profil déjà extrait de ce CV pour ce candidat
+     */
+    public Optional<JsonNode> find(Long candidateId, String cvHash) {
+        return profileRepository.findProfileJson(candidateId, cvHash).flatMap(json -> {
+            try {
+                return Optional.of(objectMapper.readTree(json));
+            } catch (JsonProcessingException e) {
+                log.warn("Profil de CV illisible pour le candidat {}, il sera reparsé", candidateId);
+                return Optional.empty();
+            }
+        });
+    }
+
+    /**
+     * Compétences et expérience déjà extraites de ce CV pour ce candidat
+     */
+    public Optional<ProfileSummary> findSummary(Long candidateId, String cvHash) {
+        return profileRepository.findSummary(candidateId, cvHash).stream()
+                .findFirst()
+                .map(row -> new ProfileSummary((String) row[0], (Integer) row[1]));
+    }
+
+    /**
+     * Conserver le profil renvoyé par l'étape de parsing
+     */
+    public void save(Long candidateId, String cvHash, JsonNode profile) {
+        // Même CV parsé en parallèle pour une autre candidature : le premier profil est conservé
+        int inserted = profileRepository.insertIfAbsent(candidateId, cvHash, profile.toString(),
+                truncate(joinSkills(profile), 2000), truncate(joinDegrees(profile), 1000),
+                experienceYears(profile), LocalDateTime.now());
+        if (inserted == 0) {
+            log.debug("Profil de CV déjà enregistré pour le candidat {}", candidateId);
+        }
+    }
+
+    private String joinSkills(JsonNode profile) {
+        Set<String> skills = new LinkedHashSet<>();
+        profile.path("competences").forEach(skill -> skills.add(skill.asText()));
+        profile.path("tools").forEach(tool -> skills.add(tool.asText()));
+        return String.join(", ", skills);
+    }
+
+    private String joinDegrees(JsonNode profile) {
+        Set<String> degrees = new LinkedHashSet<>();
+        profile.path("education").forEach(education -> {
+            if (education.hasNonNull("degree")) {
+                degrees.add(education.get("degree").asText());
+            }
+        });
+        return String.join("; ", degrees);
+    }
+
+    // Somme des durées (en années) des expériences dont les dates contiennent une année
+    private Integer experienceYears(JsonNode profile) {
+        int currentYear = Year.now().getValue();
+        int years = 0;
+        for (JsonNode experience : profile.path("work_experience")) {
+            Integer start = firstYear(experience.path("start_date").asText(null));
+            if (start == null) {
+                continue;
+            }
+            Integer end = firstYear(experience.path("end_date").asText(null));
+            years += Math.max(0, (end != null ? end : currentYear) - start);
+        }
+        return years;
+    }
+
+    private Integer firstYear(String date) {
+        if (date == null) {
+            return null;
+        }
+        Matcher matcher = YEAR.matcher(date);
+        return matcher.find() ? Integer.parseInt(matcher.group()) : null;
+    }
+
+    private String truncate(String value, int maxLength) {
+        return value.length() > maxLength ? value.substring(0, maxLength) : value;
+    }
+
+    public record ProfileSummary(String skills, Integer experienceYears) {
+    }
+}
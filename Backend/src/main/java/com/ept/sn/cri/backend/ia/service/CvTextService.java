@@ -0,0 +1,198 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.ia.repository.CvTextRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.Loader;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.text.PDFTextStripper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.Normalizer;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Extraction du texte des CV PDF (PDFBox), sur un pool borné au nombre de cœurs.
+ * Le texte normalisé est conservé compressé, une fois par contenu de CV (empreinte SHA-256) :
+ * le service IA reçoit ce texte au lieu du PDF, et le score provisoire l'utilise.
+ */
+@Service
+@Slf4j
+public class CvTextService {
+
+    private static final byte[] PDF_MAGIC = "%PDF-".getBytes(StandardCharsets.US_ASCII);
+    private static final Pattern CONTROL = Pattern.compile("[\\p{Cc}\\p{Cf}&&[^\\n\\t]]");
+    private static final Pattern HYPHENATION = Pattern.compile("(\\p{L})-\\n(\\p{Ll})");
+    private static final Pattern HORIZONTAL_SPACE = Pattern.compile("[\\t\\p{Zs}]+");
+    private static final Pattern SPACE_AROUND_NEWLINE = Pattern.compile(" *\\n *");
+    private static final Pattern BLANK_LINES = Pattern.compile("\\n{3,}");
+
+    private final CvTextRepository cvTextRepository;
+    private final ThreadPoolExecutor extractor;
+    private final int maxPages;
+    private final int maxChars;
+    private final int minChars;
+
+    // Une seule extraction à la fois par contenu de CV
+    private final Map<String, CompletableFuture<Optional<String>>> inFlight = new ConcurrentHashMap<>();
+
+    public CvTextService(CvTextRepository cvTextRepository,
+                         @Value("${cv.text.threads:0}") int threads,
+                         @Value("${cv.text.queue-capacity:200}") int queueCapacity,
+                         @Value("${cv.text.max-pages:20}") int maxPages,
+                         @Value("${cv.text.max-chars:50000}") int maxChars,
+                         @Value("${cv.text.min-chars:200}") int minChars) {
+        this.cvTextRepository = cvTextRepository;
+        int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.extractor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                Thread.ofPlatform().name("cv-text-", 0).daemon().factory());
+        this.maxPages = maxPages;
+        this.maxChars = maxChars;
+        this.minChars = minChars;
+    }
+
+    /**
+     * Texte du CV, extrait sur le pool si ce contenu n'a jamais été traité.
+     * Vide si le fichier n'est pas un PDF, n'a pas de texte exploitable, ou si le pool est saturé.
+     */
+    public CompletableFuture<Optional<String>> extract(String cvHash, Path cvPath) {
+        if (cvHash == null) {
+            return CompletableFuture.completedFuture(Optional.empty());
+        }
+        CompletableFuture<Optional<String>> created = new CompletableFuture<>();
+        CompletableFuture<Optional<String>> existing = inFlight.putIfAbsent(cvHash, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        try {
+            extractor.execute(() -> {
+                try {
+                    created.complete(loadOrExtract(cvHash, cvPath));
+                } catch (Exception e) {
+                    log.warn(" Extraction du texte du CV {} impossible : {}", cvPath.getFileName(), e.getMessage());
+                    created.complete(Optional.empty());
+                } finally {
+                    inFlight.remove(cvHash, created);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.warn(" Pool d'extraction des CV saturé, texte non extrait pour {}", cvPath.getFileName());
+            inFlight.remove(cvHash, created);
+            created.complete(Optional.empty());
+        }
+        return created;
+    }
+
+    /**
+     * Texte déjà extrait de ce CV
+     */
+    public Optional<String> find(String cvHash) {
+        return cvTextRepository.findContent(cvHash)
+                .map(this::decompress)
+                .filter(text -> !text.isEmpty());
+    }
+
+    private Optional<String> loadOrExtract(String cvHash, Path cvPath) throws IOException {
+        Optional<byte[]> stored = cvTextRepository.findContent(cvHash);
+        if (stored.isPresent()) {
+            return Optional.of(decompress(stored.get())).filter(text -> !text.isEmpty());
+        }
+        if (!isPdf(cvPath)) {
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        String text;
+        int pageCount;
+        try (PDDocument document = Loader.loadPDF(cvPath.toFile())) {
+            pageCount = document.getNumberOfPages();
+            PDFTextStripper stripper = new PDFTextStripper();
+            stripper.setEndPage(maxPages);
+            text = normalize(stripper.getText(document));
+        }
+        // Trop peu de texte : PDF scanné, l'OCR du service IA reste nécessaire
+        if (text.length() < minChars) {
+            text = "";
+        }
+
+        save(cvHash, text, pageCount);
+        log.info(" Texte extrait du CV {} : {} caractères, {} page(s) en {} ms", cvPath.getFileName(),
+                text.length(), pageCount, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return Optional.of(text).filter(value -> !value.isEmpty());
+    }
+
+    private void save(String cvHash, String text, int pageCount) {
+        // Extrait en parallèle par un autre nœud : même contenu
+        if (cvTextRepository.insertIfAbsent(cvHash, compress(text), text.length(), pageCount, LocalDateTime.now()) == 0) {
+            log.debug(" Texte du CV {} déjà enregistré", cvHash);
+        }
+    }
+
+    /**
+     * Texte compact et stable : ligatures et formes de compatibilité décomposées (NFKC),
+     * caractères de contrôle retirés, césures de fin de ligne recollées, espaces et lignes vides réduits
+     */
+    private String normalize(String raw) {
+        String text = Normalizer.normalize(raw, Normalizer.Form.NFKC)
+                .replace("\r\n", "\n")
+                .replace('\r', '\n');
+        text = CONTROL.matcher(text).replaceAll("");
+        text = HYPHENATION.matcher(text).replaceAll("$1$2");
+        text = HORIZONTAL_SPACE.matcher(text).replaceAll(" ");
+        text = SPACE_AROUND_NEWLINE.matcher(text).replaceAll("\n");
+        text = BLANK_LINES.matcher(text).replaceAll("\n\n").strip();
+        return text.length() > maxChars ? text.substring(0, maxChars) : text;
+    }
+
+    private boolean isPdf(Path cvPath) throws IOException {
+        try (InputStream in = Files.newInputStream(cvPath)) {
+            return Arrays.equals(in.readNBytes(PDF_MAGIC.length), PDF_MAGIC);
+        }
+    }
+
+    private byte[] compress(String text) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, text.length() / 3));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(text.getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private String decompress(byte[] content) {
+        try (InputStream gzip = new GZIPInputStream(new ByteArrayInputStream(content))) {
+            return new String(gzip.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        extractor.shutdownNow();
+    }
+}
@@ -0,0 +1,197 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.enums.CircuitBreakerState;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+
+/**
+ * Protection des appels au service IA.
+ * <ul>
+ *     <li>Limite de concurrence adaptative (AIMD) : +1/limite par appel rapide réussi,
+ *     x0.9 quand la latence dépasse la cible, x0.5 sur erreur.</li>
+ *     <li>Disjoncteur : ouvert quand le taux d'échec des derniers appels dépasse le seuil,
+ *     refermé par la sonde de santé ({@link IAHealthProber}). Seules les erreurs du service
+ *     (5xx, délai dépassé, connexion impossible) comptent : une requête refusée (4xx) ne l'ouvre pas.</li>
+ * </ul>
+ * Tant qu'aucune place n'est disponible, le worker ne réserve pas de job : ils restent en file.
+ */
+@Component
+@Slf4j
+public class IAClientGuard {
+
+    private final double minLimit;
+    private final double maxLimit;
+    private final long latencyTargetNanos;
+    private final int minimumCalls;
+    private final double failureRateThreshold;
+    private final long openDurationNanos;
+
+    // Derniers appels (true = échec ou appel trop lent), fenêtre circulaire
+    private final boolean[] window;
+    private int windowPosition;
+    private int windowCount;
+    private int windowFailures;
+
+    private double limit;
+    private int inFlight;
+    private CircuitBreakerState state = CircuitBreakerState.CLOSED;
+    private long openedAt;
+
+    private final Counter rejected;
+    private final Counter opened;
+
+    public IAClientGuard(MeterRegistry meterRegistry,
+                         @Value("${ia.guard.initial-limit:2}") int initialLimit,
+                         @Value("${ia.guard.min-limit:1}") int minLimit,
+                         @Value("${ia.guard.max-limit:16}") int maxLimit,
+                         @Value("${ia.guard.latency-target:60s}") Duration latencyTarget,
+                         @Value("${ia.guard.window-size:20}") int windowSize,
+                         @Value("${ia.guard.minimum-calls:5}") int minimumCalls,
+                         @Value("${ia.guard.failure-rate-threshold:50}") double failureRateThreshold,
+                         @Value("${ia.guard.open-duration:30s}") Duration openDuration) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.limit = Math.max(minLimit, Math.min(initialLimit, maxLimit));
+        this.latencyTargetNanos = latencyTarget.toNanos();
+        this.window = new boolean[windowSize];
+        this.minimumCalls = minimumCalls;
+        this.failureRateThreshold = failureRateThreshold;
+        this.openDurationNanos = openDuration.toNanos();
+
+        this.rejected = Counter.builder("ia.guard.rejected").register(meterRegistry);
+        this.opened = Counter.builder("ia.guard.opened").register(meterRegistry);
+        Gauge.builder("ia.guard.limit", this, IAClientGuard::currentLimit).register(meterRegistry);
+        Gauge.builder("ia.guard.in-flight", this, IAClientGuard::currentInFlight).register(meterRegistry);
+        Gauge.builder("ia.guard.open", this, guard -> guard.isOpen() ? 1 : 0).register(meterRegistry);
+    }
+
+    /**
+     * Nombre d'appels qui peuvent démarrer maintenant
+     */
+    public synchronized int availablePermits() {
+        if (state == CircuitBreakerState.OPEN) {
+            return 0;
+        }
+        return Math.max(0, (int) limit - inFlight);
+    }
+
+    /**
+     * Réserver une place pour un appel ; false si le disjoncteur est ouvert ou la limite atteinte
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == CircuitBreakerState.OPEN || inFlight >= (int) limit) {
+            rejected.increment();
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * Appel terminé avec succès
+     */
+    public synchronized void onSuccess(long latencyNanos) {
+        inFlight--;
+        boolean slow = latencyNanos > latencyTargetNanos;
+        if (slow) {
+            limit = Math.max(minLimit, limit * 0.9);
+        } else {
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+        record(slow);
+    }
+
+    /**
+     * Appel terminé en erreur ; une erreur qui n'est pas due au service libère seulement la place
+     */
+    public synchronized void onFailure(Throwable error) {
+        inFlight--;
+        if (!isServiceFailure(error)) {
+            return;
+        }
+        limit = Math.max(minLimit, limit * 0.5);
+        record(true);
+    }
+
+    /**
+     * Résultat de la sonde de santé (ignoré tant que le disjoncteur est fermé
+     * ou que la durée minimale d'ouverture n'est pas écoulée)
+     */
+    public synchronized void onProbe(boolean healthy) {
+        if (state != CircuitBreakerState.OPEN || !healthy || System.nanoTime() - openedAt < openDurationNanos) {
+            return;
+        }
+        // Reprise prudente : la limite repart du minimum et remonte avec les succès
+        state = CircuitBreakerState.CLOSED;
+        limit = minLimit;
+        resetWindow();
+        log.info(" Service IA de nouveau disponible, disjoncteur fermé");
+    }
+
+    public synchronized boolean isOpen() {
+        return state == CircuitBreakerState.OPEN;
+    }
+
+    // 5xx, délai dépassé ou connexion impossible, éventuellement enveloppé par l'appelant
+    static boolean isServiceFailure(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientErrorException) {
+                return false;
+            }
+            if (cause instanceof HttpServerErrorException || cause instanceof ResourceAccessException
+                    || cause instanceof SocketTimeoutException || cause instanceof ConnectException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void record(boolean failure) {
+        if (windowCount == window.length) {
+            if (window[windowPosition]) {
+                windowFailures--;
+            }
+        } else {
+            windowCount++;
+        }
+        window[windowPosition] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowPosition = (windowPosition + 1) % window.length;
+
+        double failureRate = 100.0 * windowFailures / windowCount;
+        if (state == CircuitBreakerState.CLOSED && windowCount >= minimumCalls && failureRate >= failureRateThreshold) {
+            state = CircuitBreakerState.OPEN;
+            openedAt = System.nanoTime();
+            opened.increment();
+            log.warn(" Disjoncteur IA ouvert ({}% d'échecs ou d'appels lents sur {} appels)",
+                    Math.round(failureRate), windowCount);
+        }
+    }
+
+    private void resetWindow() {
+        windowPosition = 0;
+        windowCount = 0;
+        windowFailures = 0;
+    }
+
+    private synchronized double currentLimit() {
+        return limit;
+    }
+
+    private synchronized double currentInFlight() {
+        return inFlight;
+    }
+}
@@ -0,0 +1,23 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Sonde le service IA tant que le disjoncteur est ouvert, pour le refermer dès qu'il répond
+ */
+@Component
+@RequiredArgsConstructor
+public class IAHealthProber {
+
+    private final IAService iaService;
+    private final IAClientGuard iaClientGuard;
+
+    @Scheduled(fixedDelayString = "${ia.guard.probe-interval:10s}")
+    public void probe() {
+        if (iaClientGuard.isOpen()) {
+            iaClientGuard.onProbe(iaService.checkIAServiceHealth());
+        }
+    }
+}
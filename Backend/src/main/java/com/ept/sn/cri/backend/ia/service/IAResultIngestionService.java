@@ -0,0 +1,314 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.enums.ActivityType;
+import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import com.ept.sn.cri.backend.event.ApplicationActivityEvent;
+import com.ept.sn.cri.backend.exception.BadRequestException;
+import com.ept.sn.cri.backend.ia.dto.IAScoringResultDTO;
+import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Point d'entrée unique des résultats IA (worker de la file de scoring et webhook).
+ * <ul>
+ *     <li>Les résultats sont regroupés puis écrits par lots JDBC : seules les colonnes de score sont mises à jour.</li>
+ *     <li>Un résultat du worker termine son job dans la même transaction, à condition que la tentative
+ *     soit toujours celle en cours : un résultat d'une tentative dont la réservation a été reprise est ignoré.</li>
+ *     <li>Un résultat calculé pour une version d'offre plus ancienne que celle déjà enregistrée est ignoré,
+ *     et un résultat identique à l'existant ne produit ni écriture ni événement.</li>
+ *     <li>Seule une candidature encore SUBMITTED passe à AI_SCORED.</li>
+ *     <li>Un résultat incomplet est refusé dès sa réception ; si l'écriture d'un lot échoue malgré tout,
+ *     ses résultats sont réécrits un par un pour que seul le résultat fautif échoue.</li>
+ * </ul>
+ */
+@Service
+@Slf4j
+public class IAResultIngestionService {
+
+    private static final String COMPLETE_JOB_SQL =
+            "UPDATE scoring_jobs SET status = 'COMPLETED', completed_at = ?, updated_at = ?, " +
+                    "locked_by = NULL, locked_until = NULL, last_error = NULL " +
+                    "WHERE id = ? AND attempts = ? AND status = 'PROCESSING'";
+
+    private static final String UPDATE_SCORES_SQL =
+            "UPDATE applications SET scoreia = ?, matching_competences = ?, matching_experience = ?, " +
+                    "matching_diploma = ?, justificationia = ?, " +
+                    "scored_offer_version = ?, " +
+                    "application_status = CASE WHEN application_status = 'SUBMITTED' THEN 'AI_SCORED' ELSE application_status END, " +
+                    "update_date = ? " +
+                    "WHERE id = ? " +
+                    "AND (scored_offer_version IS NULL OR scored_offer_version <= ?) " +
+                    "AND NOT (COALESCE(scoreia, -1) = ? AND COALESCE(matching_competences, -1) = ? " +
+                    "AND COALESCE(matching_experience, -1) = ? AND COALESCE(matching_diploma, -1) = ? " +
+                    "AND COALESCE(scored_offer_version, -1) = ? " +
+                    "AND application_status <> 'SUBMITTED')";
+
+    // Un job plus récent encore en attente ou en cours (nouveau scoring demandé entre-temps) garde la candidature en file ;
+    // un résultat d'une version d'offre plus ancienne que celle enregistrée ne clôt pas le suivi
+    private static final String COMPLETE_PROCESSING_SQL =
+            "UPDATE applications SET processing_status = 'COMPLETED', processing_completed_at = ?, " +
+                    "processing_error = NULL WHERE id = ? " +
+                    "AND (scored_offer_version IS NULL OR scored_offer_version <= ?) " +
+                    "AND NOT EXISTS (SELECT 1 FROM scoring_jobs j WHERE j.application_id = applications.id " +
+                    "AND j.status IN ('PENDING', 'PROCESSING'))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationRepository applicationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final int batchSize;
+    private final long maxWaitNanos;
+
+    private final BlockingQueue<PendingResult> queue = new LinkedBlockingQueue<>();
+    private volatile boolean running;
+    private Thread flusher;
+
+    public IAResultIngestionService(JdbcTemplate jdbcTemplate,
+                                    TransactionTemplate transactionTemplate,
+                                    ApplicationRepository applicationRepository,
+                                    ApplicationEventPublisher eventPublisher,
+                                    @Value("${ia.results.batch-size:50}") int batchSize,
+                                    @Value("${ia.results.max-wait:100ms}") Duration maxWait) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.applicationRepository = applicationRepository;
+        this.eventPublisher = eventPublisher;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxWaitNanos = maxWait.toNanos();
+    }
+
+    @PostConstruct
+    void start() {
+        running = true;
+        flusher = Thread.ofPlatform().name("ia-results-flusher").daemon().start(this::run);
+    }
+
+    /**
+     * Enregistrer un résultat ; le futur vaut true si le résultat a été appliqué,
+     * false s'il a été ignoré (tentative périmée, version plus ancienne ou doublon)
+     */
+    public CompletableFuture<Boolean> ingest(IAResult result) {
+        if (!result.isComplete()) {
+            return CompletableFuture.failedFuture(new BadRequestException(
+                    "Résultat IA incomplet pour la candidature " + result.applicationId()));
+        }
+        PendingResult pending = new PendingResult(result, new CompletableFuture<>());
+        if (running) {
+            queue.add(pending);
+        } else {
+            // Arrêt en cours : écriture immédiate
+            flush(List.of(pending));
+        }
+        return pending.applied();
+    }
+
+    private void run() {
+        List<PendingResult> batch = new ArrayList<>(batchSize);
+        while (running) {
+            try {
+                PendingResult first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + maxWaitNanos;
+                while (batch.size() < batchSize) {
+                    long remaining = deadline - System.nanoTime();
+                    PendingResult next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(List<PendingResult> batch) {
+        // Un même résultat reçu deux fois dans le lot (webhook rejoué) n'est écrit qu'une fois
+        Map<ResultKey, List<PendingResult>> byKey = new LinkedHashMap<>();
+        for (PendingResult pending : batch) {
+            IAResult result = pending.result();
+            byKey.computeIfAbsent(new ResultKey(result.applicationId(), result.jobId(), result.attempt()),
+                    key -> new ArrayList<>()).add(pending);
+        }
+        List<List<PendingResult>> groups = new ArrayList<>(byKey.values());
+        List<IAResult> results = groups.stream().map(group -> group.get(group.size() - 1).result()).toList();
+
+        try {
+            boolean[] applied = transactionTemplate.execute(status -> write(results));
+            for (int i = 0; i < groups.size(); i++) {
+                boolean value = applied[i];
+                groups.get(i).forEach(pending -> pending.applied().complete(value));
+            }
+        } catch (RuntimeException e) {
+            if (results.size() == 1) {
+                log.error(" Échec de l'écriture du résultat IA de la candidature {}: {}",
+                        results.get(0).applicationId(), e.getMessage());
+                groups.get(0).forEach(pending -> pending.applied().completeExceptionally(e));
+                return;
+            }
+            // Réécriture un par un : seul le résultat fautif échoue, les autres sont appliqués
+            log.warn(" Échec de l'écriture d'un lot de {} résultat(s) IA, réécriture un par un: {}",
+                    results.size(), e.getMessage());
+            groups.forEach(this::flush);
+        }
+    }
+
+    private boolean[] write(List<IAResult> results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        boolean[] applied = new boolean[results.size()];
+
+        // 1. Terminer les jobs dont la tentative est toujours en cours
+        List<Integer> withJob = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (results.get(i).jobId() != null) {
+                withJob.add(i);
+            } else {
+                applied[i] = true;
+            }
+        }
+        if (!withJob.isEmpty()) {
+            int[][] counts = jdbcTemplate.batchUpdate(COMPLETE_JOB_SQL, withJob, withJob.size(), (ps, index) -> {
+                IAResult result = results.get(index);
+                ps.setTimestamp(1, now);
+                ps.setTimestamp(2, now);
+                ps.setLong(3, result.jobId());
+                ps.setInt(4, result.attempt());
+            });
+            markApplied(applied, withJob, counts[0]);
+        }
+
+        // 2. Clore le suivi de traitement et écrire les scores des résultats retenus
+        List<Integer> accepted = new ArrayList<>();
+        for (int i = 0; i < results.size(); i++) {
+            if (applied[i]) {
+                accepted.add(i);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return applied;
+        }
+        jdbcTemplate.batchUpdate(COMPLETE_PROCESSING_SQL, accepted, accepted.size(), (ps, index) -> {
+            ps.setTimestamp(1, now);
+            ps.setLong(2, results.get(index).applicationId());
+            ps.setInt(3, results.get(index).offerVersion());
+        });
+        int[][] counts = jdbcTemplate.batchUpdate(UPDATE_SCORES_SQL, accepted, accepted.size(), (ps, index) -> {
+            IAResult result = results.get(index);
+            IAScoringResultDTO scoring = result.scoring();
+            int score = scoring.getScoreGlobal().intValue();
+            int competences = scoring.getMatchingCompetences().intValue();
+            int experience = scoring.getMatchingExperience().intValue();
+            int diploma = scoring.getMatchingDiploma().intValue();
+            ps.setInt(1, score);
+            ps.setInt(2, competences);
+            ps.setInt(3, experience);
+            ps.setInt(4, diploma);
+            ps.setString(5, scoring.getJustification());
+            ps.setInt(6, result.offerVersion());
+            ps.setTimestamp(7, now);
+            ps.setLong(8, result.applicationId());
+            ps.setInt(9, result.offerVersion());
+            ps.setInt(10, score);
+            ps.setInt(11, competences);
+            ps.setInt(12, experience);
+            ps.setInt(13, diploma);
+            ps.setInt(14, result.offerVersion());
+        });
+        markApplied(applied, accepted, counts[0]);
+
+        // 3. Événements AI_SCORED (journal d'activité, caches du tableau de bord) pour les candidatures modifiées
+        List<Long> updatedIds = new ArrayList<>();
+        for (int index : accepted) {
+            if (applied[index]) {
+                updatedIds.add(results.get(index).applicationId());
+            }
+        }
+        if (!updatedIds.isEmpty()) {
+            for (Object[] row : applicationRepository.findActivityRows(updatedIds)) {
+                eventPublisher.publishEvent(new ApplicationActivityEvent(
+                        ActivityType.AI_SCORED,
+                        (Long) row[6],
+                        (Long) row[4],
+                        (Long) row[0],
+                        row[1] + " " + row[2],
+                        (String) row[5],
+                        (ApplicationStatus) row[3],
+                        now.toLocalDateTime()));
+            }
+        }
+        log.info(" Lot de {} résultat(s) IA écrit : {} candidature(s) mise(s) à jour",
+                results.size(), updatedIds.size());
+        return applied;
+    }
+
+    // SUCCESS_NO_INFO (réécriture des lots par le driver) : la ligne est considérée comme modifiée
+    private void markApplied(boolean[] applied, List<Integer> indexes, int[] counts) {
+        for (int i = 0; i < indexes.size(); i++) {
+            applied[indexes.get(i)] = counts[i] > 0 || counts[i] == Statement.SUCCESS_NO_INFO;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        flusher.interrupt();
+        flusher.join(TimeUnit.SECONDS.toMillis(5));
+        List<PendingResult> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        if (!remaining.isEmpty()) {
+            flush(remaining);
+        }
+    }
+
+    /**
+     * Résultat IA à enregistrer.
+     * jobId / attempt : job de la file de scoring (null pour un résultat reçu par webhook ou repris du cache) ;
+     * offerVersion : version de l'offre envoyée au service IA, toujours connue (garde de version).
+     */
+    public record IAResult(Long applicationId, Long jobId, Integer attempt, int offerVersion,
+                           IAScoringResultDTO scoring) {
+
+        /**
+         * Candidature et les quatre scores renseignés (colonnes écrites par le lot)
+         */
+        public boolean isComplete() {
+            return applicationId != null && scoring != null && scoring.getScoreGlobal() != null
+                    && scoring.getMatchingCompetences() != null && scoring.getMatchingExperience() != null
+                    && scoring.getMatchingDiploma() != null;
+        }
+    }
+
+    private record ResultKey(Long applicationId, Long jobId, Integer attempt) {
+    }
+
+    private record PendingResult(IAResult result, CompletableFuture<Boolean> applied) {
+    }
+}
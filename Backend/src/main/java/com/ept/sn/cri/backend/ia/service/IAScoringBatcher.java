@@ -0,0 +1,204 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.exception.IAServiceUnavailableException;
+import com.ept.sn.cri.backend.ia.dto.ScoreBatchRequestDTO;
+import com.ept.sn.cri.backend.ia.dto.ScoreBatchResponseDTO;
+import com.ept.sn.cri.backend.ia.dto.ScoreCVRequestDTO;
+import com.ept.sn.cri.backend.ia.dto.ScoreCVResponseDTO;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Regroupement des scorings à partir d'un profil déjà parsé.
+ * Les requêtes sont accumulées puis envoyées en un seul appel à /api/ia/score-batch,
+ * dès que le lot atteint sa taille maximale ou que la plus ancienne attend depuis max-wait.
+ * Un lot occupe une seule place de {@link IAClientGuard}.
+ */
+@Component
+@Slf4j
+public class IAScoringBatcher {
+
+    private final RestTemplate iaRestTemplate;
+    private final IAClientGuard iaClientGuard;
+    private final String batchUrl;
+    private final int maxSize;
+    private final long maxWaitMillis;
+
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("ia-batch-timer").daemon().factory());
+    private final ExecutorService sender = Executors.newThreadPerTaskExecutor(
+            Thread.ofVirtual().name("ia-batch-", 0).factory());
+    private final DistributionSummary batchSize;
+
+    private List<PendingScoring> pending = new ArrayList<>();
+    // Numéro du lot en cours : un délai expiré ne doit pas envoyer le lot suivant
+    private long generation;
+
+    public IAScoringBatcher(RestTemplate iaRestTemplate,
+                            IAClientGuard iaClientGuard,
+                            MeterRegistry meterRegistry,
+                            @Value("${ia.service.url}") String iaServiceUrl,
+                            @Value("${ia.batch.max-size:16}") int maxSize,
+                            @Value("${ia.batch.max-wait:200ms}") Duration maxWait) {
+        this.iaRestTemplate = iaRestTemplate;
+        this.iaClientGuard = iaClientGuard;
+        this.batchUrl = iaServiceUrl + "/api/ia/score-batch";
+        this.maxSize = Math.max(1, maxSize);
+        this.maxWaitMillis = maxWait.toMillis();
+        this.batchSize = DistributionSummary.builder("ia.batch.size").register(meterRegistry);
+    }
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * Ajouter un scoring au lot en cours ; le résultat est disponible quand le lot a été traité
+     */
+    public CompletableFuture<ScoreCVResponseDTO> submit(ScoreCVRequestDTO request) {
+        PendingScoring scoring = new PendingScoring(request, new CompletableFuture<>());
+        List<PendingScoring> ready = null;
+        synchronized (this) {
+            pending.add(scoring);
+            if (pending.size() >= maxSize) {
+                ready = drain();
+            } else if (pending.size() == 1) {
+                long batch = generation;
+                timer.schedule(() -> flushExpired(batch), maxWaitMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+        if (ready != null) {
+            dispatch(ready);
+        }
+        return scoring.result();
+    }
+
+    private void flushExpired(long batch) {
+        List<PendingScoring> ready;
+        synchronized (this) {
+            if (batch != generation || pending.isEmpty()) {
+                return;
+            }
+            ready = drain();
+        }
+        dispatch(ready);
+    }
+
+    // Appelé sous verrou
+    private List<PendingScoring> drain() {
+        List<PendingScoring> ready = pending;
+        pending = new ArrayList<>();
+        generation++;
+        return ready;
+    }
+
+    private void dispatch(List<PendingScoring> batch) {
+        try {
+            sender.execute(() -> send(batch));
+        } catch (RuntimeException e) {
+            failAll(batch, new IAServiceUnavailableException("Envoi des lots de scoring arrêté"));
+        }
+    }
+
+    private void send(List<PendingScoring> batch) {
+        if (!iaClientGuard.tryAcquire()) {
+            failAll(batch, new IAServiceUnavailableException("Service IA saturé ou indisponible"));
+            return;
+        }
+        batchSize.record(batch.size());
+        log.info(" Envoi d'un lot de {} scorings au service IA", batch.size());
+
+        long start = System.nanoTime();
+        ScoreBatchResponseDTO response;
+        try {
+            response = callBatchService(batch);
+        } catch (RuntimeException e) {
+            iaClientGuard.onFailure(e);
+            failAll(batch, e);
+            return;
+        }
+        iaClientGuard.onSuccess(System.nanoTime() - start);
+
+        // Redistribuer chaque résultat à la candidature qui l'attend
+        Map<Long, ScoreCVResponseDTO> results = new HashMap<>();
+        for (ScoreCVResponseDTO result : response.getResults()) {
+            results.putIfAbsent(result.getApplicationId(), result);
+        }
+        for (PendingScoring scoring : batch) {
+            ScoreCVResponseDTO result = results.get(scoring.request().getApplicationId());
+            if (result != null) {
+                scoring.result().complete(result);
+            } else {
+                scoring.result().completeExceptionally(new RuntimeException(
+                        "Résultat absent du lot pour la candidature " + scoring.request().getApplicationId()));
+            }
+        }
+    }
+
+    private ScoreBatchResponseDTO callBatchService(List<PendingScoring> batch) {
+        ScoreBatchRequestDTO request = ScoreBatchRequestDTO.builder()
+                .requests(batch.stream().map(PendingScoring::request).toList())
+                .build();
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+
+        try {
+            ResponseEntity<ScoreBatchResponseDTO> response = iaRestTemplate.exchange(
+                    batchUrl,
+                    HttpMethod.POST,
+                    new HttpEntity<>(request, headers),
+                    ScoreBatchResponseDTO.class
+            );
+
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null
+                    && response.getBody().getResults() != null) {
+                return response.getBody();
+            } else {
+                throw new RuntimeException("Réponse invalide du service IA: " + response.getStatusCode());
+            }
+
+        } catch (Exception e) {
+            log.error("Erreur lors de l'appel au service IA: {}", e.getMessage());
+            throw new RuntimeException("Erreur de communication avec le service IA: " + e.getMessage(), e);
+        }
+    }
+
+    private void failAll(List<PendingScoring> batch, RuntimeException error) {
+        batch.forEach(scoring -> scoring.result().completeExceptionally(error));
+    }
+
+    @PreDestroy
+    void shutdown() {
+        timer.shutdownNow();
+        sender.shutdown();
+        // Lots jamais envoyés : les jobs correspondants seront repris à l'expiration de leur réservation
+        synchronized (this) {
+            failAll(drain(), new IAServiceUnavailableException("Arrêt du service"));
+        }
+    }
+
+    private record PendingScoring(ScoreCVRequestDTO request, CompletableFuture<ScoreCVResponseDTO> result) {
+    }
+}
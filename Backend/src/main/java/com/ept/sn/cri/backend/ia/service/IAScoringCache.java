@@ -0,0 +1,150 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.entity.IAScoringCacheEntry;
+import com.ept.sn.cri.backend.ia.dto.IAJobOfferDTO;
+import com.ept.sn.cri.backend.ia.dto.IAScoringResultDTO;
+import com.ept.sn.cri.backend.ia.repository.IAScoringCacheRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Cache des résultats de scoring IA, clé = SHA-256 du CV + empreinte du contenu de l'offre.
+ * La table ia_scoring_cache est la référence ; un niveau mémoire borné (LRU + TTL)
+ * évite l'aller-retour en base pour les CVs les plus récents.
+ */
+@Component
+@Slf4j
+public class IAScoringCache {
+
+    private final IAScoringCacheRepository cacheRepository;
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final String scoringVersion;
+    private final Map<String, MemoryEntry> memory;
+
+    private final Counter memoryHits;
+    private final Counter databaseHits;
+    private final Counter misses;
+
+    public IAScoringCache(IAScoringCacheRepository cacheRepository,
+                          MeterRegistry meterRegistry,
+                          @Value("${ia.cache.max-entries:1000}") int maxEntries,
+                          @Value("${ia.cache.ttl:6h}") Duration ttl,
+                          @Value("${ia.cache.scoring-version:1}") String scoringVersion) {
+        this.cacheRepository = cacheRepository;
+        this.maxEntries = maxEntries;
+        this.ttlNanos = ttl.toNanos();
+        this.scoringVersion = scoringVersion;
+        // Ordre d'accès : l'entrée la moins récemment lue est évincée en premier
+        this.memory = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, MemoryEntry> eldest) {
+                return size() > IAScoringCache.this.maxEntries;
+            }
+        };
+        this.memoryHits = Counter.builder("ia.cache.requests").tag("result", "memory").register(meterRegistry);
+        this.databaseHits = Counter.builder("ia.cache.requests").tag("result", "database").register(meterRegistry);
+        this.misses = Counter.builder("ia.cache.requests").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * Résultat déjà calculé pour ce CV et cette offre
+     */
+    public Optional<IAScoringResultDTO> get(String cvHash, String offerHash) {
+        String key = cvHash + ":" + offerHash;
+
+        synchronized (memory) {
+            MemoryEntry entry = memory.get(key);
+            if (entry != null && System.nanoTime() - entry.storedAt() < ttlNanos) {
+                memoryHits.increment();
+                return Optional.of(entry.result());
+            }
+            memory.remove(key);
+        }
+
+        Optional<IAScoringResultDTO> stored = cacheRepository.findByCvHashAndOfferHash(cvHash, offerHash)
+                .map(this::toResult);
+        if (stored.isPresent()) {
+            databaseHits.increment();
+            remember(key, stored.get());
+        } else {
+            misses.increment();
+        }
+        return stored;
+    }
+
+    /**
+     * Enregistrer le résultat d'un scoring
+     */
+    public void put(String cvHash, String offerHash, IAScoringResultDTO result) {
+        // Même CV scoré en parallèle par un autre worker : le premier résultat est conservé
+        int inserted = cacheRepository.insertIfAbsent(cvHash, offerHash, result.getScoreGlobal(),
+                result.getMatchingCompetences(), result.getMatchingExperience(), result.getMatchingDiploma(),
+                truncate(result.getJustification()), LocalDateTime.now());
+        if (inserted == 0) {
+            log.debug("Résultat IA déjà en cache pour {}:{}", cvHash, offerHash);
+        }
+        remember(cvHash + ":" + offerHash, result);
+    }
+
+    /**
+     * Empreinte du contenu de l'offre envoyé au service IA (sans son identifiant,
+     * pour que deux offres identiques partagent leurs résultats)
+     */
+    public String offerHash(IAJobOfferDTO offer) {
+        String canonical = String.join("\u001F",
+                "v" + scoringVersion,
+                String.valueOf(offer.getJobTitle()),
+                String.valueOf(offer.getJobType()),
+                String.valueOf(offer.getContractType()),
+                String.valueOf(offer.getDescription()),
+                offer.getRequiredSkills() != null ? String.join(",", offer.getRequiredSkills()) : "",
+                String.valueOf(offer.getEducationLevel()),
+                String.valueOf(offer.getMinExperience()));
+        return sha256(canonical.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private void remember(String key, IAScoringResultDTO result) {
+        synchronized (memory) {
+            memory.put(key, new MemoryEntry(result, System.nanoTime()));
+        }
+    }
+
+    private IAScoringResultDTO toResult(IAScoringCacheEntry entry) {
+        return IAScoringResultDTO.builder()
+                .scoreGlobal(entry.getScoreGlobal())
+                .matchingCompetences(entry.getMatchingCompetences())
+                .matchingExperience(entry.getMatchingExperience())
+                .matchingDiploma(entry.getMatchingDiploma())
+                .justification(entry.getJustification())
+                .build();
+    }
+
+    private String truncate(String justification) {
+        return justification != null && justification.length() > 2000 ? justification.substring(0, 2000) : justification;
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record MemoryEntry(IAScoringResultDTO result, long storedAt) {
+    }
+}
@@ -1,144 +1,289 @@
 package com.ept.sn.cri.backend.ia.service;
 
 
+import com.ept.sn.cri.backend.candidat.service.CvStorageService;
 import com.ept.sn.cri.backend.entity.Application;
 import com.ept.sn.cri.backend.entity.JobOffer;
+import com.ept.sn.cri.backend.enums.IATransportMode;
+import com.ept.sn.cri.backend.enums.ProcessingStatus;
+import com.ept.sn.cri.backend.exception.FileStorageException;
+import com.ept.sn.cri.backend.exception.IAServiceUnavailableException;
 import com.ept.sn.cri.backend.exception.ResourceNotFoundException;
 import com.ept.sn.cri.backend.ia.dto.IAJobOfferDTO;
 import com.ept.sn.cri.backend.ia.dto.IAScoringResultDTO;
+import com.ept.sn.cri.backend.ia.dto.ProcessCVMetadataDTO;
 import com.ept.sn.cri.backend.ia.dto.ProcessCVRequestDTO;
 import com.ept.sn.cri.backend.ia.dto.ProcessCVResponseDTO;
+import com.ept.sn.cri.backend.ia.dto.ProcessCVTextRequestDTO;
+import com.ept.sn.cri.backend.ia.dto.ScoreCVRequestDTO;
+import com.ept.sn.cri.backend.ia.dto.ScoreCVResponseDTO;
 import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.FileSystemResource;
 import org.springframework.http.*;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
-import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
 import org.springframework.web.client.RestTemplate;
-import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.Base64;
 import java.util.List;
-import java.util.concurrent.CompletableFuture;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class IAService {
 
-    private final RestTemplate restTemplate;
+    private final RestTemplate iaRestTemplate;
     private final ApplicationRepository applicationRepository;
+    private final CvStorageService cvStorageService;
+    private final TransactionTemplate transactionTemplate;
+    private final IAClientGuard iaClientGuard;
+    private final IAScoringCache iaScoringCache;
+    private final CandidateCvProfileService cvProfileService;
+    private final IAScoringBatcher iaScoringBatcher;
+    private final IAResultIngestionService resultIngestionService;
+    private final ScoringJobService scoringJobService;
+    private final CvTextService cvTextService;
 
 
     @Value("${ia.service.url}")
     private String iaServiceUrl;
 
-    @Value("${ia.service.timeout:30000}")
-    private int iaServiceTimeout;
+    @Value("${ia.service.transport:JSON}")
+    private IATransportMode transportMode;
 
-    @Value("${server.url}")
-    private String serverUrl;
+    /**
+     * Traite le CV d'une candidature (Parsing + Scoring) et enregistre les scores.
+     * Appelé par le worker de la file de scoring : le job est terminé avec l'écriture du résultat ;
+     * toute exception fait échouer la tentative, sauf {@link IAServiceUnavailableException}
+     * (appel non tenté, le job est remis en file).
+     */
+    public void scoreApplication(ScoringJobService.ClaimedJob job) {
+        score(job, false);
+    }
 
     /**
-     * Traite un CV de manière asynchrone (Parsing + Scoring)
-     * Envoie le résultat via webhook une fois terminé
+     * Nouveau scoring après modification de l'offre : ignoré si la candidature
+     * a déjà été scorée pour la version courante de l'offre
      */
-    @Async("taskExecutor")
-    public CompletableFuture<Void> processCVAsync(
-            Long applicationId,
-            MultipartFile cvFile,
-            JobOffer jobOffer
-    ) {
-        log.info(" Début du traitement asynchrone du CV pour candidature {}", applicationId);
+    public void rescoreApplication(ScoringJobService.ClaimedJob job) {
+        score(job, true);
+    }
 
-        try {
-            // Encoder le CV en Base64
-            String cvBase64 = encodeFileToBase64(cvFile);
-
-            // Préparer les données de l'offre d'emploi
-            IAJobOfferDTO jobOfferDTO = mapToIAJobOfferDTO(jobOffer);
-
-            // Préparer la requête
-            ProcessCVRequestDTO request = ProcessCVRequestDTO.builder()
-                    .applicationId(applicationId)
-                    .cvBase64(cvBase64)
-                    .filename(cvFile.getOriginalFilename())
-                    .jobOffer(jobOfferDTO)
-                    .callbackUrl(serverUrl + "/api/v1/webhook/ia-result")
-                    .build();
-
-            // Appeler l'API IA
-            log.info(" Envoi de la requête au service IA pour candidature {}", applicationId);
-            ProcessCVResponseDTO response = callIAService(request);
-
-            if (response.getSuccess()) {
-                log.info(" Traitement IA réussi pour candidature {} - Score: {}",
-                        applicationId, response.getScoringResult().getScoreGlobal());
-
-                // Sauvegarder les résultats
-                saveIAResults(applicationId, response);
-            } else {
-                log.error(" Échec du traitement IA pour candidature {}: {}",
-                        applicationId, response.getErrorMessage());
-            }
+    private void score(ScoringJobService.ClaimedJob job, boolean skipIfUpToDate) {
+        Long applicationId = job.applicationId();
+        log.info(" Début du traitement du CV pour candidature {}", applicationId);
 
-            return CompletableFuture.completedFuture(null);
+        // Préparer la requête à partir de la candidature et de son offre
+        ScoringInput input = transactionTemplate.execute(status -> loadScoringInput(applicationId, skipIfUpToDate));
+        if (input == null) {
+            log.info(" Candidature {} déjà scorée pour la version courante de l'offre", applicationId);
+            scoringJobService.markCompleted(job);
+            return;
+        }
 
-        } catch (Exception e) {
-            log.error(" Erreur lors du traitement asynchrone pour candidature {}", applicationId, e);
-            return CompletableFuture.failedFuture(e);
+        // Même CV déjà scoré pour une offre identique : pas d'appel au service IA
+        Optional<IAScoringResultDTO> cached = iaScoringCache.get(input.cvHash(), input.offerHash());
+        if (cached.isPresent()) {
+            log.info(" Scoring IA repris du cache pour candidature {}", applicationId);
+            saveIAResults(job, cached.get(), input.offerVersion());
+            return;
+        }
+
+        // CV déjà parsé pour ce candidat : seul le scoring contre l'offre est demandé, regroupé en lot
+        Optional<JsonNode> profile = cvProfileService.find(input.candidateId(), input.cvHash());
+        IAScoringResultDTO scoring;
+        JsonNode parsedData = null;
+        if (profile.isPresent()) {
+            scoring = scoreFromProfile(input, profile.get());
+        } else {
+            ProcessCVResponseDTO response = processCV(input);
+            scoring = response.getScoringResult();
+            parsedData = response.getParsedData();
+        }
+
+        log.info(" Traitement IA réussi pour candidature {} - Score: {}",
+                applicationId, scoring.getScoreGlobal());
+
+        // Sauvegarder les résultats, puis les garder pour les prochains envois du même CV
+        saveIAResults(job, scoring, input.offerVersion());
+        iaScoringCache.put(input.cvHash(), input.offerHash(), scoring);
+        if (parsedData != null) {
+            cvProfileService.save(input.candidateId(), input.cvHash(), parsedData);
         }
     }
 
     /**
-     * Sauvegarde les résultats de l'IA dans la base de données
+     * Parsing + scoring en un appel, si le disjoncteur et la limite de concurrence le permettent
      */
-    private void saveIAResults(Long applicationId, ProcessCVResponseDTO response) {
+    private ProcessCVResponseDTO processCV(ScoringInput input) {
+        // Mode TEXT : le texte est normalement extrait à l'upload ; sinon repli sur l'envoi du fichier.
+        // Résolu avant de réserver une place : l'attente du pool d'extraction n'occupe pas la fenêtre
+        // de concurrence et n'entre pas dans la latence mesurée par le disjoncteur
+        Optional<String> cvText = transportMode == IATransportMode.TEXT
+                ? cvTextService.extract(input.cvHash(), input.cvPath()).join()
+                : Optional.empty();
+
+        if (!iaClientGuard.tryAcquire()) {
+            throw new IAServiceUnavailableException("Service IA saturé ou indisponible");
+        }
+        log.info(" Envoi de la requête au service IA pour candidature {} ({})",
+                input.metadata().getApplicationId(), transportMode);
+        long start = System.nanoTime();
+        ProcessCVResponseDTO response;
         try {
-            Application application = applicationRepository.findById(applicationId)
-                    .orElseThrow(() -> new ResourceNotFoundException("Candidature non trouvée: " + applicationId));
-
-            // Sauvegarder les scores
-            IAScoringResultDTO scoring = response.getScoringResult();
-            if (scoring != null) {
-                application.setScoreIA(scoring.getScoreGlobal().intValue());
-                application.setMatchingCompetences(scoring.getMatchingCompetences().intValue());
-                application.setMatchingExperience(scoring.getMatchingExperience().intValue());
-                application.setMatchingDiploma(scoring.getMatchingDiploma().intValue());
-                application.setJustificationIA(scoring.getJustification());
-            }
+            response = callIAService(input, cvText);
+        } catch (RuntimeException e) {
+            iaClientGuard.onFailure(e);
+            throw e;
+        }
 
-            applicationRepository.save(application);
-            log.info(" Résultats IA sauvegardés pour candidature {}", applicationId);
+        if (!Boolean.TRUE.equals(response.getSuccess()) || response.getScoringResult() == null) {
+            // Échec propre à ce CV : le service a répondu, le disjoncteur n'en tient pas compte
+            RuntimeException error = new RuntimeException("Échec du traitement IA: " + response.getErrorMessage());
+            iaClientGuard.onFailure(error);
+            throw error;
+        }
+        iaClientGuard.onSuccess(System.nanoTime() - start);
+        return response;
+    }
 
-        } catch (Exception e) {
-            log.error(" Erreur lors de la sauvegarde des résultats IA pour candidature {}", applicationId, e);
+    /**
+     * Scoring seul à partir d'un profil déjà parsé, envoyé dans le prochain lot
+     */
+    private IAScoringResultDTO scoreFromProfile(ScoringInput input, JsonNode profile) {
+        ScoreCVRequestDTO request = ScoreCVRequestDTO.builder()
+                .applicationId(input.metadata().getApplicationId())
+                .parsedCvData(profile)
+                .jobOffer(input.metadata().getJobOffer())
+                .build();
+
+        ScoreCVResponseDTO response;
+        try {
+            response = iaScoringBatcher.submit(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
         }
+
+        if (!Boolean.TRUE.equals(response.getSuccess()) || response.getScoringResult() == null) {
+            throw new RuntimeException("Échec du scoring IA: " + response.getErrorMessage());
+        }
+        return response.getScoringResult();
     }
 
     /**
-     * Appel synchrone au service IA avec retry
+     * Appliquer un scoring déjà en cache à une candidature qui vient d'être créée.
+     * Le résultat passe par {@link IAResultIngestionService} une fois la transaction de l'appelant
+     * validée (la candidature n'est visible qu'après) ; d'ici là elle reste en file, et un résultat
+     * perdu (arrêt du nœud) est repris par le balayage des candidatures sans job actif.
+     * Retourne false si le scoring reste à faire.
      */
-    @Retryable(
-            value = {Exception.class},
-            maxAttempts = 3,
-            backoff = @Backoff(delay = 2000, multiplier = 2)
-    )
-    private ProcessCVResponseDTO callIAService(ProcessCVRequestDTO request) {
-        String url = iaServiceUrl + "/api/ia/process-cv";
+    public boolean applyCachedScoring(Application application) {
+        if (application.getCvHash() == null) {
+            return false;
+        }
+        String offerHash = iaScoringCache.offerHash(mapToIAJobOfferDTO(application.getJobOffer()));
+        Optional<IAScoringResultDTO> cached = iaScoringCache.get(application.getCvHash(), offerHash);
+        if (cached.isEmpty()) {
+            return false;
+        }
 
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_JSON);
+        application.setProcessingStatus(ProcessingStatus.PENDING);
+        application.setProcessingQueuedAt(LocalDateTime.now());
+        IAResultIngestionService.IAResult result = new IAResultIngestionService.IAResult(
+                application.getId(), null, null, application.getJobOffer().getScoringVersion(), cached.get());
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    resultIngestionService.ingest(result);
+                }
+            });
+        } else {
+            resultIngestionService.ingest(result);
+        }
+        return true;
+    }
+
+    private ScoringInput loadScoringInput(Long applicationId, boolean skipIfUpToDate) {
+        Application application = applicationRepository.findById(applicationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Candidature non trouvée: " + applicationId));
+        int offerVersion = application.getJobOffer().getScoringVersion();
+        if (skipIfUpToDate && Integer.valueOf(offerVersion).equals(application.getScoredOfferVersion())) {
+            return null;
+        }
+
+        Path cvPath = cvStorageService.resolve(application.getCvUrl());
+        if (!Files.isReadable(cvPath)) {
+            throw new FileStorageException("CV illisible: " + cvPath.getFileName());
+        }
+        // Candidatures antérieures au calcul de l'empreinte à l'upload
+        if (application.getCvHash() == null) {
+            application.setCvHash(cvStorageService.hash(cvPath));
+        }
 
-        HttpEntity<ProcessCVRequestDTO> entity = new HttpEntity<>(request, headers);
+        IAJobOfferDTO jobOffer = mapToIAJobOfferDTO(application.getJobOffer());
+        ProcessCVMetadataDTO metadata = ProcessCVMetadataDTO.builder()
+                .applicationId(applicationId)
+                .filename(cvPath.getFileName().toString())
+                .jobOffer(jobOffer)
+                .offerVersion(offerVersion)
+                .build();
+        return new ScoringInput(application.getCandidate().getId(), cvPath, metadata,
+                application.getCvHash(), iaScoringCache.offerHash(jobOffer), offerVersion);
+    }
+
+    /**
+     * Sauvegarde les résultats de l'IA (écriture par lot) et termine le job
+     * (offerVersion : version de l'offre envoyée au service IA)
+     */
+    private void saveIAResults(ScoringJobService.ClaimedJob job, IAScoringResultDTO scoring, int offerVersion) {
+        boolean applied = resultIngestionService.ingest(new IAResultIngestionService.IAResult(
+                job.applicationId(), job.jobId(), job.attempt(), offerVersion, scoring)).join();
+        if (applied) {
+            log.info(" Résultats IA sauvegardés pour candidature {}", job.applicationId());
+        } else {
+            log.warn(" Résultat IA non appliqué pour candidature {} (tentative {} reprise ou déjà à jour)",
+                    job.applicationId(), job.attempt());
+        }
+    }
+
+    /**
+     * Appel synchrone au service IA (les nouvelles tentatives sont gérées par la file de scoring)
+     */
+    private ProcessCVResponseDTO callIAService(ScoringInput input, Optional<String> cvText) {
+        HttpEntity<?> entity;
+        String url;
+        if (cvText.isPresent()) {
+            entity = textRequest(input, cvText.get());
+            url = iaServiceUrl + "/api/ia/process-cv-text";
+        } else if (transportMode == IATransportMode.JSON) {
+            entity = jsonRequest(input);
+            url = iaServiceUrl + "/api/ia/process-cv";
+        } else {
+            entity = multipartRequest(input);
+            url = iaServiceUrl + "/api/ia/process-cv-file";
+        }
 
         try {
-            ResponseEntity<ProcessCVResponseDTO> response = restTemplate.exchange(
+            ResponseEntity<ProcessCVResponseDTO> response = iaRestTemplate.exchange(
                     url,
                     HttpMethod.POST,
                     entity,
@@ -152,17 +297,71 @@ public class IAService {
             }
 
         } catch (Exception e) {
-            log.error("Erreur lors de l'appel au service IA", e);
+            log.error("Erreur lors de l'appel au service IA: {}", e.getMessage());
             throw new RuntimeException("Erreur de communication avec le service IA: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * Mode TEXT : seul le texte normalisé du CV est envoyé (quelques Ko au lieu du PDF)
+     */
+    private HttpEntity<ProcessCVTextRequestDTO> textRequest(ScoringInput input, String cvText) {
+        ProcessCVTextRequestDTO request = ProcessCVTextRequestDTO.builder()
+                .applicationId(input.metadata().getApplicationId())
+                .cvText(cvText)
+                .filename(input.metadata().getFilename())
+                .jobOffer(input.metadata().getJobOffer())
+                .offerVersion(input.offerVersion())
+                .build();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(request, headers);
+    }
+
+    /**
+     * Mode JSON : le CV est lu entièrement puis encodé en Base64 dans le corps
+     */
+    private HttpEntity<ProcessCVRequestDTO> jsonRequest(ScoringInput input) {
+        ProcessCVRequestDTO request = ProcessCVRequestDTO.builder()
+                .applicationId(input.metadata().getApplicationId())
+                .cvBase64(encodeFileToBase64(input.cvPath()))
+                .filename(input.metadata().getFilename())
+                .jobOffer(input.metadata().getJobOffer())
+                .offerVersion(input.offerVersion())
+                .build();
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(request, headers);
+    }
+
+    /**
+     * Mode multipart : le fichier est recopié depuis le disque par blocs pendant l'envoi
+     * (transfert chunked, aucun tableau d'octets du CV complet en mémoire)
+     */
+    private HttpEntity<MultiValueMap<String, Object>> multipartRequest(ScoringInput input) {
+        HttpHeaders metadataHeaders = new HttpHeaders();
+        metadataHeaders.setContentType(MediaType.APPLICATION_JSON);
+
+        MultiValueMap<String, Object> parts = new LinkedMultiValueMap<>();
+        parts.add("metadata", new HttpEntity<>(input.metadata(), metadataHeaders));
+        parts.add("cv", new FileSystemResource(input.cvPath()));
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.MULTIPART_FORM_DATA);
+        return new HttpEntity<>(parts, headers);
+    }
+
     /**
      * Encode un fichier en Base64
      */
-    private String encodeFileToBase64(MultipartFile file) throws IOException {
-        byte[] fileContent = file.getBytes();
-        return Base64.getEncoder().encodeToString(fileContent);
+    private String encodeFileToBase64(Path file) {
+        try {
+            return Base64.getEncoder().encodeToString(Files.readAllBytes(file));
+        } catch (IOException e) {
+            throw new FileStorageException("CV illisible: " + file.getFileName());
+        }
     }
 
     /**
@@ -194,7 +393,7 @@ public class IAService {
     public boolean checkIAServiceHealth() {
         try {
             String healthUrl = iaServiceUrl + "/health";
-            ResponseEntity<String> response = restTemplate.getForEntity(healthUrl, String.class);
+            ResponseEntity<String> response = iaRestTemplate.getForEntity(healthUrl, String.class);
             boolean isHealthy = response.getStatusCode() == HttpStatus.OK;
 
             if (isHealthy) {
@@ -205,11 +404,15 @@ public class IAService {
 
             return isHealthy;
         } catch (Exception e) {
-            log.error(" Service IA injoignable", e);
+            log.warn(" Service IA injoignable: {}", e.getMessage());
             return false;
         }
     }
 
-
-
+    /**
+     * Données lues en base avant l'appel au service IA
+     */
+    private record ScoringInput(Long candidateId, Path cvPath, ProcessCVMetadataDTO metadata,
+                                String cvHash, String offerHash, int offerVersion) {
+    }
 }
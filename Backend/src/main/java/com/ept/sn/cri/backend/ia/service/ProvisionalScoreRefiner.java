@@ -0,0 +1,81 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.ia.repository.ScoringJobRepository;
+import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Score provisoire affiné une fois le texte du CV extrait.
+ * La soumission n'attend pas l'extraction (elle tiendrait une connexion pendant PDFBox) :
+ * le score est recalculé après validation de la candidature, et la priorité du job en attente suit.
+ */
+@Component
+@Slf4j
+public class ProvisionalScoreRefiner {
+
+    private final ApplicationRepository applicationRepository;
+    private final ScoringJobRepository scoringJobRepository;
+    private final SkillPreScorer skillPreScorer;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ProvisionalScoreRefiner(ApplicationRepository applicationRepository,
+                                   ScoringJobRepository scoringJobRepository,
+                                   SkillPreScorer skillPreScorer,
+                                   TransactionTemplate transactionTemplate) {
+        this.applicationRepository = applicationRepository;
+        this.scoringJobRepository = scoringJobRepository;
+        this.skillPreScorer = skillPreScorer;
+        this.transactionTemplate = transactionTemplate;
+    }
+
+    /**
+     * Recalculer le score provisoire quand le texte sera disponible, après validation de la transaction en cours
+     */
+    public void refineAfterCommit(Long applicationId, CompletableFuture<Optional<String>> cvText) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            schedule(applicationId, cvText);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                schedule(applicationId, cvText);
+            }
+        });
+    }
+
+    // Hors du thread appelant : afterCommit s'exécute encore dans le contexte de la transaction terminée
+    private void schedule(Long applicationId, CompletableFuture<Optional<String>> cvText) {
+        cvText.thenAcceptAsync(text -> text.ifPresent(value -> refine(applicationId, value)), executor);
+    }
+
+    private void refine(Long applicationId, String cvText) {
+        try {
+            transactionTemplate.executeWithoutResult(status -> applicationRepository.findById(applicationId)
+                    .ifPresent(application -> {
+                        int score = skillPreScorer.score(application, cvText, null);
+                        applicationRepository.updateProvisionalScore(applicationId, score);
+                        scoringJobRepository.updatePendingPriority(applicationId, score);
+                        log.debug(" Score provisoire de la candidature {} recalculé depuis le CV : {}", applicationId, score);
+                    }));
+        } catch (RuntimeException e) {
+            log.warn(" Score provisoire de la candidature {} non recalculé : {}", applicationId, e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+}
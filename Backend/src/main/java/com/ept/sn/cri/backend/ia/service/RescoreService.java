@@ -0,0 +1,82 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.enums.ScoringJobStatus;
+import com.ept.sn.cri.backend.exception.UnauthorizedActionException;
+import com.ept.sn.cri.backend.entity.JobOffer;
+import com.ept.sn.cri.backend.ia.repository.ScoringJobRepository;
+import com.ept.sn.cri.backend.rh.dto.RescoreStatusDTO;
+import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import com.ept.sn.cri.backend.rh.repository.JobOfferRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Nouveau scoring des candidatures d'une offre dont les critères ont changé.
+ * Les jobs RESCORE passent par la file de scoring : la reprise après redémarrage est gratuite,
+ * et les candidatures déjà scorées pour la version courante de l'offre sont ignorées.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RescoreService {
+
+    private final ScoringJobService scoringJobService;
+    private final ScoringJobRepository scoringJobRepository;
+    private final ApplicationRepository applicationRepository;
+    private final JobOfferRepository jobOfferRepository;
+
+    /**
+     * Relancer le scoring des candidatures pas encore à jour (offre modifiée,
+     * ou reprise des candidatures dont le nouveau scoring a échoué)
+     */
+    @Transactional
+    public RescoreStatusDTO startRescore(Long offerId, Long rhId) {
+        JobOffer jobOffer = findOwnedOffer(offerId, rhId);
+        scoringJobService.enqueueRescore(jobOffer.getId());
+        return buildStatus(jobOffer);
+    }
+
+    /**
+     * Avancement du scoring pour la version courante de l'offre
+     */
+    @Transactional(readOnly = true)
+    public RescoreStatusDTO getStatus(Long offerId, Long rhId) {
+        return buildStatus(findOwnedOffer(offerId, rhId));
+    }
+
+    private JobOffer findOwnedOffer(Long offerId, Long rhId) {
+        return jobOfferRepository.findByIdAndCreatedById(offerId, rhId)
+                .orElseThrow(() -> new UnauthorizedActionException("Offre non trouvée ou vous n'avez pas les droits pour y accéder"));
+    }
+
+    private RescoreStatusDTO buildStatus(JobOffer jobOffer) {
+        Object[] progress = applicationRepository.countScoringProgress(jobOffer.getId()).get(0);
+        long total = ((Number) progress[0]).longValue();
+        long upToDate = ((Number) progress[1]).longValue();
+        long failed = ((Number) progress[2]).longValue();
+
+        long pending = 0;
+        long processing = 0;
+        for (Object[] row : scoringJobRepository.countActiveByJobOffer(jobOffer.getId())) {
+            if (row[0] == ScoringJobStatus.PENDING) {
+                pending = ((Number) row[1]).longValue();
+            } else if (row[0] == ScoringJobStatus.PROCESSING) {
+                processing = ((Number) row[1]).longValue();
+            }
+        }
+
+        return RescoreStatusDTO.builder()
+                .jobOfferId(jobOffer.getId())
+                .scoringVersion(jobOffer.getScoringVersion())
+                .totalApplications(total)
+                .upToDateCount(upToDate)
+                .pendingCount(pending)
+                .processingCount(processing)
+                .failedCount(failed)
+                .progressPercentage(total > 0 ? upToDate * 100.0 / total : 100.0)
+                .completed(upToDate == total)
+                .build();
+    }
+}
@@ -0,0 +1,278 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.entity.Application;
+import com.ept.sn.cri.backend.entity.ScoringJob;
+import com.ept.sn.cri.backend.enums.ProcessingStatus;
+import com.ept.sn.cri.backend.enums.ScoringJobStatus;
+import com.ept.sn.cri.backend.enums.ScoringJobType;
+import com.ept.sn.cri.backend.ia.repository.ScoringJobRepository;
+import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * File persistante des demandes de scoring IA.
+ * Un job est créé dans la transaction de la candidature, réservé par un nœud
+ * pour une durée limitée, puis terminé, replanifié avec un backoff exponentiel,
+ * ou mis en DEAD_LETTER une fois les tentatives épuisées.
+ */
+@Service
+@Slf4j
+public class ScoringJobService {
+
+    private static final int MAX_ERROR_LENGTH = 1000;
+    // Candidats lus par réservation : les premiers peuvent être pris par un autre nœud entre-temps
+    private static final int CLAIM_OVERFETCH = 4;
+    private static final String LEASE_EXPIRED = "Réservation expirée (nœud arrêté ou traitement trop long)";
+
+    private final ScoringJobRepository scoringJobRepository;
+    private final ApplicationRepository applicationRepository;
+    private final String nodeId;
+    private final int maxAttempts;
+    private final Duration initialBackoff;
+    private final Duration maxBackoff;
+    private final Duration lease;
+    private final int maxParallelRescores;
+    private final Duration urgencyBeforeDeadline;
+    private final Duration urgencyAfterDeadline;
+    private final int claimScan;
+
+    public ScoringJobService(ScoringJobRepository scoringJobRepository,
+                             ApplicationRepository applicationRepository,
+                             @Value("${ia.scoring.max-attempts:5}") int maxAttempts,
+                             @Value("${ia.scoring.initial-backoff:30s}") Duration initialBackoff,
+                             @Value("${ia.scoring.max-backoff:30m}") Duration maxBackoff,
+                             @Value("${ia.scoring.lease:5m}") Duration lease,
+                             @Value("${ia.rescore.max-parallel:8}") int maxParallelRescores,
+                             @Value("${ia.scoring.urgency-before-deadline:48h}") Duration urgencyBeforeDeadline,
+                             @Value("${ia.scoring.urgency-after-deadline:72h}") Duration urgencyAfterDeadline,
+                             @Value("${ia.scoring.claim-scan:500}") int claimScan) {
+        this.scoringJobRepository = scoringJobRepository;
+        this.applicationRepository = applicationRepository;
+        this.nodeId = ManagementFactory.getRuntimeMXBean().getName();
+        this.maxAttempts = maxAttempts;
+        this.initialBackoff = initialBackoff;
+        this.maxBackoff = maxBackoff;
+        this.lease = lease;
+        this.maxParallelRescores = maxParallelRescores;
+        this.urgencyBeforeDeadline = urgencyBeforeDeadline;
+        this.urgencyAfterDeadline = urgencyAfterDeadline;
+        this.claimScan = claimScan;
+    }
+
+    /**
+     * Mettre une candidature en file (dans la transaction de l'appelant)
+     */
+    @Transactional
+    public ScoringJob enqueue(Application application) {
+        application.setProcessingStatus(ProcessingStatus.PENDING);
+        application.setProcessingQueuedAt(LocalDateTime.now());
+        application.setProcessingError(null);
+
+        ScoringJob job = new ScoringJob();
+        job.setApplication(application);
+        job.setStatus(ScoringJobStatus.PENDING);
+        job.setPriority(application.getProvisionalScore() != null ? application.getProvisionalScore() : 0);
+        job.setAttempts(0);
+        job.setNextAttemptAt(LocalDateTime.now());
+        return scoringJobRepository.save(job);
+    }
+
+    /**
+     * Mettre en file un nouveau scoring des candidatures de l'offre qui ne sont pas
+     * à jour de sa version de scoring (dans la transaction de l'appelant)
+     */
+    @Transactional
+    public int enqueueRescore(Long jobOfferId) {
+        LocalDateTime now = LocalDateTime.now();
+        int enqueued = scoringJobRepository.enqueueRescore(jobOfferId, now);
+        applicationRepository.markRescoreQueued(jobOfferId, now);
+        log.info(" {} candidature(s) de l'offre {} mises en file pour un nouveau scoring", enqueued, jobOfferId);
+        return enqueued;
+    }
+
+    /**
+     * Réserver au plus {@code limit} jobs pour ce nœud.
+     * Les lignes déjà verrouillées par un autre nœud sont ignorées (SKIP LOCKED).
+     * Les nouvelles candidatures passent d'abord ; les jobs RESCORE complètent
+     * dans la limite de ia.rescore.max-parallel en cours sur l'ensemble des nœuds.
+     * Dans chaque type : offres en urgence RH, puis offres dont la date limite est proche
+     * (ou vient de passer : le RH attend les scores), chaque offre servie à tour de rôle.
+     */
+    @Transactional
+    public List<ClaimedJob> claim(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> ids = new ArrayList<>(lockNext(now, ScoringJobType.SUBMISSION, limit));
+
+        int rescoreSlots = Math.min(limit - ids.size(),
+                maxParallelRescores - (int) scoringJobRepository.countProcessing(ScoringJobType.RESCORE, now));
+        if (rescoreSlots > 0) {
+            ids.addAll(lockNext(now, ScoringJobType.RESCORE, rescoreSlots));
+        }
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        scoringJobRepository.markProcessing(ids, nodeId, now.plus(lease), now);
+        applicationRepository.markScoringStarted(ids, now);
+
+        // Conserver l'ordre de réservation pour le démarrage des workers
+        Map<Long, Integer> positions = new HashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            positions.put(ids.get(i), i);
+        }
+        return scoringJobRepository.findClaimedRows(ids).stream()
+                .map(row -> new ClaimedJob((Long) row[0], (Long) row[1], ((Number) row[2]).intValue(),
+                        (ScoringJobType) row[3]))
+                .sorted(Comparator.comparingInt(job -> positions.get(job.jobId())))
+                .toList();
+    }
+
+    // Choisir plus de candidats que nécessaire puis les verrouiller : des nœuds concurrents lisent
+    // le même classement, ceux déjà pris sont ignorés et la réservation garde les premiers restants
+    private List<Long> lockNext(LocalDateTime now, ScoringJobType type, int limit) {
+        int fetch = limit * CLAIM_OVERFETCH;
+        List<Long> candidates = scoringJobRepository.findNextJobIds(now,
+                now.minus(urgencyAfterDeadline), now.plus(urgencyBeforeDeadline), type.name(),
+                Math.max(claimScan, fetch), fetch);
+        if (candidates.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> locked = new HashSet<>(scoringJobRepository.lockJobIds(candidates, now));
+        return candidates.stream().filter(locked::contains).limit(limit).toList();
+    }
+
+    /**
+     * Terminer un job réussi.
+     * Comme pour les méthodes suivantes, rien n'est modifié si la tentative n'est plus celle en cours
+     * (réservation expirée puis reprise par un autre nœud).
+     */
+    @Transactional
+    public void markCompleted(ClaimedJob job) {
+        LocalDateTime now = LocalDateTime.now();
+        if (finish(job, ScoringJobStatus.COMPLETED, now, null, now)) {
+            applicationRepository.markScoringFinished(job.applicationId(), ProcessingStatus.COMPLETED, null, now);
+        }
+    }
+
+    /**
+     * Replanifier un job en échec, ou l'abandonner si les tentatives sont épuisées
+     */
+    @Transactional
+    public void markFailed(ClaimedJob job, String error) {
+        LocalDateTime now = LocalDateTime.now();
+        String lastError = truncate(error);
+
+        if (job.attempt() >= maxAttempts) {
+            if (finish(job, ScoringJobStatus.DEAD_LETTER, now, lastError, now)) {
+                applicationRepository.markScoringFinished(job.applicationId(), ProcessingStatus.FAILED, lastError, now);
+                log.error(" Scoring IA abandonné pour candidature {} après {} tentative(s): {}",
+                        job.applicationId(), job.attempt(), error);
+            }
+        } else {
+            Duration delay = backoffFor(job.attempt());
+            if (finish(job, ScoringJobStatus.PENDING, now.plus(delay), lastError, now)) {
+                applicationRepository.markScoringFinished(job.applicationId(), ProcessingStatus.PENDING, lastError, now);
+                log.warn(" Scoring IA en échec pour candidature {} (tentative {}/{}), nouvel essai dans {}s",
+                        job.applicationId(), job.attempt(), maxAttempts, delay.toSeconds());
+            }
+        }
+    }
+
+    /**
+     * Remettre en file un job réservé mais non tenté (service IA indisponible) :
+     * la tentative n'est pas comptée
+     */
+    @Transactional
+    public void release(ClaimedJob job, Duration delay) {
+        LocalDateTime now = LocalDateTime.now();
+        if (scoringJobRepository.releaseAttempt(job.jobId(), job.attempt(), now.plus(delay), now) > 0) {
+            applicationRepository.markScoringReleased(job.applicationId());
+        } else {
+            log.warn(" Job {} (tentative {}) déjà repris par un autre nœud, remise en file ignorée",
+                    job.jobId(), job.attempt());
+        }
+    }
+
+    private boolean finish(ClaimedJob job, ScoringJobStatus status, LocalDateTime nextAttemptAt,
+                           String error, LocalDateTime now) {
+        if (scoringJobRepository.finishAttempt(job.jobId(), job.attempt(), status, nextAttemptAt, error, now) > 0) {
+            return true;
+        }
+        log.warn(" Job {} (tentative {}) déjà repris par un autre nœud, passage à {} ignoré",
+                job.jobId(), job.attempt(), status);
+        return false;
+    }
+
+    /**
+     * Remettre en file les jobs dont la réservation a expiré (nœud arrêté pendant le traitement),
+     * ou les abandonner si leurs tentatives sont épuisées
+     */
+    @Transactional
+    public int requeueExpiredLeases() {
+        LocalDateTime now = LocalDateTime.now();
+        // Candidatures d'abord : les jobs concernés ne sont plus identifiables une fois mis à jour
+        applicationRepository.markExpiredLeases(ProcessingStatus.FAILED, LEASE_EXPIRED, now, maxAttempts, Integer.MAX_VALUE);
+        applicationRepository.markExpiredLeases(ProcessingStatus.PENDING, LEASE_EXPIRED, now, 0, maxAttempts);
+
+        int abandoned = scoringJobRepository.deadLetterExpiredLeases(now, maxAttempts, LEASE_EXPIRED);
+        int requeued = scoringJobRepository.requeueExpiredLeases(now, LEASE_EXPIRED);
+        if (abandoned + requeued > 0) {
+            log.warn(" Réservations expirées : {} job(s) remis en file, {} abandonné(s)", requeued, abandoned);
+        }
+        return abandoned + requeued;
+    }
+
+    /**
+     * Recréer un job pour les candidatures en file ou en cours depuis plus d'une durée de réservation
+     * sans job actif (job perdu). Les candidatures sont verrouillées (SKIP LOCKED) et le job n'est inséré
+     * qu'en l'absence de job actif : deux nœuds qui balaient en même temps ne créent pas de doublon.
+     */
+    @Transactional
+    public int recoverLostApplications() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> applicationIds = applicationRepository.lockStuckApplicationIds(now.minus(lease));
+        if (applicationIds.isEmpty()) {
+            return 0;
+        }
+        int recovered = scoringJobRepository.enqueueRecovered(applicationIds, now);
+        applicationRepository.markRecoveryQueued(applicationIds, now);
+        if (recovered > 0) {
+            log.warn(" {} candidature(s) sans job de scoring actif remises en file", recovered);
+        }
+        return recovered;
+    }
+
+    // initialBackoff * 2^(tentative - 1), plafonné à maxBackoff
+    private Duration backoffFor(int attempts) {
+        int exponent = Math.min(Math.max(attempts - 1, 0), 20);
+        Duration delay = initialBackoff.multipliedBy(1L << exponent);
+        return delay.compareTo(maxBackoff) > 0 ? maxBackoff : delay;
+    }
+
+    private String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error;
+    }
+
+    /**
+     * Job réservé par ce nœud
+     */
+    public record ClaimedJob(Long jobId, Long applicationId, int attempt, ScoringJobType type) {
+    }
+}
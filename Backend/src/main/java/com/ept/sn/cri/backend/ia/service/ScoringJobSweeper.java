@@ -0,0 +1,22 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reprend les jobs de scoring bloqués : réservations expirées, puis candidatures restées
+ * en file ou en cours sans job actif
+ */
+@Component
+@RequiredArgsConstructor
+public class ScoringJobSweeper {
+
+    private final ScoringJobService scoringJobService;
+
+    @Scheduled(fixedDelayString = "${ia.scoring.sweep-interval:1m}")
+    public void sweep() {
+        scoringJobService.requeueExpiredLeases();
+        scoringJobService.recoverLostApplications();
+    }
+}
@@ -0,0 +1,94 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.enums.ScoringJobType;
+import com.ept.sn.cri.backend.exception.IAServiceUnavailableException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Consommateur de la file de scoring.
+ * Chaque nœud réserve au plus autant de jobs qu'il a de workers libres,
+ * ce qui laisse les autres jobs disponibles pour les autres nœuds.
+ */
+@Component
+@Slf4j
+public class ScoringJobWorker {
+
+    // Délai avant de reproposer un job non tenté faute de place côté service IA
+    private static final Duration RELEASE_DELAY = Duration.ofSeconds(5);
+
+    private final ScoringJobService scoringJobService;
+    private final IAService iaService;
+    private final IAClientGuard iaClientGuard;
+    private final IAScoringBatcher iaScoringBatcher;
+    private final Executor scoringExecutor;
+    private final Semaphore freeWorkers;
+
+    public ScoringJobWorker(ScoringJobService scoringJobService,
+                            IAService iaService,
+                            IAClientGuard iaClientGuard,
+                            IAScoringBatcher iaScoringBatcher,
+                            @Qualifier("scoringExecutor") Executor scoringExecutor,
+                            @Value("${ia.scoring.workers:4}") int workers) {
+        this.scoringJobService = scoringJobService;
+        this.iaService = iaService;
+        this.iaClientGuard = iaClientGuard;
+        this.iaScoringBatcher = iaScoringBatcher;
+        this.scoringExecutor = scoringExecutor;
+        this.freeWorkers = new Semaphore(workers);
+    }
+
+    @Scheduled(fixedDelayString = "${ia.scoring.poll-interval:2s}")
+    public void poll() {
+        // Disjoncteur ouvert ou limite de concurrence atteinte : les jobs restent en file.
+        // Les scorings depuis un profil partagent un appel par lot : une place du garde peut en servir plusieurs
+        // (les jobs à parser en trop sont remis en file sans consommer de tentative).
+        int available = (int) Math.min(freeWorkers.availablePermits(),
+                (long) iaClientGuard.availablePermits() * iaScoringBatcher.getMaxSize());
+        if (available == 0) {
+            return;
+        }
+
+        List<ScoringJobService.ClaimedJob> jobs = scoringJobService.claim(available);
+        for (ScoringJobService.ClaimedJob job : jobs) {
+            freeWorkers.acquireUninterruptibly();
+            try {
+                scoringExecutor.execute(() -> {
+                    try {
+                        process(job);
+                    } finally {
+                        freeWorkers.release();
+                    }
+                });
+            } catch (RuntimeException e) {
+                // Exécuteur arrêté : la réservation expirera et le job sera repris
+                freeWorkers.release();
+                log.warn(" Job de scoring {} non démarré: {}", job.jobId(), e.getMessage());
+            }
+        }
+    }
+
+    private void process(ScoringJobService.ClaimedJob job) {
+        log.info(" Scoring IA de la candidature {} (tentative {}, {})", job.applicationId(), job.attempt(), job.type());
+        try {
+            // Le job est terminé par IAService, dans la transaction qui écrit le résultat
+            if (job.type() == ScoringJobType.RESCORE) {
+                iaService.rescoreApplication(job);
+            } else {
+                iaService.scoreApplication(job);
+            }
+        } catch (IAServiceUnavailableException e) {
+            scoringJobService.release(job, RELEASE_DELAY);
+        } catch (Exception e) {
+            scoringJobService.markFailed(job, e.getMessage());
+        }
+    }
+}
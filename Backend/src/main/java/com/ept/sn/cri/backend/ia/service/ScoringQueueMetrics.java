@@ -0,0 +1,72 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.enums.ScoringJobStatus;
+import com.ept.sn.cri.backend.enums.ScoringJobType;
+import com.ept.sn.cri.backend.ia.repository.ScoringJobRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Métriques de la file de scoring : profondeur par type, jobs en cours,
+ * âge du plus ancien job en attente et débit sur la dernière minute.
+ * Les valeurs sont relues périodiquement, pas à chaque lecture des jauges.
+ */
+@Component
+@Slf4j
+public class ScoringQueueMetrics {
+
+    private final ScoringJobRepository scoringJobRepository;
+    private final Map<ScoringJobType, AtomicLong> depth = new EnumMap<>(ScoringJobType.class);
+    private final AtomicLong processing = new AtomicLong();
+    private final AtomicLong oldestPendingAgeSeconds = new AtomicLong();
+    private final AtomicLong completedLastMinute = new AtomicLong();
+
+    public ScoringQueueMetrics(ScoringJobRepository scoringJobRepository, MeterRegistry meterRegistry) {
+        this.scoringJobRepository = scoringJobRepository;
+
+        for (ScoringJobType type : ScoringJobType.values()) {
+            AtomicLong value = new AtomicLong();
+            depth.put(type, value);
+            Gauge.builder("ia.scoring.queue.depth", value, AtomicLong::get)
+                    .tag("type", type.name())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ia.scoring.queue.processing", processing, AtomicLong::get).register(meterRegistry);
+        Gauge.builder("ia.scoring.queue.oldest-pending-age", oldestPendingAgeSeconds, AtomicLong::get)
+                .baseUnit("seconds")
+                .register(meterRegistry);
+        Gauge.builder("ia.scoring.throughput", completedLastMinute, AtomicLong::get)
+                .baseUnit("jobs/min")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${ia.scoring.metrics-interval:15s}")
+    public void refresh() {
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            depth.values().forEach(value -> value.set(0));
+            LocalDateTime oldest = null;
+            for (Object[] row : scoringJobRepository.findPendingStats()) {
+                depth.get((ScoringJobType) row[0]).set((Long) row[1]);
+                LocalDateTime createdAt = (LocalDateTime) row[2];
+                if (createdAt != null && (oldest == null || createdAt.isBefore(oldest))) {
+                    oldest = createdAt;
+                }
+            }
+            oldestPendingAgeSeconds.set(oldest == null ? 0 : Math.max(0, Duration.between(oldest, now).toSeconds()));
+            processing.set(scoringJobRepository.countByStatus(ScoringJobStatus.PROCESSING));
+            completedLastMinute.set(scoringJobRepository.countCompletedSince(now.minusMinutes(1)));
+        } catch (Exception e) {
+            log.warn(" Métriques de la file de scoring non rafraîchies : {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.ept.sn.cri.backend.ia.service;
+
+import com.ept.sn.cri.backend.entity.Application;
+import com.ept.sn.cri.backend.entity.JobOffer;
+import com.ept.sn.cri.backend.event.JobOfferChangedEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Score provisoire (0-100) calculé à la soumission, sans appel au service IA.
+ * Il classe la candidature en attendant le score IA et fixe sa priorité dans la file de scoring.
+ * <p>
+ * Pondération alignée sur le scoring IA : compétences 50, diplôme 25, expérience 25.
+ * Les compétences de l'offre sont découpées une fois par version de scoring de l'offre ;
+ * un calcul se limite ensuite à des recherches dans des ensembles de tokens.
+ * Seules les offres les plus récemment scorées restent compilées (ia.prescore.max-offers).
+ */
+@Component
+public class SkillPreScorer {
+
+    // Score d'un critère qui ne peut pas être évalué (donnée absente)
+    private static final int UNKNOWN = 50;
+
+    private static final Pattern NON_TOKEN = Pattern.compile("[^a-z0-9+#]+");
+    private static final Pattern BAC_PLUS = Pattern.compile("bac\\s*\\+\\s*(\\d)");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+
+    private final int maxOffers;
+    private final Map<Long, CompiledOffer> compiledOffers;
+
+    public SkillPreScorer(@Value("${ia.prescore.max-offers:500}") int maxOffers) {
+        this.maxOffers = maxOffers;
+        // Ordre d'accès : l'offre la moins récemment scorée est évincée en premier
+        this.compiledOffers = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Long, CompiledOffer> eldest) {
+                return size() > SkillPreScorer.this.maxOffers;
+            }
+        };
+    }
+
+    /**
+     * @param cvSkills        compétences déjà extraites du CV (profil parsé) ou texte du CV, ou null
+     * @param experienceYears années d'expérience extraites du CV, ou null
+     */
+    public int score(Application application, String cvSkills, Integer experienceYears) {
+        CompiledOffer offer = compile(application.getJobOffer());
+
+        Set<String> candidateTokens = new HashSet<>();
+        addTokens(candidateTokens, application.getMajorField());
+        addTokens(candidateTokens, application.getHighestDegree());
+        addTokens(candidateTokens, cvSkills);
+
+        return Math.round(0.50f * skillsScore(offer, candidateTokens)
+                + 0.25f * degreeScore(offer, application.getHighestDegree())
+                + 0.25f * experienceScore(offer, experienceYears));
+    }
+
+    private int skillsScore(CompiledOffer offer, Set<String> candidateTokens) {
+        if (offer.skills().isEmpty()) {
+            return UNKNOWN;
+        }
+        int matched = 0;
+        for (String[] skill : offer.skills()) {
+            if (containsAll(candidateTokens, skill)) {
+                matched++;
+            }
+        }
+        return matched * 100 / offer.skills().size();
+    }
+
+    private int degreeScore(CompiledOffer offer, String highestDegree) {
+        int level = degreeLevel(highestDegree);
+        if (offer.degreeLevel() < 0 || level < 0) {
+            return UNKNOWN;
+        }
+        if (level >= offer.degreeLevel()) {
+            return 100;
+        }
+        return Math.max(0, 100 - (offer.degreeLevel() - level) * 25);
+    }
+
+    private int experienceScore(CompiledOffer offer, Integer experienceYears) {
+        if (offer.experienceMin() <= 0) {
+            return 100;
+        }
+        if (experienceYears == null) {
+            return UNKNOWN;
+        }
+        return Math.min(100, experienceYears * 100 / offer.experienceMin());
+    }
+
+    // Recompilé seulement quand les critères de scoring de l'offre changent (JobOffer.scoringVersion)
+    private CompiledOffer compile(JobOffer jobOffer) {
+        CompiledOffer compiled;
+        synchronized (compiledOffers) {
+            compiled = compiledOffers.get(jobOffer.getId());
+        }
+        if (compiled != null && compiled.version() == jobOffer.getScoringVersion()) {
+            return compiled;
+        }
+
+        List<String[]> skills = new ArrayList<>();
+        if (jobOffer.getRequiredSkills() != null) {
+            for (String skill : jobOffer.getRequiredSkills().split("[,;\\n]")) {
+                Set<String> tokens = new HashSet<>();
+                addTokens(tokens, skill);
+                if (!tokens.isEmpty()) {
+                    skills.add(tokens.toArray(String[]::new));
+                }
+            }
+        }
+        compiled = new CompiledOffer(jobOffer.getScoringVersion(), List.copyOf(skills),
+                degreeLevel(jobOffer.getNiveauEtudeRequis()),
+                jobOffer.getExperienceMin() != null ? jobOffer.getExperienceMin() : 0);
+        synchronized (compiledOffers) {
+            compiledOffers.put(jobOffer.getId(), compiled);
+        }
+        return compiled;
+    }
+
+    /**
+     * Oublier la version compilée d'une offre modifiée, clôturée ou supprimée
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onJobOfferChanged(JobOfferChangedEvent event) {
+        synchronized (compiledOffers) {
+            compiledOffers.remove(event.getJobOfferId());
+        }
+    }
+
+    private boolean containsAll(Set<String> candidateTokens, String[] skill) {
+        for (String token : skill) {
+            if (!candidateTokens.contains(token)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private void addTokens(Set<String> tokens, String text) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        for (String token : NON_TOKEN.split(normalize(text))) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+    }
+
+    // Niveau en années après le bac (-1 si non reconnu)
+    private int degreeLevel(String degree) {
+        if (degree == null || degree.isBlank()) {
+            return -1;
+        }
+        String value = normalize(degree);
+        Matcher bacPlus = BAC_PLUS.matcher(value);
+        if (bacPlus.find()) {
+            return Integer.parseInt(bacPlus.group(1));
+        }
+        if (value.contains("doctorat") || value.contains("phd") || value.contains("doctorate")) {
+            return 8;
+        }
+        if (value.contains("master") || value.contains("ingenieur") || value.contains("mba")
+                || value.contains("dess") || value.contains("dea")) {
+            return 5;
+        }
+        if (value.contains("maitrise")) {
+            return 4;
+        }
+        if (value.contains("licence") || value.contains("bachelor")) {
+            return 3;
+        }
+        if (value.contains("dut") || value.contains("bts") || value.contains("deug")) {
+            return 2;
+        }
+        if (value.contains("bac")) {
+            return 0;
+        }
+        return -1;
+    }
+
+    private String normalize(String text) {
+        return DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("").toLowerCase();
+    }
+
+    private record CompiledOffer(int version, List<String[]> skills, int degreeLevel, int experienceMin) {
+    }
+}
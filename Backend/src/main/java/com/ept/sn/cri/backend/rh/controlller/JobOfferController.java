@@ -3,9 +3,11 @@ package com.ept.sn.cri.backend.rh.controlller;
 
 import com.ept.sn.cri.backend.entity.RH;
 import com.ept.sn.cri.backend.enums.JobStatus;
+import com.ept.sn.cri.backend.ia.service.RescoreService;
 import com.ept.sn.cri.backend.rh.dto.CreateJobOfferDTO;
 import com.ept.sn.cri.backend.rh.dto.JobOfferListDTO;
 import com.ept.sn.cri.backend.rh.dto.JobOfferResponseDTO;
+import com.ept.sn.cri.backend.rh.dto.RescoreStatusDTO;
 import com.ept.sn.cri.backend.rh.dto.UpdateJobOfferDTO;
 import com.ept.sn.cri.backend.rh.service.JobOfferService;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -26,6 +28,7 @@ import java.util.List;
 public class JobOfferController {
 
     private final JobOfferService jobOfferService;
+    private final RescoreService rescoreService;
 
     /**
      * Créer une nouvelle offre d'emploi
@@ -95,4 +98,32 @@ public class JobOfferController {
         return ResponseEntity.ok(response);
     }
 
+    /**
+     * Relancer le scoring IA des candidatures qui ne sont pas à jour de la version de l'offre
+     * POST /api/v1/rh/job-offers/{id}/rescore
+     */
+    @PreAuthorize("hasAuthority('RH')")
+    @PostMapping("/job-offers/{id}/rescore")
+    public ResponseEntity<RescoreStatusDTO> startRescore(
+            @PathVariable Long id,
+            @AuthenticationPrincipal RH rh) {
+
+        RescoreStatusDTO response = rescoreService.startRescore(id, rh.getId());
+        return new ResponseEntity<>(response, HttpStatus.ACCEPTED);
+    }
+
+    /**
+     * Avancement du scoring IA pour la version courante de l'offre
+     * GET /api/v1/rh/job-offers/{id}/rescore/status
+     */
+    @PreAuthorize("hasAuthority('RH')")
+    @GetMapping("/job-offers/{id}/rescore/status")
+    public ResponseEntity<RescoreStatusDTO> getRescoreStatus(
+            @PathVariable Long id,
+            @AuthenticationPrincipal RH rh) {
+
+        RescoreStatusDTO response = rescoreService.getStatus(id, rh.getId());
+        return ResponseEntity.ok(response);
+    }
+
 }
@@ -1,6 +1,7 @@
 package com.ept.sn.cri.backend.rh.dto;
 
 import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import com.ept.sn.cri.backend.enums.ProcessingStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -33,11 +34,18 @@ public class ApplicationDetailDTO {
 
     // Scores IA
     private Integer scoreIA;
+    private Integer provisionalScore;
     private Integer matchingCompetences;
     private Integer matchingExperience;
     private Integer matchingDiploma;
     private String justificationIA;
 
+    // Suivi du scoring IA
+    private ProcessingStatus processingStatus;
+    private Integer processingAttempts;
+    private String processingError;
+    private LocalDateTime processingCompletedAt;
+
     // Dates
     private LocalDateTime submitDate;
     private LocalDateTime updateDate;
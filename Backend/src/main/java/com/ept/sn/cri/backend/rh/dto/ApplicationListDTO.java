@@ -21,6 +21,7 @@ public class ApplicationListDTO {
     private String majorField;
     private ApplicationStatus status;
     private Integer scoreIA;
+    private Integer provisionalScore;
     private LocalDateTime submitDate;
     private String cvUrl;
 }
\ No newline at end of file
@@ -30,6 +30,7 @@ public class JobOfferResponseDTO {
     private Date datePublication;
     private Date lastModifiedDate;
     private Date dateLimite;
+    private Boolean rush;
     private Long createdById;
     private String createdByName;
     private Integer applicationCount;
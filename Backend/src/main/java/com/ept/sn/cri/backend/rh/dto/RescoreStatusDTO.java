@@ -0,0 +1,23 @@
+package com.ept.sn.cri.backend.rh.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class RescoreStatusDTO {
+
+    private Long jobOfferId;
+    private Integer scoringVersion;
+    private Long totalApplications;
+    private Long upToDateCount;
+    private Long pendingCount;
+    private Long processingCount;
+    private Long failedCount;
+    private Double progressPercentage;
+    private Boolean completed;
+}
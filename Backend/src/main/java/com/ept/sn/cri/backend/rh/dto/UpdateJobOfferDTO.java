@@ -30,4 +30,7 @@ public class UpdateJobOfferDTO {
 
     @Future(message = "La date limite doit être dans le futur.")
     private Date dateLimite;
+
+    // Scoring IA prioritaire pour les candidatures de l'offre
+    private Boolean rush;
 }
@@ -2,23 +2,27 @@ package com.ept.sn.cri.backend.rh.repository;
 
 import com.ept.sn.cri.backend.entity.Application;
 import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import com.ept.sn.cri.backend.enums.ProcessingStatus;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ApplicationRepository extends JpaRepository<Application, Long> {
 
-    // Trouver toutes les candidatures d'une offre d'emploi (triées par score IA décroissant)
-    @Query("SELECT a FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.jobOffer.createdBy.id = :rhId ORDER BY a.scoreIA DESC NULLS LAST, a.submitDate DESC")
+    // Trouver toutes les candidatures d'une offre d'emploi (triées par score IA décroissant, à défaut par score provisoire)
+    @Query("SELECT a FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.jobOffer.createdBy.id = :rhId ORDER BY COALESCE(a.scoreIA, a.provisionalScore) DESC NULLS LAST, a.submitDate DESC")
     List<Application> findByJobOfferIdAndRhId(@Param("jobOfferId") Long jobOfferId, @Param("rhId") Long rhId);
 
     // Trouver les candidatures d'une offre filtrées par statut
-    @Query("SELECT a FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.jobOffer.createdBy.id = :rhId AND a.applicationStatus = :status ORDER BY a.scoreIA DESC NULLS LAST, a.submitDate DESC")
+    @Query("SELECT a FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.jobOffer.createdBy.id = :rhId AND a.applicationStatus = :status ORDER BY COALESCE(a.scoreIA, a.provisionalScore) DESC NULLS LAST, a.submitDate DESC")
     List<Application> findByJobOfferIdAndRhIdAndStatus(@Param("jobOfferId") Long jobOfferId, @Param("rhId") Long rhId, @Param("status") ApplicationStatus status);
 
     // Trouver une candidature spécifique (vérifier que le RH a accès)
@@ -33,6 +37,96 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
     @Query("SELECT COUNT(a) FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.jobOffer.createdBy.id = :rhId AND a.applicationStatus = :status")
     Long countByJobOfferIdAndStatus(@Param("jobOfferId") Long jobOfferId, @Param("rhId") Long rhId, @Param("status") ApplicationStatus status);
 
+    // Candidatures d'une offre concernées par le scoring IA : [total, scorées à la version courante de l'offre,
+    // pas à jour sans job en attente ni en cours (scoring abandonné ou terminé sur une version antérieure)]
+    @Query("SELECT COUNT(a), COALESCE(SUM(CASE WHEN a.scoredOfferVersion = a.jobOffer.scoringVersion THEN 1 ELSE 0 END), 0), " +
+            "COALESCE(SUM(CASE WHEN (a.scoredOfferVersion IS NULL OR a.scoredOfferVersion <> a.jobOffer.scoringVersion) " +
+            "AND NOT EXISTS (SELECT j.id FROM ScoringJob j WHERE j.application = a " +
+            "AND j.status IN (com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING)) THEN 1 ELSE 0 END), 0) " +
+            "FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.cvUrl IS NOT NULL " +
+            "AND a.applicationStatus NOT IN ('DRAFT', 'WITHDRAWN')")
+    List<Object[]> countScoringProgress(@Param("jobOfferId") Long jobOfferId);
+
+    // Données des événements d'activité pour des candidatures mises à jour par lot :
+    // [id, prénom, nom, statut, offre, titre de l'offre, RH]
+    @Query("SELECT a.id, a.firstName, a.lastName, a.applicationStatus, o.id, o.jobTitle, o.createdBy.id " +
+            "FROM Application a JOIN a.jobOffer o WHERE a.id IN :ids")
+    List<Object[]> findActivityRows(@Param("ids") Collection<Long> ids);
+
+    // Suivi du scoring IA : candidatures d'une offre remises en file (nouveau scoring)
+    @Modifying
+    @Query("UPDATE Application a SET a.processingStatus = com.ept.sn.cri.backend.enums.ProcessingStatus.PENDING, " +
+            "a.processingQueuedAt = :now, a.processingError = NULL " +
+            "WHERE a.jobOffer.id = :jobOfferId " +
+            "AND a.processingStatus NOT IN (com.ept.sn.cri.backend.enums.ProcessingStatus.PENDING, " +
+            "com.ept.sn.cri.backend.enums.ProcessingStatus.PROCESSING) " +
+            "AND EXISTS (SELECT j.id FROM ScoringJob j WHERE j.application = a " +
+            "AND j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING)")
+    int markRescoreQueued(@Param("jobOfferId") Long jobOfferId, @Param("now") LocalDateTime now);
+
+    // Suivi du scoring IA : candidatures des jobs réservés
+    @Modifying
+    @Query("UPDATE Application a SET a.processingStatus = com.ept.sn.cri.backend.enums.ProcessingStatus.PROCESSING, " +
+            "a.processingStartedAt = :now, a.processingAttempts = a.processingAttempts + 1 " +
+            "WHERE a.id IN (SELECT j.application.id FROM ScoringJob j WHERE j.id IN :jobIds)")
+    int markScoringStarted(@Param("jobIds") Collection<Long> jobIds, @Param("now") LocalDateTime now);
+
+    // Suivi du scoring IA : fin de tentative (COMPLETED, FAILED, ou PENDING avant un nouvel essai) ;
+    // COMPLETED n'est pas posé si un autre job de la candidature est encore en attente ou en cours
+    @Modifying
+    @Query("UPDATE Application a SET a.processingStatus = :status, a.processingError = :error, " +
+            "a.processingCompletedAt = CASE WHEN :status = com.ept.sn.cri.backend.enums.ProcessingStatus.PENDING " +
+            "THEN a.processingCompletedAt ELSE :now END " +
+            "WHERE a.id = :applicationId " +
+            "AND (:status <> com.ept.sn.cri.backend.enums.ProcessingStatus.COMPLETED " +
+            "OR NOT EXISTS (SELECT j.id FROM ScoringJob j WHERE j.application = a " +
+            "AND j.status IN (com.ept.sn.cri.backend.enums.ScoringJobStatus.PENDING, " +
+            "com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING)))")
+    int markScoringFinished(@Param("applicationId") Long applicationId,
+                            @Param("status") ProcessingStatus status,
+                            @Param("error") String error,
+                            @Param("now") LocalDateTime now);
+
+    // Suivi du scoring IA : tentative non démarrée (service IA indisponible), non comptée
+    @Modifying
+    @Query("UPDATE Application a SET a.processingStatus = com.ept.sn.cri.backend.enums.ProcessingStatus.PENDING, " +
+            "a.processingAttempts = CASE WHEN a.processingAttempts > 0 THEN a.processingAttempts - 1 ELSE 0 END " +
+            "WHERE a.id = :applicationId")
+    int markScoringReleased(@Param("applicationId") Long applicationId);
+
+    // Score provisoire recalculé après la soumission (texte du CV extrait entre-temps)
+    @Modifying
+    @Query("UPDATE Application a SET a.provisionalScore = :score WHERE a.id = :applicationId")
+    int updateProvisionalScore(@Param("applicationId") Long applicationId, @Param("score") int score);
+
+    // Suivi du scoring IA : candidatures des jobs dont la réservation a expiré
+    @Modifying
+    @Query("UPDATE Application a SET a.processingStatus = :status, a.processingError = :error " +
+            "WHERE a.id IN (SELECT j.application.id FROM ScoringJob j " +
+            "WHERE j.status = com.ept.sn.cri.backend.enums.ScoringJobStatus.PROCESSING AND j.lockedUntil < :now " +
+            "AND j.attempts >= :minAttempts AND j.attempts < :maxAttempts)")
+    int markExpiredLeases(@Param("status") ProcessingStatus status,
+                          @Param("error") String error,
+                          @Param("now") LocalDateTime now,
+                          @Param("minAttempts") int minAttempts,
+                          @Param("maxAttempts") int maxAttempts);
+
+    // Candidatures en file ou en cours depuis avant :threshold sans job actif (job perdu), verrouillées :
+    // celles déjà prises par le balayage d'un autre nœud sont ignorées : [id]
+    @Query(value = "SELECT a.id FROM applications a " +
+            "WHERE a.processing_status IN ('PENDING', 'PROCESSING') AND a.processing_queued_at < :threshold " +
+            "AND NOT EXISTS (SELECT j.id FROM scoring_jobs j WHERE j.application_id = a.id " +
+            "AND j.status IN ('PENDING', 'PROCESSING')) " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<Long> lockStuckApplicationIds(@Param("threshold") LocalDateTime threshold);
+
+    // Suivi du scoring IA : candidatures remises en file après la perte de leur job
+    @Modifying
+    @Query("UPDATE Application a SET a.processingStatus = com.ept.sn.cri.backend.enums.ProcessingStatus.PENDING, " +
+            "a.processingQueuedAt = :now, a.processingError = NULL WHERE a.id IN :ids")
+    int markRecoveryQueued(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
     // Trouver toutes les candidatures présélectionnées d'une offre
     @Query("SELECT a FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.jobOffer.createdBy.id = :rhId AND a.applicationStatus = 'SHORTLISTED' ORDER BY a.scoreIA DESC")
     List<Application> findShortlistedByJobOfferId(@Param("jobOfferId") Long jobOfferId, @Param("rhId") Long rhId);
@@ -45,4 +139,35 @@ public interface ApplicationRepository extends JpaRepository<Application, Long>
             "MIN(a.scoreIA) " +
             "FROM Application a WHERE a.jobOffer.id = :jobOfferId AND a.jobOffer.createdBy.id = :rhId")
     Object[] getApplicationStatsByJobOfferId(@Param("jobOfferId") Long jobOfferId, @Param("rhId") Long rhId);
-}
\ No newline at end of file
+
+    // Agrégats des candidatures d'un RH par offre et par statut (dashboard)
+    @Query("SELECT a.jobOffer.id, a.applicationStatus, COUNT(a), COUNT(a.scoreIA), SUM(a.scoreIA), " +
+            "SUM(CASE WHEN a.submitDate > :since THEN 1 ELSE 0 END) " +
+            "FROM Application a WHERE a.jobOffer.createdBy.id = :rhId " +
+            "GROUP BY a.jobOffer.id, a.applicationStatus")
+    List<Object[]> aggregateByJobOfferAndStatus(@Param("rhId") Long rhId, @Param("since") LocalDateTime since);
+
+    // Répartition des candidatures d'un RH par niveau d'étude
+    @Query("SELECT a.highestDegree, COUNT(a) FROM Application a WHERE a.jobOffer.createdBy.id = :rhId GROUP BY a.highestDegree")
+    List<Object[]> countByEducationLevel(@Param("rhId") Long rhId);
+
+    // Nombre de candidats distincts ayant postulé aux offres d'un RH
+    @Query("SELECT COUNT(DISTINCT a.candidate.id) FROM Application a WHERE a.jobOffer.createdBy.id = :rhId")
+    Long countDistinctCandidatesByRhId(@Param("rhId") Long rhId);
+
+    // Compter les candidatures présélectionnées de l'offre de chaque commission
+    @Query("SELECT c.id, COUNT(a) FROM Commission c, Application a " +
+            "WHERE a.jobOffer.id = c.jobOffer.id AND c.id IN :commissionIds AND a.applicationStatus = 'SHORTLISTED' " +
+            "GROUP BY c.id")
+    List<Object[]> countShortlistedByCommissionIds(@Param("commissionIds") Collection<Long> commissionIds);
+
+    // Candidatures soumises sur une période, par offre et par statut (agrégats journaliers)
+    @Query("SELECT a.jobOffer.id, a.jobOffer.createdBy.id, a.applicationStatus, COUNT(a), COUNT(a.scoreIA), SUM(a.scoreIA) " +
+            "FROM Application a WHERE a.submitDate >= :from AND a.submitDate < :to " +
+            "GROUP BY a.jobOffer.id, a.jobOffer.createdBy.id, a.applicationStatus")
+    List<Object[]> aggregateSubmittedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    // Date de la toute première candidature
+    @Query("SELECT MIN(a.submitDate) FROM Application a")
+    LocalDateTime findFirstSubmitDate();
+}
@@ -8,6 +8,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -47,4 +48,8 @@ public interface CommissionMemberRepository extends JpaRepository<CommissionMemb
     // Vérifier si un user est membre d'une commission
     @Query("SELECT CASE WHEN COUNT(cm) > 0 THEN true ELSE false END FROM CommissionMember cm WHERE cm.id = :userId AND cm.commission.id = :commissionId")
     boolean existsByUserIdAndCommissionId(@Param("userId") Long userId, @Param("commissionId") Long commissionId);
+
+    // Compter les membres de plusieurs commissions en une seule requête
+    @Query("SELECT cm.commission.id, COUNT(cm) FROM CommissionMember cm WHERE cm.commission.id IN :commissionIds GROUP BY cm.commission.id")
+    List<Object[]> countMembersByCommissionIds(@Param("commissionIds") Collection<Long> commissionIds);
 }
@@ -34,4 +34,9 @@ public interface CommissionRepository extends JpaRepository<Commission, Long> {
     // Compter les commissions actives d'un RH
     @Query("SELECT COUNT(c) FROM Commission c WHERE c.createdBy.id = :rhId AND c.status = :status")
     Long countByRhAndStatus(@Param("rhId") Long rhId, @Param("status") CommissionStatus status);
-}
\ No newline at end of file
+
+    // Lignes de synthèse des commissions d'un RH pour le dashboard
+    @Query("SELECT c.id, c.name, c.status, c.jobOffer.jobTitle FROM Commission c " +
+            "WHERE c.createdBy.id = :rhId ORDER BY c.createdAt DESC")
+    List<Object[]> findDashboardRowsByRhId(@Param("rhId") Long rhId);
+}
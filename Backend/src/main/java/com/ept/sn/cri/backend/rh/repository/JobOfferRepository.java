@@ -28,4 +28,9 @@ public interface JobOfferRepository extends JpaRepository<JobOffer, Long> {
     // Compter les offres d'un RH par statut
     @Query("SELECT COUNT(j) FROM JobOffer j WHERE j.createdBy.id = :rhId AND j.jobStatus = :status")
     Long countByRhAndStatus(@Param("rhId") Long rhId, @Param("status") JobStatus status);
-}
\ No newline at end of file
+
+    // Lignes de synthèse des offres d'un RH pour le dashboard (sans charger les candidatures)
+    @Query("SELECT j.id, j.jobTitle, j.jobStatus, j.jobType, j.typeContrat, j.datePublication, j.dateLimite " +
+            "FROM JobOffer j WHERE j.createdBy.id = :rhId ORDER BY j.datePublication DESC")
+    List<Object[]> findDashboardRowsByRhId(@Param("rhId") Long rhId);
+}
@@ -2,7 +2,9 @@ package com.ept.sn.cri.backend.rh.service;
 
 import com.ept.sn.cri.backend.entity.Application;
 import com.ept.sn.cri.backend.entity.JobOffer;
+import com.ept.sn.cri.backend.enums.ActivityType;
 import com.ept.sn.cri.backend.enums.ApplicationStatus;
+import com.ept.sn.cri.backend.event.ApplicationActivityEvent;
 import com.ept.sn.cri.backend.exception.ApplicationNotBelongToOfferException;
 import com.ept.sn.cri.backend.exception.ResourceNotFoundException;
 import com.ept.sn.cri.backend.exception.UnauthorizedActionException;
@@ -10,6 +12,7 @@ import com.ept.sn.cri.backend.rh.dto.*;
 import com.ept.sn.cri.backend.rh.repository.ApplicationRepository;
 import com.ept.sn.cri.backend.rh.repository.JobOfferRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -24,6 +27,7 @@ public class ApplicationService {
 
     private final ApplicationRepository applicationRepository;
     private final JobOfferRepository jobOfferRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Obtenir toutes les candidatures pour une offre d'emploi
@@ -81,6 +85,7 @@ public class ApplicationService {
             // Changer le statut en SHORTLISTED
             application.setApplicationStatus(ApplicationStatus.SHORTLISTED);
             Application saved = applicationRepository.save(application);
+            eventPublisher.publishEvent(ApplicationActivityEvent.of(ActivityType.SHORTLISTED, saved));
             shortlisted.add(mapToDetailDTO(saved));
         }
 
@@ -98,6 +103,9 @@ public class ApplicationService {
         application.setApplicationStatus(dto.getStatus());
 
         Application updated = applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationActivityEvent.of(
+                dto.getStatus() == ApplicationStatus.SHORTLISTED ? ActivityType.SHORTLISTED : ActivityType.STATUS_CHANGED,
+                updated));
         return mapToDetailDTO(updated);
     }
 
@@ -163,6 +171,7 @@ public class ApplicationService {
 
         application.setApplicationStatus(ApplicationStatus.REJECTED);
         Application updated = applicationRepository.save(application);
+        eventPublisher.publishEvent(ApplicationActivityEvent.of(ActivityType.STATUS_CHANGED, updated));
 
         return mapToDetailDTO(updated);
     }
@@ -188,6 +197,7 @@ public class ApplicationService {
 
             application.setApplicationStatus(ApplicationStatus.REJECTED);
             Application saved = applicationRepository.save(application);
+            eventPublisher.publishEvent(ApplicationActivityEvent.of(ActivityType.STATUS_CHANGED, saved));
             rejected.add(mapToDetailDTO(saved));
         }
 
@@ -220,6 +230,7 @@ public class ApplicationService {
                 .majorField(application.getMajorField())
                 .status(application.getApplicationStatus())
                 .scoreIA(application.getScoreIA())
+                .provisionalScore(application.getProvisionalScore())
                 .submitDate(application.getSubmitDate())
                 .cvUrl(application.getCvUrl())
                 .build();
@@ -238,10 +249,15 @@ public class ApplicationService {
                 .cvUrl(application.getCvUrl())
                 .status(application.getApplicationStatus())
                 .scoreIA(application.getScoreIA())
+                .provisionalScore(application.getProvisionalScore())
                 .matchingCompetences(application.getMatchingCompetences())
                 .matchingExperience(application.getMatchingExperience())
                 .matchingDiploma(application.getMatchingDiploma())
                 .justificationIA(application.getJustificationIA())
+                .processingStatus(application.getProcessingStatus())
+                .processingAttempts(application.getProcessingAttempts())
+                .processingError(application.getProcessingError())
+                .processingCompletedAt(application.getProcessingCompletedAt())
                 .submitDate(application.getSubmitDate())
                 .updateDate(application.getUpdateDate())
                 .jobOfferId(application.getJobOffer().getId())
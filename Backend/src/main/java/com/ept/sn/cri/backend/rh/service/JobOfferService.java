@@ -4,8 +4,10 @@ package com.ept.sn.cri.backend.rh.service;
 import com.ept.sn.cri.backend.entity.JobOffer;
 import com.ept.sn.cri.backend.entity.RH;
 import com.ept.sn.cri.backend.enums.JobStatus;
+import com.ept.sn.cri.backend.event.JobOfferChangedEvent;
 import com.ept.sn.cri.backend.exception.ResourceNotFoundException;
 import com.ept.sn.cri.backend.exception.UnauthorizedActionException;
+import com.ept.sn.cri.backend.ia.service.ScoringJobService;
 import com.ept.sn.cri.backend.rh.dto.CreateJobOfferDTO;
 import com.ept.sn.cri.backend.rh.dto.JobOfferListDTO;
 import com.ept.sn.cri.backend.rh.dto.JobOfferResponseDTO;
@@ -13,6 +15,7 @@ import com.ept.sn.cri.backend.rh.dto.UpdateJobOfferDTO;
 import com.ept.sn.cri.backend.rh.repository.JobOfferRepository;
 import com.ept.sn.cri.backend.rh.repository.RHRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,6 +28,8 @@ public class JobOfferService {
 
     private final JobOfferRepository jobOfferRepository;
     private final RHRepository rhRepository;
+    private final ScoringJobService scoringJobService;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Créer une nouvelle offre d'emploi
@@ -47,6 +52,7 @@ public class JobOfferService {
         jobOffer.setCreatedBy(rh);
 
         JobOffer savedOffer = jobOfferRepository.save(jobOffer);
+        eventPublisher.publishEvent(new JobOfferChangedEvent(savedOffer.getId()));
         return mapToResponseDTO(savedOffer);
     }
 
@@ -70,23 +76,39 @@ public class JobOfferService {
         if (dto.getJobStatus() != null) {
             jobOffer.setJobStatus(dto.getJobStatus());
         }
-        if (dto.getDescription() != null) {
+        // Critères envoyés au service IA : leur modification rend les scores existants obsolètes
+        boolean scoringChanged = false;
+        if (dto.getDescription() != null && !dto.getDescription().equals(jobOffer.getDescription())) {
             jobOffer.setDescription(dto.getDescription());
+            scoringChanged = true;
         }
-        if (dto.getRequiredSkills() != null) {
+        if (dto.getRequiredSkills() != null && !dto.getRequiredSkills().equals(jobOffer.getRequiredSkills())) {
             jobOffer.setRequiredSkills(dto.getRequiredSkills());
+            scoringChanged = true;
         }
-        if (dto.getNiveauEtudeRequis() != null) {
+        if (dto.getNiveauEtudeRequis() != null && !dto.getNiveauEtudeRequis().equals(jobOffer.getNiveauEtudeRequis())) {
             jobOffer.setNiveauEtudeRequis(dto.getNiveauEtudeRequis());
+            scoringChanged = true;
         }
-        if (dto.getExperienceMin() != null) {
+        if (dto.getExperienceMin() != null && !dto.getExperienceMin().equals(jobOffer.getExperienceMin())) {
             jobOffer.setExperienceMin(dto.getExperienceMin());
+            scoringChanged = true;
         }
         if (dto.getDateLimite() != null) {
             jobOffer.setDateLimite(dto.getDateLimite());
         }
+        if (dto.getRush() != null) {
+            jobOffer.setRush(dto.getRush());
+        }
 
-        JobOffer updatedOffer = jobOfferRepository.save(jobOffer);
+        if (scoringChanged) {
+            jobOffer.setScoringVersion(jobOffer.getScoringVersion() + 1);
+        }
+        JobOffer updatedOffer = jobOfferRepository.saveAndFlush(jobOffer);
+        if (scoringChanged) {
+            scoringJobService.enqueueRescore(updatedOffer.getId());
+        }
+        eventPublisher.publishEvent(new JobOfferChangedEvent(updatedOffer.getId()));
         return mapToResponseDTO(updatedOffer);
     }
 
@@ -99,6 +121,7 @@ public class JobOfferService {
                 .orElseThrow(() -> new UnauthorizedActionException("Offre non trouvée ou vous n'avez pas les droits pour la supprimer"));
 
         jobOfferRepository.delete(jobOffer);
+        eventPublisher.publishEvent(new JobOfferChangedEvent(offerId));
     }
 
 
@@ -148,6 +171,7 @@ public class JobOfferService {
                 .datePublication(jobOffer.getDatePublication())
                 .lastModifiedDate(jobOffer.getLastModifiedDate())
                 .dateLimite(jobOffer.getDateLimite())
+                .rush(jobOffer.isRush())
                 .createdById(jobOffer.getCreatedBy().getId())
                 .createdByName(jobOffer.getCreatedBy().getFullName())
                 .applicationCount(jobOffer.getApplications() != null ? jobOffer.getApplications().size() : 0)
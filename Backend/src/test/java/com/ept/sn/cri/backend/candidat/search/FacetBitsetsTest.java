@@ -0,0 +1,106 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import com.ept.sn.cri.backend.enums.ContratType;
+import com.ept.sn.cri.backend.enums.JobType;
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FacetBitsetsTest {
+
+    private static final long NOW = 1_700_000_000_000L;
+
+    private final FacetBitsets facets = new FacetBitsets();
+
+    @Test
+    void reusesFreedSlotsWithoutLeakingFacetValues() {
+        IndexedOffer first = offer(1L, JobType.PER, ContratType.CDI, "Master", 0, null);
+        facets.add(first);
+        facets.add(offer(2L, JobType.PATS, ContratType.CDD, "Licence", 3, null));
+
+        facets.remove(first);
+        facets.add(offer(3L, JobType.CONTRACTUEL, ContratType.STAGE, "Licence", 1, null));
+        facets.add(first);
+
+        assertThat(facets.offerAt(0)).isEqualTo(3L);
+        assertThat(facets.offerAt(2)).isEqualTo(1L);
+        assertThat(facets.slotsOf(Set.of(1L, 3L))).isEqualTo(bits(0, 2));
+
+        BitSet all = facets.available(NOW);
+        assertThat(all.cardinality()).isEqualTo(3);
+        assertThat(facets.count(JobOfferFacet.JOB_TYPE, all))
+                .containsExactly(Map.entry("PER", 1), Map.entry("PATS", 1), Map.entry("CONTRACTUEL", 1));
+        assertThat(facets.anyOf(JobOfferFacet.TYPE_CONTRAT, Set.of("STAGE"))).isEqualTo(bits(0));
+    }
+
+    @Test
+    void emptyStudyLevelsDisappearButFixedValuesStayAtZero() {
+        IndexedOffer offer = offer(1L, JobType.PER, ContratType.CDI, "Doctorat", 7, null);
+        facets.add(offer);
+        facets.remove(offer);
+
+        BitSet all = facets.available(NOW);
+        assertThat(facets.count(JobOfferFacet.NIVEAU_ETUDE, all)).isEmpty();
+        assertThat(facets.count(JobOfferFacet.EXPERIENCE, all))
+                .containsExactly(Map.entry("0", 0), Map.entry("1-2", 0), Map.entry("3-5", 0), Map.entry("6+", 0));
+    }
+
+    @Test
+    void masksOffersPastTheirDeadline() {
+        facets.add(offer(1L, JobType.PER, ContratType.CDI, "Master", 0, new Date(NOW - 1)));
+        facets.add(offer(2L, JobType.PER, ContratType.CDI, "Master", 0, new Date(NOW)));
+        facets.add(offer(3L, JobType.PER, ContratType.CDI, "Master", 0, null));
+
+        assertThat(facets.available(NOW - 1)).isEqualTo(bits(0, 1, 2));
+        assertThat(facets.available(NOW)).isEqualTo(bits(1, 2));
+        assertThat(facets.available(NOW + 1)).isEqualTo(bits(2));
+    }
+
+    @Test
+    void countsEachFacetWithTheOtherFacetsFilters() {
+        facets.add(offer(1L, JobType.PER, ContratType.CDI, "Master", 0, null));
+        facets.add(offer(2L, JobType.PER, ContratType.CDD, "Master", 4, null));
+        facets.add(offer(3L, JobType.PATS, ContratType.CDI, "Licence", 4, null));
+        facets.add(offer(4L, JobType.CONTRACTUEL, ContratType.STAGE, "Licence", 0, null));
+
+        BitSet base = facets.available(NOW);
+        BitSet jobTypeMask = facets.anyOf(JobOfferFacet.JOB_TYPE, Set.of("PER", "PATS"));
+        BitSet contratMask = facets.anyOf(JobOfferFacet.TYPE_CONTRAT, Set.of("CDI"));
+
+        // Valeurs d'une facette comptées avec le filtre des autres facettes seulement (OU au sein de la facette)
+        BitSet exceptJobType = (BitSet) base.clone();
+        exceptJobType.and(contratMask);
+        assertThat(facets.count(JobOfferFacet.JOB_TYPE, exceptJobType))
+                .containsExactly(Map.entry("PER", 1), Map.entry("PATS", 1), Map.entry("CONTRACTUEL", 0));
+
+        BitSet exceptContrat = (BitSet) base.clone();
+        exceptContrat.and(jobTypeMask);
+        assertThat(facets.count(JobOfferFacet.TYPE_CONTRAT, exceptContrat))
+                .containsExactly(Map.entry("CDD", 1), Map.entry("CDI", 2), Map.entry("STAGE", 0));
+
+        BitSet matching = (BitSet) exceptContrat.clone();
+        matching.and(contratMask);
+        assertThat(facets.count(JobOfferFacet.EXPERIENCE, matching))
+                .containsExactly(Map.entry("0", 1), Map.entry("1-2", 0), Map.entry("3-5", 1), Map.entry("6+", 0));
+    }
+
+    private static IndexedOffer offer(Long id, JobType jobType, ContratType typeContrat, String niveauEtude,
+                                      int experienceMin, Date dateLimite) {
+        return new IndexedOffer(id, "Offre " + id, jobType, typeContrat, "", niveauEtude, experienceMin,
+                new Date(NOW), dateLimite, 0, List.of(), Map.of(), 0);
+    }
+
+    private static BitSet bits(int... slots) {
+        BitSet bits = new BitSet();
+        for (int slot : slots) {
+            bits.set(slot);
+        }
+        return bits;
+    }
+}
@@ -0,0 +1,42 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FrenchAnalyzerTest {
+
+    @Test
+    void foldsAccentsCaseAndLigatures() {
+        assertThat(FrenchAnalyzer.fold("Ingénieur Système")).isEqualTo("ingenieur systeme");
+        assertThat(FrenchAnalyzer.fold("Cœur ÆTHER")).isEqualTo("coeur aether");
+    }
+
+    @Test
+    void removesElisionsAndStopWords() {
+        assertThat(FrenchAnalyzer.analyze("l'ingénieur et l’analyste de la banque"))
+                .containsExactly("ingenieur", "analyst", "banqu");
+        assertThat(FrenchAnalyzer.analyze("qu'il")).isEmpty();
+    }
+
+    @Test
+    void feminineAndPluralFormsShareTheSameTerm() {
+        assertThat(FrenchAnalyzer.analyze("Ingénieures ingenieur INGÉNIEURS"))
+                .containsExactly("ingenieur", "ingenieur", "ingenieur");
+        assertThat(FrenchAnalyzer.analyze("développeuse développeurs"))
+                .containsExactly("developpeur", "developpeur");
+        assertThat(FrenchAnalyzer.analyze("directrice techniciennes chevaux"))
+                .containsExactly("directeur", "technicien", "cheval");
+    }
+
+    @Test
+    void leavesShortWordsAndNumbersUnstemmed() {
+        assertThat(FrenchAnalyzer.analyze("Java SQL bases 2024")).containsExactly("java", "sql", "base", "2024");
+    }
+
+    @Test
+    void blankTextHasNoTerms() {
+        assertThat(FrenchAnalyzer.analyze(null)).isEmpty();
+        assertThat(FrenchAnalyzer.analyze("  ,; ")).isEmpty();
+    }
+}
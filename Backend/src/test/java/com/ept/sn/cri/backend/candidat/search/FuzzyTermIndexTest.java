@@ -0,0 +1,45 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class FuzzyTermIndexTest {
+
+    private final FuzzyTermIndex index = new FuzzyTermIndex();
+
+    @BeforeEach
+    void setUp() {
+        for (String term : new String[]{"developpeur", "java", "javascript", "python", "comptabl"}) {
+            index.add(term);
+        }
+    }
+
+    @Test
+    void findsTermsWithinTheEditBound() {
+        assertThat(index.similar("developeur", 1)).containsExactly(new FuzzyTermIndex.Match("developpeur", 1));
+        assertThat(index.similar("devloppeur", 2)).containsExactly(new FuzzyTermIndex.Match("developpeur", 1));
+        assertThat(index.similar("comptbl", 1)).containsExactly(new FuzzyTermIndex.Match("comptabl", 1));
+    }
+
+    @Test
+    void transpositionCountsAsOneEdit() {
+        assertThat(index.similar("pyhton", 1)).containsExactly(new FuzzyTermIndex.Match("python", 1));
+    }
+
+    @Test
+    void ignoresExactAndDistantTerms() {
+        assertThat(index.similar("java", 1)).isEmpty();
+        assertThat(index.similar("devops", 2)).isEmpty();
+        assertThat(index.similar("developeur", 0)).isEmpty();
+    }
+
+    @Test
+    void removedTermsAreNoLongerSuggested() {
+        index.remove("developpeur");
+
+        assertThat(index.similar("developeur", 1)).isEmpty();
+        assertThat(index.similar("pyhton", 1)).extracting(FuzzyTermIndex.Match::term).containsExactly("python");
+    }
+}
@@ -0,0 +1,91 @@
+package com.ept.sn.cri.backend.candidat.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+class SuggestionTrieTest {
+
+    private final SuggestionTrie trie = new SuggestionTrie();
+
+    @Test
+    void matchesFoldedPrefixesFromEachTitleWord() {
+        trie.add(offer(1L, "Développeur  Java", 0, "Spring Boot, SQL"));
+
+        assertThat(labels(trie.suggest("DÉV", 10))).containsExactly("Développeur Java");
+        assertThat(labels(trie.suggest("java", 10))).containsExactly("Développeur Java");
+        assertThat(labels(trie.suggest("sp", 10))).containsExactly("Spring Boot");
+        assertThat(trie.suggest("boot", 10)).isEmpty();
+    }
+
+    @Test
+    void removingAnOfferPrunesOnlyItsOwnSuggestions() {
+        IndexedOffer java = offer(1L, "Développeur", 0, "Java");
+        IndexedOffer javascript = offer(2L, "Intégrateur", 0, "JavaScript, Java");
+        trie.add(java);
+        trie.add(javascript);
+
+        trie.remove(javascript);
+
+        assertThat(trie.suggest("javas", 10)).isEmpty();
+        assertThat(trie.suggest("int", 10)).isEmpty();
+        assertThat(trie.suggest("jav", 10)).extracting(SuggestionTrie.Suggestion::label, SuggestionTrie.Suggestion::offers)
+                .containsExactly(tuple("Java", 1));
+        assertThat(trie.size()).isEqualTo(2);
+
+        trie.remove(java);
+
+        assertThat(trie.suggest("j", 10)).isEmpty();
+        assertThat(trie.size()).isZero();
+    }
+
+    @Test
+    void topSuggestionsFollowWeightDecreases() {
+        List<IndexedOffer> offers = new ArrayList<>();
+        for (int i = 0; i <= SuggestionTrie.MAX_SUGGESTIONS; i++) {
+            IndexedOffer offer = offer((long) i, "Data " + i, i + 1, "");
+            offers.add(offer);
+            trie.add(offer);
+        }
+        assertThat(labels(trie.suggest("d", 3))).containsExactly("Data 10", "Data 9", "Data 8");
+        assertThat(labels(trie.suggest("d", 20))).hasSize(SuggestionTrie.MAX_SUGGESTIONS).doesNotContain("Data 0");
+
+        // Data 10 passe sous toutes les autres : elle sort du top et Data 0 y entre
+        trie.adjustApplications(offers.get(10), -11);
+
+        List<String> top = labels(trie.suggest("d", 20));
+        assertThat(top).hasSize(SuggestionTrie.MAX_SUGGESTIONS).doesNotContain("Data 10");
+        assertThat(top).startsWith("Data 9").endsWith("Data 0");
+        assertThat(labels(trie.suggest("data 1", 20))).containsExactly("Data 1", "Data 10");
+    }
+
+    @Test
+    void rebuildMatchesIncrementalAdds() {
+        List<IndexedOffer> offers = List.of(
+                offer(1L, "Développeur Java", 4, "Java, SQL"),
+                offer(2L, "Data Engineer", 1, "Python; SQL"),
+                offer(3L, "Développeur Web", 0, "JavaScript"));
+        offers.forEach(trie::add);
+        List<String> incremental = labels(trie.suggest("d", 10));
+
+        SuggestionTrie rebuilt = new SuggestionTrie();
+        rebuilt.rebuild(offers);
+
+        assertThat(labels(rebuilt.suggest("d", 10))).isEqualTo(incremental);
+        assertThat(labels(rebuilt.suggest("s", 10))).containsExactly("SQL");
+    }
+
+    private static IndexedOffer offer(Long id, String title, int applications, String skills) {
+        return new IndexedOffer(id, title, null, null, "", null, 0, null, null, applications,
+                skills.isEmpty() ? List.of() : List.of(skills), Map.of(), 0);
+    }
+
+    private static List<String> labels(List<SuggestionTrie.Suggestion> suggestions) {
+        return suggestions.stream().map(SuggestionTrie.Suggestion::label).toList();
+    }
+}
@@ -0,0 +1,355 @@
+package com.ept.sn.cri.backend.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpHandler;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.convert.DurationStyle;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Service IA de substitution : mêmes endpoints que le service Python
+ * (/health, /api/ia/process-cv, /api/ia/process-cv-file, /api/ia/process-cv-text, /api/ia/score-cv,
+ * /api/ia/score-batch),
+ * sans appel au LLM. Latences, taux d'erreur et callbacks sont configurables.
+ * Les résultats sont déterministes par candidature.
+ */
+@Slf4j
+public class IAStubServer implements AutoCloseable {
+
+    private final Settings settings;
+    private final HttpServer server;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient callbackClient = HttpClient.newHttpClient();
+    private final ScheduledExecutorService callbackScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "ia-stub-callbacks");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+    private volatile String callbackUrl;
+
+    private IAStubServer(Settings settings) throws IOException {
+        this.settings = settings;
+        this.server = HttpServer.create(new InetSocketAddress("localhost", 0), 1024);
+        // Un thread virtuel par requête : les latences simulées ne bloquent pas les autres appels
+        this.server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        this.server.createContext("/health", handler("health", this::health));
+        this.server.createContext("/api/ia/process-cv-file", handler("process-cv-file", this::processCvFile));
+        this.server.createContext("/api/ia/process-cv-text", handler("process-cv-text", this::processCv));
+        this.server.createContext("/api/ia/process-cv", handler("process-cv", this::processCv));
+        this.server.createContext("/api/ia/score-cv", handler("score-cv", this::scoreCv));
+        this.server.createContext("/api/ia/score-batch", handler("score-batch", this::scoreBatch));
+    }
+
+    public static IAStubServer start(Settings settings) {
+        try {
+            IAStubServer stub = new IAStubServer(settings);
+            stub.server.start();
+            log.info(" Service IA de substitution démarré sur {} ({})", stub.baseUrl(), settings);
+            return stub;
+        } catch (IOException e) {
+            throw new IllegalStateException("Impossible de démarrer le service IA de substitution", e);
+        }
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /**
+     * Webhook du backend auquel renvoyer chaque résultat après {@link Settings#callbackDelay()}
+     */
+    public void setCallbackUrl(String callbackUrl) {
+        this.callbackUrl = callbackUrl;
+    }
+
+    /**
+     * Compteurs par endpoint et par issue (http-error, failure, callback...)
+     */
+    public Map<String, Long> counters() {
+        Map<String, Long> snapshot = new TreeMap<>();
+        counters.forEach((name, value) -> snapshot.put(name, value.get()));
+        return snapshot;
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        callbackScheduler.shutdownNow();
+    }
+
+    // ===============================
+    // Endpoints
+    // ===============================
+
+    private JsonNode health(byte[] body) {
+        return objectMapper.createObjectNode()
+                .put("status", "healthy")
+                .put("version", "stub");
+    }
+
+    private JsonNode processCv(byte[] body) throws IOException {
+        long applicationId = objectMapper.readTree(body).path("application_id").asLong();
+        return process(applicationId);
+    }
+
+    private JsonNode processCvFile(byte[] body) throws IOException {
+        long applicationId = objectMapper.readTree(metadataPart(body)).path("application_id").asLong();
+        return process(applicationId);
+    }
+
+    private JsonNode scoreCv(byte[] body) throws IOException {
+        long applicationId = objectMapper.readTree(body).path("application_id").asLong();
+        sleep(settings.scoreLatency());
+        return scoreResult(applicationId);
+    }
+
+    private JsonNode scoreBatch(byte[] body) throws IOException {
+        long start = System.nanoTime();
+        // Le service Python traite les éléments d'un lot en parallèle : une seule latence par lot
+        sleep(settings.scoreLatency());
+        ArrayNode results = objectMapper.createArrayNode();
+        for (JsonNode request : objectMapper.readTree(body).path("requests")) {
+            results.add(scoreResult(request.path("application_id").asLong()));
+        }
+        ObjectNode response = objectMapper.createObjectNode();
+        response.set("results", results);
+        response.put("processing_time", (System.nanoTime() - start) / 1e9);
+        return response;
+    }
+
+    private JsonNode process(long applicationId) {
+        long start = System.nanoTime();
+        sleep(settings.processLatency());
+
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("application_id", applicationId);
+        if (ThreadLocalRandom.current().nextDouble() < settings.failureRate()) {
+            increment("failure");
+            response.put("success", false);
+            response.put("error_message", "Échec simulé");
+        } else {
+            response.put("success", true);
+            response.set("scoring_result", scoring(applicationId));
+            response.set("parsed_data", profile(applicationId));
+        }
+        response.put("total_processing_time", (System.nanoTime() - start) / 1e9);
+
+        scheduleCallback(response);
+        return response;
+    }
+
+    private ObjectNode scoreResult(long applicationId) {
+        ObjectNode result = objectMapper.createObjectNode();
+        result.put("application_id", applicationId);
+        if (ThreadLocalRandom.current().nextDouble() < settings.failureRate()) {
+            increment("failure");
+            result.put("success", false);
+            result.put("error_message", "Échec simulé");
+        } else {
+            result.put("success", true);
+            result.set("scoring_result", scoring(applicationId));
+        }
+        return result;
+    }
+
+    private ObjectNode scoring(long applicationId) {
+        int score = (int) Math.floorMod(applicationId * 37, 101);
+        ObjectNode scoring = objectMapper.createObjectNode();
+        scoring.put("score_global", score);
+        scoring.put("matching_competences", Math.min(100, score + 5));
+        scoring.put("matching_experience", Math.max(0, score - 5));
+        scoring.put("matching_diploma", score);
+        scoring.put("justification", "Score simulé pour la candidature " + applicationId);
+        return scoring;
+    }
+
+    private ObjectNode profile(long applicationId) {
+        ObjectNode profile = objectMapper.createObjectNode();
+        ArrayNode competences = profile.putArray("competences");
+        competences.add("Java").add("SQL");
+        if (applicationId % 2 == 0) {
+            competences.add("Spring Boot");
+        }
+        profile.putArray("tools").add("Git");
+        profile.putArray("education").addObject().put("degree", applicationId % 3 == 0 ? "Licence" : "Master");
+        profile.putArray("work_experience").addObject()
+                .put("start_date", String.valueOf(2024 - applicationId % 8))
+                .put("end_date", "2024");
+        return profile;
+    }
+
+    // ===============================
+    // Callbacks et outils
+    // ===============================
+
+    private void scheduleCallback(JsonNode response) {
+        String url = callbackUrl;
+        Duration delay = settings.callbackDelay();
+        if (url == null || delay == null) {
+            return;
+        }
+        callbackScheduler.schedule(() -> {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(URI.create(url))
+                        .header("Content-Type", "application/json")
+                        .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(response)))
+                        .build();
+                callbackClient.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                        .whenComplete((result, error) -> increment(error == null && result.statusCode() < 300
+                                ? "callback" : "callback-error"));
+            } catch (IOException e) {
+                increment("callback-error");
+            }
+        }, delay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Partie "metadata" (JSON) d'un corps multipart/form-data
+     */
+    private byte[] metadataPart(byte[] body) {
+        String content = new String(body, StandardCharsets.ISO_8859_1);
+        int header = content.indexOf("name=\"metadata\"");
+        if (header < 0) {
+            throw new IllegalArgumentException("Partie metadata absente");
+        }
+        int start = content.indexOf("\r\n\r\n", header) + 4;
+        int end = content.indexOf("\r\n--", start);
+        return content.substring(start, end).getBytes(StandardCharsets.ISO_8859_1);
+    }
+
+    private void sleep(Latency latency) {
+        try {
+            Thread.sleep(latency.sample());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void increment(String counter) {
+        counters.computeIfAbsent(counter, name -> new AtomicLong()).incrementAndGet();
+    }
+
+    private HttpHandler handler(String name, Endpoint endpoint) {
+        return exchange -> {
+            try (exchange) {
+                byte[] body;
+                try (InputStream in = exchange.getRequestBody()) {
+                    body = in.readAllBytes();
+                }
+                increment(name);
+                if (!"health".equals(name) && ThreadLocalRandom.current().nextDouble() < settings.httpErrorRate()) {
+                    increment("http-error");
+                    sleep(settings.processLatency());
+                    send(exchange, 500, "{\"detail\":\"Erreur simulée\"}".getBytes(StandardCharsets.UTF_8));
+                    return;
+                }
+                send(exchange, 200, objectMapper.writeValueAsBytes(endpoint.handle(body)));
+            } catch (Exception e) {
+                log.warn(" Requête invalide reçue par le service IA de substitution : {}", e.getMessage());
+                send(exchange, 400, "{\"detail\":\"Requête invalide\"}".getBytes(StandardCharsets.UTF_8));
+            }
+        };
+    }
+
+    private void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Endpoint {
+        JsonNode handle(byte[] body) throws IOException;
+    }
+
+    // ===============================
+    // Configuration
+    // ===============================
+
+    /**
+     * Distribution de latence : {@code fixed:<durée>}, {@code uniform:<min>:<max>}
+     * ou {@code lognormal:<médiane>:<sigma>} (ex. {@code lognormal:3s:0.6})
+     */
+    public record Latency(String distribution, Duration first, Duration second, double sigma) {
+
+        public static Latency parse(String value) {
+            String[] parts = value.trim().split(":");
+            return switch (parts[0].toLowerCase()) {
+                case "fixed" -> new Latency("fixed", DurationStyle.detectAndParse(parts[1]), null, 0);
+                case "uniform" -> new Latency("uniform", DurationStyle.detectAndParse(parts[1]),
+                        DurationStyle.detectAndParse(parts[2]), 0);
+                case "lognormal" -> new Latency("lognormal", DurationStyle.detectAndParse(parts[1]), null,
+                        Double.parseDouble(parts[2]));
+                default -> throw new IllegalArgumentException("Distribution de latence inconnue : " + value);
+            };
+        }
+
+        long sample() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            return switch (distribution) {
+                case "uniform" -> random.nextLong(first.toMillis(), second.toMillis() + 1);
+                case "lognormal" -> Math.round(first.toMillis() * Math.exp(sigma * random.nextGaussian()));
+                default -> first.toMillis();
+            };
+        }
+
+        @Override
+        public String toString() {
+            return switch (distribution) {
+                case "uniform" -> "uniform:" + first + ":" + second;
+                case "lognormal" -> "lognormal:" + first + ":" + sigma;
+                default -> "fixed:" + first;
+            };
+        }
+    }
+
+    /**
+     * @param processLatency latence de /process-cv, /process-cv-file et /process-cv-text (parsing + scoring)
+     * @param scoreLatency   latence de /score-cv et de chaque appel /score-batch
+     * @param httpErrorRate  part des appels répondus en HTTP 500
+     * @param failureRate    part des résultats renvoyés avec success=false
+     * @param callbackDelay  délai avant l'envoi du résultat au webhook (null : pas de callback)
+     */
+    public record Settings(Latency processLatency, Latency scoreLatency, double httpErrorRate,
+                           double failureRate, Duration callbackDelay) {
+
+        /**
+         * Lecture des propriétés système {@code loadtest.stub.*}
+         */
+        public static Settings fromSystemProperties() {
+            String callbackDelay = System.getProperty("loadtest.stub.callback-delay", "");
+            return new Settings(
+                    Latency.parse(System.getProperty("loadtest.stub.process-latency", "lognormal:2s:0.5")),
+                    Latency.parse(System.getProperty("loadtest.stub.score-latency", "lognormal:500ms:0.4")),
+                    Double.parseDouble(System.getProperty("loadtest.stub.http-error-rate", "0.01")),
+                    Double.parseDouble(System.getProperty("loadtest.stub.failure-rate", "0.01")),
+                    callbackDelay.isBlank() ? null : DurationStyle.detectAndParse(callbackDelay));
+        }
+    }
+}
@@ -0,0 +1,409 @@
+package com.ept.sn.cri.backend.loadtest;
+
+import com.ept.sn.cri.backend.auth.security.JwtService;
+import com.ept.sn.cri.backend.candidat.repository.CandidateRepository;
+import com.ept.sn.cri.backend.candidat.service.CvStorageService;
+import com.ept.sn.cri.backend.entity.Candidate;
+import com.ept.sn.cri.backend.entity.JobOffer;
+import com.ept.sn.cri.backend.entity.RH;
+import com.ept.sn.cri.backend.enums.ContratType;
+import com.ept.sn.cri.backend.enums.JobType;
+import com.ept.sn.cri.backend.enums.Role;
+import com.ept.sn.cri.backend.rh.repository.JobOfferRepository;
+import com.ept.sn.cri.backend.rh.repository.RHRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.pdfbox.pdmodel.PDDocument;
+import org.apache.pdfbox.pdmodel.PDPage;
+import org.apache.pdfbox.pdmodel.PDPageContentStream;
+import org.apache.pdfbox.pdmodel.common.PDMetadata;
+import org.apache.pdfbox.pdmodel.font.PDType1Font;
+import org.apache.pdfbox.pdmodel.font.Standard14Fonts;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryMXBean;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Test de charge de bout en bout du scoring IA, hors ligne : soumissions multipart réelles
+ * (contrôleur candidat), file de scoring, service IA de substitution, ingestion des résultats
+ * et callbacks webhook. Désactivé par défaut ; lancement :
+ * <pre>
+ * mvn test -Dtest=ScoringLoadTest -Dloadtest=true -Dloadtest.applications=5000 \
+ *     -Dloadtest.stub.process-latency=lognormal:3s:0.6 -Dloadtest.stub.callback-delay=2s
+ * </pre>
+ * Rapporte p50/p95/p99 du délai soumission → score, le débit, et le tas et les threads de la JVM
+ * (backend et harnais partagent la même JVM : les valeurs incluent le harnais).
+ */
+@Slf4j
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles("loadtest")
+@EnabledIfSystemProperty(named = "loadtest", matches = "true")
+class ScoringLoadTest {
+
+    private static final IAStubServer STUB = IAStubServer.start(IAStubServer.Settings.fromSystemProperties());
+
+    private final int applications = Integer.getInteger("loadtest.applications", 2000);
+    private final int offers = Integer.getInteger("loadtest.offers", 20);
+    private final int concurrency = Integer.getInteger("loadtest.concurrency", 64);
+    private final int cvSize = Integer.getInteger("loadtest.cv-size", 200 * 1024);
+    private final Duration timeout = DurationStyle.detectAndParse(System.getProperty("loadtest.timeout", "30m"));
+    // PDFBox écrit un identifiant de document différent à chaque sauvegarde : un CV généré par candidat
+    private final Map<Integer, byte[]> cvs = new ConcurrentHashMap<>();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private RHRepository rhRepository;
+    @Autowired
+    private CandidateRepository candidateRepository;
+    @Autowired
+    private JobOfferRepository jobOfferRepository;
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+    @Autowired
+    private JwtService jwtService;
+    @Autowired
+    private CvStorageService cvStorageService;
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @DynamicPropertySource
+    static void iaService(DynamicPropertyRegistry registry) {
+        registry.add("ia.service.url", STUB::baseUrl);
+    }
+
+    @AfterAll
+    static void stopStub() {
+        STUB.close();
+    }
+
+    @Test
+    void scoreSyntheticApplications() throws Exception {
+        STUB.setCallbackUrl("http://localhost:" + port + "/api/v1/webhook/ia-result");
+        List<Long> offerIds = createOffers();
+        List<String> tokens = createCandidates((applications + offers - 1) / offers);
+
+        ResourceSampler sampler = new ResourceSampler();
+        sampler.start();
+        long start = System.nanoTime();
+
+        // 1. Soumissions : chaque candidat postule une fois à chaque offre, avec toujours le même CV
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ConcurrentLinkedQueue<Long> submitLatencies = new ConcurrentLinkedQueue<>();
+        AtomicInteger rejected = new AtomicInteger();
+        Semaphore inFlight = new Semaphore(concurrency);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < applications; i++) {
+                int candidate = i / offers;
+                long offerId = offerIds.get(i % offers);
+                inFlight.acquire();
+                executor.submit(() -> {
+                    try {
+                        long sent = System.nanoTime();
+                        int status = submit(client, tokens.get(candidate), candidate, offerId);
+                        submitLatencies.add((System.nanoTime() - sent) / 1_000_000);
+                        if (status != 201) {
+                            rejected.incrementAndGet();
+                        }
+                    } catch (Exception e) {
+                        rejected.incrementAndGet();
+                        log.warn(" Soumission en échec : {}", e.getMessage());
+                    } finally {
+                        inFlight.release();
+                    }
+                    return null;
+                });
+            }
+        }
+        long submitted = System.nanoTime();
+        int accepted = applications - rejected.get();
+
+        // 2. Attente de la fin du scoring (score écrit ou tentatives épuisées)
+        long deadline = System.nanoTime() + timeout.toNanos();
+        int finished = 0;
+        while (System.nanoTime() < deadline) {
+            finished = countFinished();
+            if (finished >= accepted) {
+                break;
+            }
+            Thread.sleep(250);
+        }
+        long end = System.nanoTime();
+        sampler.stop();
+
+        // 3. Rapport
+        List<Long> timeToScore = jdbcTemplate.query(
+                "SELECT submit_date, processing_completed_at FROM applications WHERE processing_status = 'COMPLETED'",
+                (rs, row) -> Duration.between(rs.getTimestamp(1).toLocalDateTime(),
+                        rs.getTimestamp(2).toLocalDateTime()).toMillis());
+        Integer failed = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM applications WHERE processing_status = 'FAILED'", Integer.class);
+        double elapsedSeconds = (end - start) / 1e9;
+
+        log.info("""
+
+                        ===== Test de charge du scoring IA =====
+                        Candidatures : {} soumises, {} refusées, {} scorées, {} en échec, {} non terminées
+                        Soumission (ms) : p50={} p95={} p99={} ; durée {} s
+                        Soumission → score (ms) : p50={} p95={} p99={} max={}
+                        Débit : {} scores/s sur {} s
+                        JVM : tas max {} Mo (moyenne {} Mo), threads max {} (moyenne {})
+                        Service IA de substitution : {}""",
+                applications, rejected.get(), timeToScore.size(), failed, accepted - finished,
+                percentile(submitLatencies, 50), percentile(submitLatencies, 95), percentile(submitLatencies, 99),
+                String.format("%.1f", (submitted - start) / 1e9),
+                percentile(timeToScore, 50), percentile(timeToScore, 95), percentile(timeToScore, 99),
+                percentile(timeToScore, 100),
+                String.format("%.1f", timeToScore.size() / elapsedSeconds), String.format("%.1f", elapsedSeconds),
+                sampler.maxHeapMb(), sampler.averageHeapMb(), sampler.maxThreads(), sampler.averageThreads(),
+                STUB.counters());
+
+        deleteUploadedCvs();
+
+        assertThat(rejected.get()).as("soumissions refusées").isZero();
+        assertThat(finished).as("candidatures terminées avant le délai").isEqualTo(accepted);
+    }
+
+    // ===============================
+    // Données synthétiques
+    // ===============================
+
+    private List<Long> createOffers() {
+        RH rh = new RH();
+        rh.setEmail("rh-" + UUID.randomUUID() + "@loadtest.sn");
+        rh.setPassword(passwordEncoder.encode("loadtest"));
+        rh.setFirstName("Charge");
+        rh.setLastName("RH");
+        rh.setRole(Role.RH);
+        rhRepository.save(rh);
+
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < offers; i++) {
+            JobOffer offer = new JobOffer();
+            offer.setJobTitle("Offre de charge " + i);
+            offer.setJobType(JobType.PER);
+            offer.setTypeContrat(ContratType.CDI);
+            offer.setDescription("Développeur backend Java pour la plateforme de recrutement, offre " + i);
+            offer.setRequiredSkills("Java, Spring Boot, SQL");
+            offer.setNiveauEtudeRequis(i % 2 == 0 ? "Master" : "Licence");
+            offer.setExperienceMin(i % 5);
+            offer.setDatePublication(new Date());
+            offer.setCreatedBy(rh);
+            ids.add(jobOfferRepository.save(offer).getId());
+        }
+        return ids;
+    }
+
+    private List<String> createCandidates(int count) {
+        String password = passwordEncoder.encode("loadtest");
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            Candidate candidate = new Candidate();
+            candidate.setEmail("candidat-" + i + "-" + UUID.randomUUID() + "@loadtest.sn");
+            candidate.setPassword(password);
+            candidate.setFirstName("Candidat");
+            candidate.setLastName("N" + i);
+            candidate.setRole(Role.CANDIDATE);
+            tokens.add(jwtService.generateToken(candidateRepository.save(candidate)));
+        }
+        return tokens;
+    }
+
+    private int submit(HttpClient client, String token, int candidate, long offerId)
+            throws IOException, InterruptedException {
+        String boundary = "loadtest-" + UUID.randomUUID();
+        ByteArrayOutputStream body = new ByteArrayOutputStream(cvSize + 2048);
+        field(body, boundary, "firstName", "Candidat");
+        field(body, boundary, "lastName", "N" + candidate);
+        field(body, boundary, "email", "candidat-" + candidate + "@loadtest.sn");
+        field(body, boundary, "highestDegree", candidate % 3 == 0 ? "Licence" : "Master");
+        field(body, boundary, "majorField", "Informatique");
+        field(body, boundary, "certifyAccurate", "true");
+        field(body, boundary, "consentGDPR", "true");
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"cv\"; filename=\"cv-" + candidate
+                + ".pdf\"\r\nContent-Type: application/pdf\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+        body.write(cvs.computeIfAbsent(candidate, this::cv));
+        body.write(("\r\n--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+
+        HttpRequest request = HttpRequest.newBuilder(
+                        URI.create("http://localhost:" + port + "/api/v1/candidate/job-offers/" + offerId + "/apply"))
+                .header("Authorization", "Bearer " + token)
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .timeout(Duration.ofSeconds(60))
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray()))
+                .build();
+        HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 201) {
+            log.warn(" Soumission refusée ({}) : {}", response.statusCode(), response.body());
+        }
+        return response.statusCode();
+    }
+
+    private void field(ByteArrayOutputStream body, String boundary, String name, String value) throws IOException {
+        body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + name + "\"\r\n\r\n"
+                + value + "\r\n").getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * PDF d'une page avec du texte, propre à chaque candidat (même empreinte pour toutes ses candidatures),
+     * complété jusqu'à {@code loadtest.cv-size} octets par un flux de métadonnées
+     */
+    private byte[] cv(int candidate) {
+        try (PDDocument document = new PDDocument()) {
+            PDPage page = new PDPage();
+            document.addPage(page);
+            try (PDPageContentStream content = new PDPageContentStream(document, page)) {
+                content.beginText();
+                content.setFont(new PDType1Font(Standard14Fonts.FontName.HELVETICA), 11);
+                content.setLeading(14);
+                content.newLineAtOffset(50, 740);
+                for (String line : cvLines(candidate)) {
+                    content.showText(line);
+                    content.newLine();
+                }
+                content.endText();
+            }
+
+            ByteArrayOutputStream pdf = new ByteArrayOutputStream();
+            document.save(pdf);
+            int padding = cvSize - pdf.size();
+            if (padding <= 0) {
+                return pdf.toByteArray();
+            }
+            byte[] filler = new byte[padding];
+            for (int i = 0; i < filler.length; i++) {
+                filler[i] = (byte) ('a' + (i * 31 + candidate) % 26);
+            }
+            document.getDocumentCatalog().setMetadata(new PDMetadata(document, new ByteArrayInputStream(filler)));
+            pdf.reset();
+            document.save(pdf);
+            return pdf.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private List<String> cvLines(int candidate) {
+        List<String> lines = new ArrayList<>();
+        lines.add("Candidat N" + candidate + " - Developpeur backend");
+        lines.add("Competences : Java, SQL, Git" + (candidate % 2 == 0 ? ", Spring Boot" : ", Python"));
+        lines.add("Formation : " + (candidate % 3 == 0 ? "Licence" : "Master") + " en informatique");
+        for (int i = 0; i < 15; i++) {
+            lines.add("Experience " + (2024 - i) + " : projet " + i + " realise pour le client " + (candidate + i) % 7
+                    + ", conception d'API REST et optimisation de requetes SQL");
+        }
+        return lines;
+    }
+
+    private int countFinished() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM applications WHERE processing_status IN ('COMPLETED', 'FAILED')", Integer.class);
+        return count == null ? 0 : count;
+    }
+
+    private void deleteUploadedCvs() {
+        for (String cvUrl : jdbcTemplate.queryForList("SELECT DISTINCT cv_url FROM applications", String.class)) {
+            try {
+                Files.deleteIfExists(cvStorageService.resolve(cvUrl));
+            } catch (IOException | RuntimeException e) {
+                log.warn(" CV non supprimé {} : {}", cvUrl, e.getMessage());
+            }
+        }
+    }
+
+    private static long percentile(Iterable<Long> values, int percentile) {
+        List<Long> sorted = new ArrayList<>();
+        values.forEach(sorted::add);
+        if (sorted.isEmpty()) {
+            return 0;
+        }
+        Collections.sort(sorted);
+        int rank = (int) Math.ceil(percentile / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, rank - 1));
+    }
+
+    /**
+     * Échantillonnage du tas utilisé et du nombre de threads pendant le test
+     */
+    private static final class ResourceSampler {
+
+        private final MemoryMXBean memory = ManagementFactory.getMemoryMXBean();
+        private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        private final List<long[]> samples = Collections.synchronizedList(new ArrayList<>());
+        private volatile boolean running = true;
+        private Thread thread;
+
+        void start() {
+            thread = Thread.ofPlatform().daemon().name("loadtest-sampler").start(() -> {
+                while (running) {
+                    samples.add(new long[]{memory.getHeapMemoryUsage().getUsed() / (1024 * 1024),
+                            threads.getThreadCount()});
+                    try {
+                        Thread.sleep(250);
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                }
+            });
+        }
+
+        void stop() throws InterruptedException {
+            running = false;
+            thread.join();
+        }
+
+        long maxHeapMb() {
+            return samples.stream().mapToLong(sample -> sample[0]).max().orElse(0);
+        }
+
+        long averageHeapMb() {
+            return Math.round(samples.stream().mapToLong(sample -> sample[0]).average().orElse(0));
+        }
+
+        long maxThreads() {
+            return samples.stream().mapToLong(sample -> sample[1]).max().orElse(0);
+        }
+
+        long averageThreads() {
+            return Math.round(samples.stream().mapToLong(sample -> sample[1]).average().orElse(0));
+        }
+    }
+}
@@ -2,13 +2,16 @@
 API FastAPI pour le service IA de recrutement
 """
 import os
+import asyncio
+import base64
 import logging
 import time
 from datetime import datetime
 from typing import Optional
 from contextlib import asynccontextmanager
 
-from fastapi import FastAPI, HTTPException, BackgroundTasks, status
+from fastapi import FastAPI, HTTPException, BackgroundTasks, status, File, Form, UploadFile
+from fastapi.concurrency import run_in_threadpool
 from fastapi.middleware.cors import CORSMiddleware
 from fastapi.responses import JSONResponse
 import httpx
@@ -17,7 +20,8 @@ from dotenv import load_dotenv
 from models import (
     ParseCVRequest, ParseCVResponse,
     ScoreCVRequest, ScoreCVResponse,
-    ProcessCVRequest, ProcessCVResponse,
+    ScoreBatchRequest, ScoreBatchResponse,
+    ProcessCVRequest, ProcessCVTextRequest, ProcessCVResponse, ProcessCVMetadata,
     HealthResponse
 )
 from services import CVParsingService, CVScoringService
@@ -98,7 +102,10 @@ async def root():
             "health": "/health",
             "parse": "/api/ia/parse-cv",
             "score": "/api/ia/score-cv",
-            "process": "/api/ia/process-cv"
+            "score_batch": "/api/ia/score-batch",
+            "process": "/api/ia/process-cv",
+            "process_file": "/api/ia/process-cv-file",
+            "process_text": "/api/ia/process-cv-text"
         }
     }
 
@@ -169,23 +176,76 @@ async def process_cv(
     logger.info(
         f" Requête de traitement complet pour candidature {request.application_id}"
     )
+    return await run_processing(
+        request.application_id,
+        lambda: parsing_service.parse_cv(
+            cv_base64=request.cv_base64,
+            application_id=request.application_id,
+            filename=request.filename
+        ),
+        request.job_offer,
+        request.callback_url,
+        request.offer_version,
+        background_tasks
+    )
+
+
+@app.post(
+    "/api/ia/process-cv-text",
+    response_model=ProcessCVResponse,
+    tags=["Processing"],
+    status_code=status.HTTP_200_OK
+)
+async def process_cv_text(
+        request: ProcessCVTextRequest,
+        background_tasks: BackgroundTasks
+):
+    """
+    Traitement complet (Parsing + Scoring) à partir du texte du CV
 
+    - **cv_text**: texte extrait du PDF par le backend (quelques Ko au lieu du PDF en Base64) ;
+      pas d'OCR, le texte est structuré directement par le modèle de chat
+    """
+    logger.info(
+        f" Requête de traitement (texte, {len(request.cv_text)} caractères) pour candidature {request.application_id}"
+    )
+    return await run_processing(
+        request.application_id,
+        lambda: parsing_service.parse_cv_text(
+            cv_text=request.cv_text,
+            application_id=request.application_id
+        ),
+        request.job_offer,
+        request.callback_url,
+        request.offer_version,
+        background_tasks
+    )
+
+
+async def run_processing(
+        application_id: int,
+        parse,
+        job_offer,
+        callback_url: Optional[str],
+        offer_version: Optional[int],
+        background_tasks: BackgroundTasks
+) -> ProcessCVResponse:
+    """
+    Parsing (fonction fournie par l'endpoint) puis scoring, et callback éventuel
+    """
     start_time = time.time()
 
     try:
         # ÉTAPE 1: Parsing
         logger.info(f" Étape 1/2: Parsing du CV...")
-        parse_result = parsing_service.parse_cv(
-            cv_base64=request.cv_base64,
-            application_id=request.application_id,
-            filename = request.filename
-        )
+        parse_result = parse()
 
         if not parse_result.success:
             logger.error(f" Parsing échoué: {parse_result.error_message}")
             return ProcessCVResponse(
                 success=False,
-                application_id=request.application_id,
+                application_id=application_id,
+                offer_version=offer_version,
                 scoring_result=None,
                 error_message=f"Parsing échoué: {parse_result.error_message}",
                 total_processing_time=time.time() - start_time
@@ -195,15 +255,16 @@ async def process_cv(
         logger.info(f" Étape 2/2: Scoring du CV...")
         score_result = scoring_service.score_cv(
             cv_data=parse_result.parsed_data,
-            job_offer=request.job_offer,
-            application_id=request.application_id
+            job_offer=job_offer,
+            application_id=application_id
         )
 
         if not score_result.success:
             logger.error(f" Scoring échoué: {score_result.error_message}")
             return ProcessCVResponse(
                 success=False,
-                application_id=request.application_id,
+                application_id=application_id,
+                offer_version=offer_version,
                 scoring_result=None,
                 error_message=f"Scoring échoué: {score_result.error_message}",
                 total_processing_time=time.time() - start_time
@@ -214,24 +275,26 @@ async def process_cv(
         # Créer la réponse
         response = ProcessCVResponse(
             success=True,
-            application_id=request.application_id,
+            application_id=application_id,
+            offer_version=offer_version,
             scoring_result=score_result.scoring_result,
+            parsed_data=parse_result.parsed_data,
             error_message=None,
             total_processing_time=total_time
         )
 
         logger.info(
-            f" Traitement complet réussi pour candidature {request.application_id} "
+            f" Traitement complet réussi pour candidature {application_id} "
             f"(Score: {score_result.scoring_result.score_global:.1f}, "
             f"Temps total: {total_time:.2f}s)"
         )
 
         # Si callback URL fourni, envoyer le résultat de manière asynchrone
-        if request.callback_url:
-            logger.info(f" Envoi du callback à {request.callback_url}")
+        if callback_url:
+            logger.info(f" Envoi du callback à {callback_url}")
             background_tasks.add_task(
                 send_callback,
-                request.callback_url,
+                callback_url,
                 response.model_dump()
             )
 
@@ -243,12 +306,104 @@ async def process_cv(
 
         return ProcessCVResponse(
             success=False,
-            application_id=request.application_id,
+            application_id=application_id,
+            offer_version=offer_version,
             scoring_result=None,
             error_message=f"Erreur inattendue: {str(e)}",
             total_processing_time=total_time
         )
 
+@app.post(
+    "/api/ia/score-cv",
+    response_model=ScoreCVResponse,
+    tags=["Processing"],
+    status_code=status.HTTP_200_OK
+)
+async def score_cv(request: ScoreCVRequest):
+    """
+    Scoring seul, à partir d'un profil déjà extrait (parsed_data d'un précédent process-cv)
+
+    - **application_id**: ID de la candidature
+    - **parsed_cv_data**: Profil structuré du CV
+    - **job_offer**: Données de l'offre d'emploi
+    """
+    logger.info(f" Requête de scoring (profil déjà parsé) pour candidature {request.application_id}")
+    return scoring_service.score_cv(
+        cv_data=request.parsed_cv_data,
+        job_offer=request.job_offer,
+        application_id=request.application_id
+    )
+
+@app.post(
+    "/api/ia/score-batch",
+    response_model=ScoreBatchResponse,
+    tags=["Processing"],
+    status_code=status.HTTP_200_OK
+)
+async def score_batch(request: ScoreBatchRequest):
+    """
+    Scoring d'un lot de profils déjà extraits, en un seul appel
+
+    - **requests**: liste de requêtes score-cv (application_id, parsed_cv_data, job_offer)
+
+    Les résultats sont renvoyés dans l'ordre des requêtes ; l'échec d'un élément
+    n'interrompt pas les autres (success=false sur l'élément concerné).
+    """
+    start_time = time.time()
+    logger.info(f" Requête de scoring par lot ({len(request.requests)} candidatures)")
+
+    results = await asyncio.gather(*(
+        run_in_threadpool(
+            scoring_service.score_cv,
+            cv_data=item.parsed_cv_data,
+            job_offer=item.job_offer,
+            application_id=item.application_id
+        )
+        for item in request.requests
+    ))
+
+    return ScoreBatchResponse(
+        results=list(results),
+        processing_time=time.time() - start_time
+    )
+
+@app.post(
+    "/api/ia/process-cv-file",
+    response_model=ProcessCVResponse,
+    tags=["Processing"],
+    status_code=status.HTTP_200_OK
+)
+async def process_cv_file(
+        background_tasks: BackgroundTasks,
+        metadata: str = Form(..., description="ProcessCVMetadata au format JSON"),
+        cv: UploadFile = File(..., description="Fichier du CV")
+):
+    """
+    Traitement complet (Parsing + Scoring) à partir d'un CV envoyé en multipart
+
+    - **metadata**: application_id, filename, job_offer, callback_url (JSON)
+    - **cv**: fichier du CV, transmis tel quel (pas de Base64 côté client)
+    """
+    try:
+        meta = ProcessCVMetadata.model_validate_json(metadata)
+    except Exception as e:
+        raise HTTPException(
+            status_code=status.HTTP_422_UNPROCESSABLE_ENTITY,
+            detail=f"Metadata invalide: {e}"
+        )
+
+    # L'API OCR attend le document en Base64 : l'encodage se fait ici, une seule fois
+    cv_bytes = await cv.read()
+    request = ProcessCVRequest(
+        application_id=meta.application_id,
+        cv_base64=base64.b64encode(cv_bytes).decode("ascii"),
+        filename=meta.filename or cv.filename,
+        job_offer=meta.job_offer,
+        callback_url=meta.callback_url,
+        offer_version=meta.offer_version
+    )
+    return await process_cv(request, background_tasks)
+
 # ==================== GESTION DES ERREURS ====================
 @app.exception_handler(HTTPException)
 async def http_exception_handler(request, exc):
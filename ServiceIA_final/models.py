@@ -208,6 +208,7 @@ class ScoreCVResponse(BaseModel):
     """Réponse du scoring de CV"""
     success: bool = Field(..., description="Succès de l'opération")
     application_id: int = Field(..., description="ID de la candidature")
+    offer_version: Optional[int] = Field(None, description="Version de scoring de l'offre reçue dans la requête")
     scoring_result: Optional[ScoringResult] = Field(None, description="Résultat du scoring")
     error_message: Optional[str] = Field(None, description="Message d'erreur si échec")
     processing_time: float = Field(..., description="Temps de traitement en secondes")
@@ -227,6 +228,16 @@ class ScoreCVResponse(BaseModel):
             }
         }
 
+class ScoreBatchRequest(BaseModel):
+    """Lot de scorings (couples profil de CV / offre) envoyés en un seul appel"""
+    requests: List[ScoreCVRequest] = Field(..., description="Scorings à effectuer")
+
+
+class ScoreBatchResponse(BaseModel):
+    """Résultats d'un lot, dans l'ordre des requêtes"""
+    results: List[ScoreCVResponse] = Field(..., description="Un résultat par requête")
+    processing_time: float = Field(..., description="Temps de traitement total en secondes")
+
 class ProcessCVRequest(BaseModel):
     """Requête pour traiter un CV (parsing + scoring)"""
     application_id: int = Field(..., description="ID de la candidature")
@@ -234,6 +245,7 @@ class ProcessCVRequest(BaseModel):
     filename: str = Field(..., description="Nom du fichier")
     job_offer: JobOffer = Field(..., description="Données de l'offre d'emploi")
     callback_url: Optional[str] = Field(None, description="URL de callback pour le résultat")
+    offer_version: Optional[int] = Field(None, description="Version de scoring de l'offre, renvoyée telle quelle dans la réponse")
 
     class Config:
         json_schema_extra = {
@@ -255,11 +267,30 @@ class ProcessCVRequest(BaseModel):
             }
         }
 
+class ProcessCVMetadata(BaseModel):
+    """Partie "metadata" d'une requête multipart (le CV est envoyé dans la partie "cv")"""
+    application_id: int = Field(..., description="ID de la candidature")
+    filename: str = Field(..., description="Nom du fichier")
+    job_offer: JobOffer = Field(..., description="Données de l'offre d'emploi")
+    callback_url: Optional[str] = Field(None, description="URL de callback pour le résultat")
+    offer_version: Optional[int] = Field(None, description="Version de scoring de l'offre, renvoyée telle quelle dans la réponse")
+
+class ProcessCVTextRequest(BaseModel):
+    """Requête de traitement à partir du texte du CV, déjà extrait du PDF par le backend"""
+    application_id: int = Field(..., description="ID de la candidature")
+    cv_text: str = Field(..., description="Texte normalisé du CV")
+    filename: Optional[str] = Field(None, description="Nom du fichier d'origine")
+    job_offer: JobOffer = Field(..., description="Données de l'offre d'emploi")
+    callback_url: Optional[str] = Field(None, description="URL de callback pour le résultat")
+    offer_version: Optional[int] = Field(None, description="Version de scoring de l'offre, renvoyée telle quelle dans la réponse")
+
 class ProcessCVResponse(BaseModel):
     """Réponse du traitement complet de CV"""
     success: bool = Field(..., description="Succès de l'opération")
     application_id: int = Field(..., description="ID de la candidature")
+    offer_version: Optional[int] = Field(None, description="Version de scoring de l'offre reçue dans la requête")
     scoring_result: Optional[ScoringResult] = Field(None, description="Résultat du scoring")
+    parsed_data: Optional[ResumeData] = Field(None, description="Profil extrait du CV, réutilisable pour scorer d'autres offres")
     error_message: Optional[str] = Field(None, description="Message d'erreur si échec")
     total_processing_time: float = Field(..., description="Temps total de traitement en secondes")
 
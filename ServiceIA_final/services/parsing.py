@@ -33,6 +33,8 @@ class CVParsingService:
         self.api_key = api_key or os.getenv("MISTRAL_API_KEY")
         self.client = Mistral(api_key=self.api_key)
         self.model = "mistral-ocr-latest"
+        # Texte déjà extrait : structuration par un modèle de chat, sans OCR
+        self.text_model = "mistral-small-latest"
         logger.info(f" CVParsingService initialisé avec le modèle {self.model}")
 
     def health_check(self) -> bool:
@@ -43,6 +45,44 @@ class CVParsingService:
             logger.error(f"Health check failed: {e}")
             return False
 
+    def parse_cv_text(self, cv_text: str, application_id: int) -> ParseCVResponse:
+        """
+        Structure en ResumeData le texte d'un CV extrait par le backend (pas d'OCR).
+        """
+        start_time = time.time()
+        try:
+            response = self.client.chat.complete(
+                model=self.text_model,
+                messages=[
+                    {"role": "system", "content": "Extract the resume information from the CV text. "
+                                                  "Only use information present in the text."},
+                    {"role": "user", "content": cv_text}
+                ],
+                response_format=response_format_from_pydantic_model(ResumeData),
+            )
+
+            try:
+                parsed = ResumeData(**json.loads(response.choices[0].message.content))
+            except Exception as e:
+                raise ValueError(f"Erreur validation ResumeData : {e}")
+
+            return ParseCVResponse(
+                success=True,
+                application_id=application_id,
+                parsed_data=parsed,
+                processing_time=time.time() - start_time,
+                error_message=None
+            )
+
+        except Exception as e:
+            return ParseCVResponse(
+                success=False,
+                application_id=application_id,
+                parsed_data=None,
+                processing_time=time.time() - start_time,
+                error_message=str(e)
+            )
+
     def parse_cv(self, cv_base64: str, filename: str, application_id: int, save_folder="save_cvs") -> ParseCVResponse:
         start_time = time.time()
         try: